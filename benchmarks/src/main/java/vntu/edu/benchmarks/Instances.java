@@ -0,0 +1,114 @@
+package vntu.edu.benchmarks;
+
+import vntu.edu.simplex_methods.SparseMatrix;
+
+import java.util.Random;
+
+/** Problems for the benchmarks: the {@code SolverTest} cases and seeded random ILPs. */
+final class Instances {
+    private static final long SEED = 42;
+
+    private Instances() {
+    }
+
+    record Instance(SparseMatrix constraints, boolean[] signs, double[] freeVars, double[] objective, boolean max) {
+    }
+
+    /**
+     * {@code testCase8}, {@code testCase3}, {@code testCase14}, {@code testCase28}, {@code testFromLecture},
+     * {@code testNodeSelections}, or a random {@code packing-<rows>x<cols>-<density>} /
+     * {@code covering-<rows>x<cols>-<density>} problem.
+     */
+    static Instance named(String name) {
+        return switch (name) {
+            case "testCase8" -> of(new double[][] {{1, 1}, {1, 3}}, new boolean[2], new double[] {7, 12},
+                    new double[] {2, 5}, true);
+            case "testCase3" -> of(new double[][] {{-2, 5}, {9, -4}}, new boolean[2], new double[] {9, 24},
+                    new double[] {15, -5}, true);
+            case "testCase14" -> of(new double[][] {{1, 1}, {-3, 4}}, new boolean[2], new double[] {3, 3},
+                    new double[] {2, 4}, true);
+            case "testCase28" -> of(new double[][] {{1, -1}, {2, 3}, {7, -2}}, new boolean[] {true, false, false},
+                    new double[] {-7, 17, 28}, new double[] {-5, 4}, true);
+            case "testFromLecture" -> of(new double[][] {{2, 2}, {4, -5}}, new boolean[2], new double[] {7, 9},
+                    new double[] {1, 2}, true);
+            case "testNodeSelections" -> of(new double[][] {{6, 5, 4}, {3, 7, 9}, {8, 2, 5}}, new boolean[3],
+                    new double[] {31, 40, 37}, new double[] {7, 6, 8}, true);
+            default -> random(name);
+        };
+    }
+
+    /** {@code max c·x, A·x <= b} with non-negative {@code A}; every column is covered, so the LP is bounded. */
+    static Instance packing(int rows, int cols, double density) {
+        Random random = new Random(SEED);
+        double[][] matrix = randomMatrix(random, rows, cols, density);
+        double[] freeVars = new double[rows];
+        for (int i = 0; i < rows; i++)
+            freeVars[i] = Math.floor(rowSum(matrix[i]) / 2) + 1;
+        double[] objective = new double[cols];
+        for (int j = 0; j < cols; j++)
+            objective[j] = 1 + random.nextInt(20);
+        return of(matrix, new boolean[rows], freeVars, objective, true);
+    }
+
+    /** {@code min c·x, A·x >= b} with non-negative {@code A}; solved from the dual side. */
+    static Instance covering(int rows, int cols, double density) {
+        Random random = new Random(SEED);
+        double[][] matrix = randomMatrix(random, rows, cols, density);
+        boolean[] signs = new boolean[rows];
+        double[] freeVars = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            signs[i] = true;
+            freeVars[i] = Math.floor(rowSum(matrix[i]) / 3) + 1;
+        }
+        double[] objective = new double[cols];
+        for (int j = 0; j < cols; j++)
+            objective[j] = 1 + random.nextInt(20);
+        return of(matrix, signs, freeVars, objective, false);
+    }
+
+    private static Instance random(String name) {
+        String[] parts = name.split("[-x]");
+        if (parts.length != 4)
+            throw new IllegalArgumentException("Unknown instance: " + name);
+        int rows = Integer.parseInt(parts[1]);
+        int cols = Integer.parseInt(parts[2]);
+        double density = Double.parseDouble(parts[3]);
+        return switch (parts[0]) {
+            case "packing" -> packing(rows, cols, density);
+            case "covering" -> covering(rows, cols, density);
+            default -> throw new IllegalArgumentException("Unknown instance: " + name);
+        };
+    }
+
+    private static double[][] randomMatrix(Random random, int rows, int cols, double density) {
+        double[][] matrix = new double[rows][cols];
+        for (int i = 0; i < rows; i++)
+            for (int j = 0; j < cols; j++)
+                if (random.nextDouble() < density)
+                    matrix[i][j] = 1 + random.nextInt(9);
+        // no empty rows or columns
+        for (int i = 0; i < rows; i++)
+            if (rowSum(matrix[i]) == 0)
+                matrix[i][random.nextInt(cols)] = 1 + random.nextInt(9);
+        for (int j = 0; j < cols; j++) {
+            boolean empty = true;
+            for (int i = 0; i < rows && empty; i++)
+                empty = matrix[i][j] == 0;
+            if (empty)
+                matrix[random.nextInt(rows)][j] = 1 + random.nextInt(9);
+        }
+        return matrix;
+    }
+
+    private static double rowSum(double[] row) {
+        double sum = 0;
+        for (double value : row)
+            sum += value;
+        return sum;
+    }
+
+    private static Instance of(double[][] matrix, boolean[] signs, double[] freeVars, double[] objective,
+                               boolean max) {
+        return new Instance(SparseMatrix.of(matrix), signs, freeVars, objective, max);
+    }
+}
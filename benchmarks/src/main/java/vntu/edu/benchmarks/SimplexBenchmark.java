@@ -0,0 +1,98 @@
+package vntu.edu.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import vntu.edu.Solution;
+import vntu.edu.simplex_methods.BaseSimplex;
+import vntu.edu.simplex_methods.DualSimplex;
+import vntu.edu.simplex_methods.Kernels;
+import vntu.edu.simplex_methods.Pricing;
+import vntu.edu.simplex_methods.RevisedSimplex;
+import vntu.edu.simplex_methods.Scaling;
+import vntu.edu.simplex_methods.Simplex;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One LP solve from the slack basis. Besides solves per second JMH reports the {@code pivots}
+ * counter as pivots per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class SimplexBenchmark {
+    @Param({"20", "100", "300"})
+    private int size;
+
+    @Param({"1.0", "0.05"})
+    private double density;
+
+    /** {@code PACKING} starts primal feasible, {@code COVERING} needs dual pivots first. */
+    @Param({"PACKING", "COVERING"})
+    private String problem;
+
+    /** {@code TABLEAU} is {@link Simplex} or {@link DualSimplex}, depending on the problem. */
+    @Param({"TABLEAU", "REVISED"})
+    private String engine;
+
+    /** Row updates on the Vector API or in scalar loops, see {@link Kernels}. */
+    @Param({"true", "false"})
+    private boolean vectorized;
+
+    /** Entering-column rule, see {@link Pricing}; the pivots counter shows what it saves. */
+    @Param({"DANTZIG", "PARTIAL", "DEVEX", "STEEPEST_EDGE"})
+    private Pricing pricing;
+
+    /** Row and column scaling before the first pivot, see {@link Scaling}. */
+    @Param({"NONE", "EQUILIBRATION", "GEOMETRIC_MEAN"})
+    private Scaling scaling;
+
+    private Instances.Instance instance;
+
+    @Setup
+    public void setUp() {
+        Kernels.setVectorized(vectorized);
+        instance = problem.equals("PACKING")
+                ? Instances.packing(size, size, density)
+                : Instances.covering(size, size, density);
+    }
+
+    @Benchmark
+    public Solution solve(Counters counters) {
+        Instances.Instance m = instance;
+        BaseSimplex lp;
+        Solution solution;
+        if (engine.equals("REVISED")) {
+            lp = new RevisedSimplex(m.constraints(), m.signs(), m.freeVars(), m.objective());
+            lp.setPricing(pricing);
+            lp.setScaling(scaling);
+            solution = lp.solve(m.max());
+        } else if (problem.equals("PACKING")) {
+            lp = new Simplex(m.constraints(), m.signs(), m.freeVars(), m.objective());
+            lp.setPricing(pricing);
+            lp.setScaling(scaling);
+            solution = lp.solve(m.max());
+        } else {
+            DualSimplex dual = new DualSimplex(m.constraints(), m.signs(), m.freeVars(), m.objective());
+            dual.setPricing(pricing);
+            dual.setScaling(scaling);
+            lp = dual;
+            solution = dual.solveToOptimum(m.max());
+        }
+        counters.pivots += lp.getPivots();
+        return solution;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long pivots;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            pivots = 0;
+        }
+    }
+}
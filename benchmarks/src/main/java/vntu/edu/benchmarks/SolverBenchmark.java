@@ -0,0 +1,75 @@
+package vntu.edu.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import vntu.edu.NodeSelection;
+import vntu.edu.Solution;
+import vntu.edu.Solver;
+import vntu.edu.SolverSettings;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full branch-and-bound solves. Besides solves per second JMH reports the {@code nodes} counter
+ * as nodes per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SolverBenchmark {
+    /** See {@link Instances#named}. */
+    @Param({"testCase8", "testCase3", "testCase14", "testCase28", "testFromLecture", "testNodeSelections",
+            "packing-10x10-1.0", "packing-30x30-0.2", "covering-15x15-0.5", "covering-20x20-0.2"})
+    private String instance;
+
+    @Param({"BEST_BOUND", "DEPTH_FIRST", "HYBRID"})
+    private NodeSelection nodeSelection;
+
+    @Param({"false", "true"})
+    private boolean revisedSimplex;
+
+    @Param({"0", "5"})
+    private int cutRounds;
+
+    @Param({"true", "false"})
+    private boolean propagation;
+
+    @Param({"0", "64"})
+    private int transpositionTableSize;
+
+    private Instances.Instance model;
+    private SolverSettings settings;
+
+    @Setup
+    public void setUp() {
+        model = Instances.named(instance);
+        settings = SolverSettings.builder()
+                .nodeSelection(nodeSelection)
+                .revisedSimplex(revisedSimplex)
+                .cutRounds(cutRounds)
+                .propagation(propagation)
+                .transpositionTableSize(transpositionTableSize)
+                .build();
+    }
+
+    @Benchmark
+    public Solution solve(Counters counters) {
+        Solver solver = new Solver(model.constraints(), model.signs(), model.freeVars(), model.objective(), settings);
+        Solution solution = solver.solve(model.max());
+        counters.nodes += solver.getNodeCount();
+        return solution;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+}
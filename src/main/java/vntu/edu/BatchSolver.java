@@ -0,0 +1,124 @@
+package vntu.edu;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.IntStream;
+
+/**
+ * Solves many independent models concurrently, each with its own {@link Solver}. By default every
+ * job gets a virtual thread when the runtime has them, and a pool of one thread per processor
+ * runs the jobs otherwise; a bounded {@link ExecutorService} of the caller can be passed instead.
+ * <p>
+ * The solvers of a batch run at the same time, so their settings must not share a stateful
+ * {@link SolverSettings#getBranchingRule() branching rule} or a listener that is not thread-safe.
+ */
+public final class BatchSolver implements AutoCloseable {
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    public BatchSolver() {
+        this(defaultExecutor(), true);
+    }
+
+    /** Runs the jobs on {@code executor}, which {@link #close()} leaves to its owner. */
+    public BatchSolver(ExecutorService executor) {
+        this(executor, false);
+    }
+
+    private BatchSolver(ExecutorService executor, boolean ownsExecutor) {
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Starts {@code solver.solve(max)}. The future completes with the plan or with the exception
+     * of {@link Solver#solve}; cancelling it {@link Solver#cancel() cancels} the solver, so a job
+     * that has not started is skipped and a running one stops before its next node.
+     */
+    public CompletableFuture<Solution> submit(Solver solver, boolean max) {
+        Job job = new Job(solver);
+        try {
+            executor.execute(() -> job.run(max));
+        } catch (RejectedExecutionException e) {
+            job.completeExceptionally(e);
+        }
+        return job;
+    }
+
+    /** {@link #submit} for every solver; the futures are in the order of {@code solvers}. */
+    public List<CompletableFuture<Solution>> submitAll(List<Solver> solvers, boolean max) {
+        return solvers.stream().map(solver -> submit(solver, max)).toList();
+    }
+
+    /**
+     * Indices into {@code futures} in the order the futures complete, normally, exceptionally or
+     * by cancellation; the stream blocks until the next one is done.
+     */
+    public static IntStream completionOrder(List<? extends CompletableFuture<?>> futures) {
+        BlockingQueue<Integer> done = new LinkedBlockingQueue<>();
+        for (int i = 0; i < futures.size(); i++) {
+            int index = i;
+            futures.get(i).whenComplete((result, error) -> done.add(index));
+        }
+        return IntStream.range(0, futures.size()).map(k -> take(done));
+    }
+
+    /** Shuts the default executor down after the submitted jobs. */
+    @Override
+    public void close() {
+        if (ownsExecutor)
+            executor.shutdown();
+    }
+
+    private static int take(BlockingQueue<Integer> done) {
+        try {
+            return done.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a solve");
+        }
+    }
+
+    /**
+     * Virtual threads are a preview API on Java 20, the target of this build: a direct call would not
+     * compile without {@code --enable-preview}, so the factory is looked up reflectively, and a runtime
+     * that has not enabled the preview rejects the call and falls back to the pool.
+     */
+    private static ExecutorService defaultExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    private static final class Job extends CompletableFuture<Solution> {
+        private final Solver solver;
+
+        private Job(Solver solver) {
+            this.solver = solver;
+        }
+
+        private void run(boolean max) {
+            if (isDone())
+                return;
+            try {
+                complete(solver.solve(max));
+            } catch (Throwable e) {
+                completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            solver.cancel();
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package vntu.edu;
+
+import vntu.edu.cutting_planes.Cut;
+import vntu.edu.simplex_methods.SparseMatrix;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Saved state of a sequential search: the incumbent, the counters and the open nodes together
+ * with the ancestors they are rebuilt from, each stored once as the bound it was branched on and
+ * its local cuts. The root is not stored; {@link Solver#resume} solves it again, which gives the
+ * same LP because presolve, the root LP and the root cuts are deterministic.
+ * <p>
+ * The file is big-endian: a header with the fingerprint of the model, the nodes with every parent
+ * before its children, and a CRC-32 of all that. It is written to a temporary file that then
+ * replaces the previous checkpoint, so a crash while writing leaves the previous one intact.
+ */
+final class Checkpoint {
+    private static final int MAGIC = 0x42424350;
+    private static final short VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte UPPER = 1;
+    private static final byte OPEN = 2;
+
+    private final long model;
+    private final boolean max;
+    private final long nodeCount;
+    private final double unexploredBound;
+    /** {@code null} when no integer plan was found yet. */
+    private final Solution incumbent;
+    private final boolean rootOpen;
+    /** Open nodes and their bounds at the time of the snapshot, empty for a checkpoint that was read. */
+    private final Node[] open;
+    private final double[] bounds;
+    /** Nodes of a checkpoint that was read, parents first. */
+    private final List<Entry> entries;
+
+    private Checkpoint(long model, boolean max, long nodeCount, double unexploredBound, Solution incumbent,
+                       boolean rootOpen, Node[] open, double[] bounds, List<Entry> entries) {
+        this.model = model;
+        this.max = max;
+        this.nodeCount = nodeCount;
+        this.unexploredBound = unexploredBound;
+        this.incumbent = incumbent;
+        this.rootOpen = rootOpen;
+        this.open = open;
+        this.bounds = bounds;
+        this.entries = entries;
+    }
+
+    /**
+     * Snapshot of the open nodes for a later {@link #write}; only the node references and their
+     * bounds are copied, so it is cheap enough to take between two nodes of the search.
+     */
+    static Checkpoint of(long model, boolean max, long nodeCount, double unexploredBound, Solution incumbent,
+                         Node[] open) {
+        double[] bounds = new double[open.length];
+        boolean rootOpen = false;
+        for (int k = 0; k < open.length; k++) {
+            bounds[k] = open[k].bound();
+            rootOpen |= open[k].parent() == null;
+        }
+        return new Checkpoint(model, max, nodeCount, unexploredBound, incumbent, rootOpen, open, bounds, List.of());
+    }
+
+    long model() {
+        return model;
+    }
+
+    boolean max() {
+        return max;
+    }
+
+    long nodeCount() {
+        return nodeCount;
+    }
+
+    double unexploredBound() {
+        return unexploredBound;
+    }
+
+    Solution incumbent() {
+        return incumbent;
+    }
+
+    int openNodes() {
+        return open.length;
+    }
+
+    /**
+     * Writes the checkpoint to {@code path}. It reads only the fields of the nodes that no longer
+     * change once a node is queued, so it may run on another thread while the search goes on.
+     */
+    void write(Path path) throws IOException {
+        Map<Node, Double> openBounds = new IdentityHashMap<>();
+        for (int k = 0; k < open.length; k++)
+            openBounds.put(open[k], bounds[k]);
+        Map<Node, Boolean> seen = new IdentityHashMap<>();
+        List<Node> nodes = new ArrayList<>();
+        for (Node node : open)
+            for (Node n = node; n.parent() != null && seen.put(n, true) == null; n = n.parent())
+                nodes.add(n);
+        nodes.sort(Comparator.comparingInt(Node::depth));
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            Output out = new Output(channel);
+            out.putInt(MAGIC);
+            out.putShort(VERSION);
+            out.putLong(model);
+            out.putByte((byte) (max ? 1 : 0));
+            out.putLong(nodeCount);
+            out.putDouble(unexploredBound);
+            out.putByte((byte) (rootOpen ? 1 : 0));
+            out.putByte((byte) (incumbent == null ? 0 : 1));
+            if (incumbent != null) {
+                out.putDouble(incumbent.objValue());
+                out.putDoubles(incumbent.optimalPlan());
+            }
+            out.putInt(nodes.size());
+            for (Node node : nodes) {
+                Double bound = openBounds.get(node);
+                out.putLong(node.id());
+                out.putLong(node.parent().parent() == null ? -1 : node.parent().id());
+                out.putInt(node.variable());
+                out.putDouble(node.value());
+                out.putByte((byte) ((node.isUpper() ? UPPER : 0) | (bound == null ? 0 : OPEN)));
+                out.putDouble(bound == null ? 0 : bound);
+                out.putInt(node.cuts().length);
+                for (Cut cut : node.cuts())
+                    putCut(out, cut);
+            }
+            out.finish();
+        }
+        Files.move(temporary, path, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    static Checkpoint read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            Input in = new Input(channel);
+            if (in.getInt() != MAGIC)
+                throw new IOException(path + " is not a checkpoint");
+            short version = in.getShort();
+            if (version != VERSION)
+                throw new IOException("Unsupported checkpoint version " + version);
+            long model = in.getLong();
+            boolean max = in.getByte() != 0;
+            long nodeCount = in.getLong();
+            double unexploredBound = in.getDouble();
+            boolean rootOpen = in.getByte() != 0;
+            Solution incumbent = in.getByte() == 0 ? null : new Solution(in.getDouble(), in.getDoubles());
+            int count = in.getInt();
+            List<Entry> entries = new ArrayList<>(count);
+            for (int k = 0; k < count; k++) {
+                long id = in.getLong();
+                long parentId = in.getLong();
+                int variable = in.getInt();
+                double value = in.getDouble();
+                byte flags = in.getByte();
+                double bound = in.getDouble();
+                Cut[] cuts = new Cut[in.getInt()];
+                for (int c = 0; c < cuts.length; c++)
+                    cuts[c] = getCut(in);
+                entries.add(new Entry(id, parentId, variable, value, flags, bound, cuts));
+            }
+            in.verify(path);
+            return new Checkpoint(model, max, nodeCount, unexploredBound, incumbent, rootOpen,
+                    new Node[0], new double[0], entries);
+        }
+    }
+
+    /** The open nodes of a checkpoint that was read, released and hanging below {@code root}. */
+    List<Node> restore(Node root) {
+        Map<Long, Node> restored = new HashMap<>();
+        List<Node> output = new ArrayList<>();
+        if (rootOpen)
+            output.add(root);
+        for (Entry entry : entries) {
+            Node parent = entry.parentId() == -1 ? root : restored.get(entry.parentId());
+            Node node = parent.restoredChild(entry.variable(), entry.value(), (entry.flags() & UPPER) != 0,
+                    entry.bound(), entry.cuts(), entry.id());
+            restored.put(entry.id(), node);
+            if ((entry.flags() & OPEN) != 0)
+                output.add(node);
+        }
+        return output;
+    }
+
+    /** Hash of everything the node bounds and cuts refer to, so that a checkpoint only resumes its own model. */
+    static long fingerprint(Model m) {
+        SparseMatrix constraints = m.constraints();
+        long hash = mix(constraints.rows() * 31L + constraints.cols());
+        for (int i = 0; i < constraints.rows(); i++) {
+            hash = mix(hash ^ Double.doubleToLongBits(m.freeVars()[i]) ^ (m.signs()[i] ? 1 : 0));
+            for (int k = constraints.rowStart(i); k < constraints.rowStart(i + 1); k++)
+                hash = mix(hash ^ constraints.colIndex(k) ^ Double.doubleToLongBits(constraints.value(k)));
+        }
+        for (double value : m.objective())
+            hash = mix(hash ^ Double.doubleToLongBits(value));
+        if (m.upper() != null)
+            for (double value : m.upper())
+                hash = mix(hash ^ Double.doubleToLongBits(value));
+        return hash;
+    }
+
+    private static long mix(long value) {
+        value *= 0x9E3779B97F4A7C15L;
+        return value ^ (value >>> 29);
+    }
+
+    private static void putCut(Output out, Cut cut) throws IOException {
+        double[] coefficients = cut.coefficients();
+        int nonZeros = 0;
+        for (double coefficient : coefficients)
+            if (coefficient != 0)
+                nonZeros++;
+        out.putDouble(cut.rhs());
+        out.putInt(coefficients.length);
+        out.putInt(nonZeros);
+        for (int j = 0; j < coefficients.length; j++)
+            if (coefficients[j] != 0) {
+                out.putInt(j);
+                out.putDouble(coefficients[j]);
+            }
+    }
+
+    private static Cut getCut(Input in) throws IOException {
+        double rhs = in.getDouble();
+        double[] coefficients = new double[in.getInt()];
+        for (int k = in.getInt(); k > 0; k--) {
+            int j = in.getInt();
+            coefficients[j] = in.getDouble();
+        }
+        return new Cut(coefficients, rhs);
+    }
+
+    private record Entry(long id, long parentId, int variable, double value, byte flags, double bound, Cut[] cuts) {}
+
+    /** Buffered channel writer that keeps the CRC of what went through it. */
+    private static final class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final CRC32 crc = new CRC32();
+
+        private Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putByte(byte value) throws IOException {
+            ensure(1).put(value);
+        }
+
+        void putShort(short value) throws IOException {
+            ensure(2).putShort(value);
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4).putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(8).putLong(value);
+        }
+
+        void putDouble(double value) throws IOException {
+            ensure(8).putDouble(value);
+        }
+
+        void putDoubles(double[] values) throws IOException {
+            putInt(values.length);
+            for (double value : values)
+                putDouble(value);
+        }
+
+        /** Appends the CRC and forces the file to the disk. */
+        void finish() throws IOException {
+            flush();
+            buffer.putLong(crc.getValue());
+            buffer.flip();
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            channel.force(false);
+        }
+
+        private ByteBuffer ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes)
+                flush();
+            return buffer;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            buffer.clear();
+        }
+    }
+
+    /** Buffered channel reader that checks the CRC at the end. */
+    private static final class Input {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final CRC32 crc = new CRC32();
+
+        private Input(FileChannel channel) {
+            this.channel = channel;
+            buffer.flip();
+        }
+
+        byte getByte() throws IOException {
+            return ensure(1).get();
+        }
+
+        short getShort() throws IOException {
+            return ensure(2).getShort();
+        }
+
+        int getInt() throws IOException {
+            return ensure(4).getInt();
+        }
+
+        long getLong() throws IOException {
+            return ensure(8).getLong();
+        }
+
+        double getDouble() throws IOException {
+            return ensure(8).getDouble();
+        }
+
+        double[] getDoubles() throws IOException {
+            double[] values = new double[getInt()];
+            for (int k = 0; k < values.length; k++)
+                values[k] = getDouble();
+            return values;
+        }
+
+        void verify(Path path) throws IOException {
+            crc.update(buffer.array(), 0, buffer.position());
+            buffer.compact().flip();
+            if (getLong() != crc.getValue())
+                throw new IOException("The checkpoint " + path + " is damaged");
+        }
+
+        /** Refills the buffer, adding the bytes consumed so far to the CRC. */
+        private ByteBuffer ensure(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes)
+                return buffer;
+            crc.update(buffer.array(), 0, buffer.position());
+            buffer.compact();
+            while (buffer.position() < bytes)
+                if (channel.read(buffer) < 0)
+                    throw new EOFException("The checkpoint ends too early");
+            buffer.flip();
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package vntu.edu;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Writes the {@link Checkpoint}s of a search on a thread of its own, so that the search only pays
+ * for the snapshot of its open nodes. A checkpoint that falls due while the previous one is still
+ * being written is skipped; a failed write is reported to the listener and retried at the next one.
+ * Without a listener the last failure is kept and thrown by {@link #writeNow} or {@link #close()},
+ * so a search that could not save its state does not end as if it had; a later successful write
+ * clears it.
+ */
+final class CheckpointWriter implements AutoCloseable {
+    private final Path path;
+    private final long interval;
+    private final SolverListener listener;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "checkpoint-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long next;
+    private Future<?> pending;
+    /** Last failed write that no listener was told about, {@code null} after a successful one. */
+    private volatile IOException failure;
+
+    CheckpointWriter(Path path, Duration interval, SolverListener listener) {
+        this.path = path;
+        this.interval = interval.toNanos();
+        this.listener = listener;
+        this.next = System.nanoTime() + this.interval;
+    }
+
+    /** Whether the interval has passed and the previous checkpoint is written. */
+    boolean isDue() {
+        return System.nanoTime() >= next && (pending == null || pending.isDone());
+    }
+
+    /** Writes the checkpoint in the background. */
+    void submit(Checkpoint checkpoint) {
+        next = System.nanoTime() + interval;
+        pending = executor.submit(() -> write(checkpoint));
+    }
+
+    /** Writes the checkpoint right away, after the one in progress, e.g. the last state of a stopped search. */
+    void writeNow(Checkpoint checkpoint) {
+        await();
+        write(checkpoint);
+        throwFailure();
+    }
+
+    /** Waits for the checkpoint in progress and stops the thread. */
+    @Override
+    public void close() {
+        await();
+        executor.shutdown();
+        throwFailure();
+    }
+
+    private void write(Checkpoint checkpoint) {
+        long start = System.nanoTime();
+        try {
+            checkpoint.write(path);
+            failure = null;
+            if (listener != null)
+                listener.checkpointWritten(path, checkpoint.openNodes(), System.nanoTime() - start);
+        } catch (IOException e) {
+            if (listener != null)
+                listener.checkpointFailed(path, e);
+            else
+                failure = e;
+        }
+    }
+
+    /** Throws the kept failure once, so that {@link #close()} after {@link #writeNow} does not repeat it. */
+    private void throwFailure() {
+        IOException e = failure;
+        failure = null;
+        if (e != null)
+            throw new UncheckedIOException("Writing the checkpoint " + path + " failed", e);
+    }
+
+    private void await() {
+        if (pending == null)
+            return;
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
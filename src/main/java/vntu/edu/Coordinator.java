@@ -0,0 +1,363 @@
+package vntu.edu;
+
+import vntu.edu.simplex_methods.SparseMatrix;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distributes a search over {@link Worker} processes that connect to it over TCP, e.g. several
+ * JVMs on one host. Set as {@link SolverSettings#getCoordinator()}; the solver then presolves and
+ * solves the root as usual and the coordinator takes over the open nodes.
+ * <p>
+ * Every worker gets the model once per solve and solves the root itself, so a node is sent as a
+ * {@link Subproblem}: its bound changes and local cuts. A worker explores a node for at most
+ * {@code nodesPerJob} nodes, or until it is asked to yield, and returns the nodes it left open.
+ * The coordinator keeps them in one best-bound queue, hands the best one to the next idle worker
+ * and asks the busy workers to yield while some worker waits for work. It also keeps the
+ * incumbent and sends its value to the workers as a cutoff. The job of a worker that disconnects
+ * is sent again to another one. The branching rule and the heuristics of the settings reach the
+ * workers as serialized copies, with their parameters, so they have to be {@link Serializable}.
+ */
+public final class Coordinator implements AutoCloseable {
+    static final byte MODEL = 1;
+    static final byte JOB = 2;
+    static final byte CUTOFF = 3;
+    static final byte YIELD = 4;
+    static final byte SOLUTION = 11;
+    static final byte DONE = 12;
+    private static final byte LOST = -1;
+    private static final int DEFAULT_NODES_PER_JOB = 1000;
+    private static final long POLL_MILLIS = 100;
+
+    private final ServerSocket server;
+    private final int workers;
+    private final int nodesPerJob;
+    private final Duration connectTimeout;
+    private final List<Connection> connections = new ArrayList<>();
+    private final BlockingQueue<Message> inbox = new LinkedBlockingQueue<>();
+
+    /**
+     * Listens on {@code port} of {@code bindAddress}, {@code 0} for any free port; a solve waits
+     * until {@code workers} workers are connected, at most {@code connectTimeout}. Workers on other
+     * hosts need the address of an interface they can reach, as the protocol is not authenticated.
+     */
+    public Coordinator(InetAddress bindAddress, int port, int workers, int nodesPerJob, Duration connectTimeout)
+            throws IOException {
+        if (workers < 1 || nodesPerJob < 1)
+            throw new IllegalArgumentException("A coordinator needs workers and a positive job size");
+        this.server = new ServerSocket(port, 0, bindAddress);
+        this.workers = workers;
+        this.nodesPerJob = nodesPerJob;
+        this.connectTimeout = connectTimeout;
+    }
+
+    /** Listens on the loopback interface only, for workers on the same host. */
+    public Coordinator(int port, int workers, int nodesPerJob, Duration connectTimeout) throws IOException {
+        this(InetAddress.getLoopbackAddress(), port, workers, nodesPerJob, connectTimeout);
+    }
+
+    public Coordinator(int port, int workers) throws IOException {
+        this(port, workers, DEFAULT_NODES_PER_JOB, Duration.ofMinutes(1));
+    }
+
+    public InetAddress getAddress() {
+        return server.getInetAddress();
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /** Disconnects the workers, which then exit, and stops listening. */
+    @Override
+    public void close() throws IOException {
+        for (Connection connection : connections)
+            connection.socket.close();
+        connections.clear();
+        server.close();
+    }
+
+    /**
+     * Runs the search of {@code solver} from the nodes {@code start} on the workers. The solver
+     * keeps the incumbent, counts the nodes created by the workers and learns the bounds of the
+     * nodes left when one of its limits stops the search.
+     */
+    void search(Solver solver, Collection<Node> start) {
+        byte[] strategies = strategies(solver.settings());
+        try {
+            connect();
+            inbox.clear();
+            for (Connection connection : List.copyOf(connections))
+                send(connection, out -> writeModel(out, solver, strategies));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Queue<Subproblem> pool = new PriorityQueue<>(Comparator.comparingDouble(Subproblem::bound).reversed());
+        for (Node node : start)
+            pool.add(node.parent() == null ? Subproblem.root(node.bound()) : Subproblem.of(node));
+        long nextJob = 0;
+        double cutoff = Double.NEGATIVE_INFINITY;
+        boolean stopping = false;
+        while (true) {
+            if (!stopping && solver.isStopped()) {
+                stopping = true;
+                for (Connection connection : List.copyOf(connections))
+                    if (connection.job != null)
+                        requestYield(connection);
+            }
+            Solution incumbent = solver.incumbent();
+            double value = incumbent == null ? Double.NEGATIVE_INFINITY : incumbent.objValue();
+            if (!stopping)
+                for (Connection connection : List.copyOf(connections)) {
+                    if (connection.job != null)
+                        continue;
+                    Subproblem job = pool.poll();
+                    while (job != null && solver.canBePruned(job.bound()))
+                        job = pool.poll();
+                    if (job == null)
+                        break;
+                    assign(connection, job, nextJob++, value);
+                }
+            if (value > cutoff) {
+                cutoff = value;
+                double current = cutoff;
+                for (Connection connection : List.copyOf(connections))
+                    send(connection, out -> {
+                        out.writeByte(CUTOFF);
+                        out.writeDouble(current);
+                    });
+            }
+            boolean idle = connections.stream().anyMatch(connection -> connection.job == null);
+            boolean busy = connections.stream().anyMatch(connection -> connection.job != null);
+            if (!busy && (pool.isEmpty() || stopping))
+                break;
+            if (idle && pool.isEmpty())
+                for (Connection connection : List.copyOf(connections))
+                    if (connection.job != null && !connection.yieldRequested)
+                        requestYield(connection);
+
+            Message message;
+            try {
+                message = inbox.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                solver.cancel();
+                continue;
+            }
+            if (message == null)
+                continue;
+            Connection from = message.from();
+            switch (message.type()) {
+                case SOLUTION -> solver.offerIncumbent(message.solution().optimalPlan());
+                case DONE -> {
+                    if (from.job != null && from.jobId == message.jobId()) {
+                        from.job = null;
+                        solver.addNodes(message.nodes());
+                        pool.addAll(message.open());
+                    }
+                }
+                case LOST -> {
+                    if (connections.remove(from) && from.job != null)
+                        pool.add(from.job);
+                    if (connections.isEmpty()) {
+                        pool.forEach(job -> solver.addUnexplored(job.bound()));
+                        throw new IllegalStateException("Every worker disconnected");
+                    }
+                }
+                default -> throw new IllegalStateException("Unknown message " + message.type());
+            }
+        }
+        if (stopping)
+            pool.forEach(job -> solver.addUnexplored(job.bound()));
+    }
+
+    /**
+     * The branching rule and the heuristics serialized for the workers, so they keep their
+     * parameters; checked before any worker connects.
+     */
+    private static byte[] strategies(SolverSettings settings) {
+        List<Object> strategies = new ArrayList<>(settings.getHeuristics());
+        strategies.add(0, settings.getBranchingRule());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            for (Object strategy : strategies) {
+                if (!(strategy instanceof Serializable))
+                    throw new IllegalArgumentException(strategy.getClass().getName()
+                            + " is not Serializable, so it cannot be sent to the workers");
+                out.writeObject(strategy);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException(
+                    "The branching rule and the heuristics cannot be sent to the workers", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void connect() throws IOException {
+        long deadline = System.nanoTime() + connectTimeout.toNanos();
+        while (connections.size() < workers) {
+            long left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (left <= 0)
+                throw new IOException("Only " + connections.size() + " of " + workers + " workers connected");
+            server.setSoTimeout((int) Math.min(Integer.MAX_VALUE, left));
+            try {
+                Connection connection = new Connection(server.accept());
+                connections.add(connection);
+                Thread reader = new Thread(() -> read(connection), "coordinator-reader-" + connections.size());
+                reader.setDaemon(true);
+                reader.start();
+            } catch (SocketTimeoutException ignored) {
+            }
+        }
+    }
+
+    private void assign(Connection connection, Subproblem job, long jobId, double cutoff) {
+        connection.job = job;
+        connection.jobId = jobId;
+        connection.yieldRequested = false;
+        send(connection, out -> {
+            out.writeByte(JOB);
+            out.writeLong(jobId);
+            out.writeInt(nodesPerJob);
+            out.writeDouble(cutoff);
+            job.write(out);
+        });
+    }
+
+    private void requestYield(Connection connection) {
+        connection.yieldRequested = true;
+        long jobId = connection.jobId;
+        send(connection, out -> {
+            out.writeByte(YIELD);
+            out.writeLong(jobId);
+        });
+    }
+
+    /** A write that fails closes the connection; its reader then reports it as lost. */
+    private void send(Connection connection, Write write) {
+        try {
+            write.to(connection.out);
+            connection.out.flush();
+        } catch (IOException e) {
+            try {
+                connection.socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void read(Connection connection) {
+        DataInputStream in = connection.in;
+        try {
+            while (true) {
+                byte type = in.readByte();
+                if (type == SOLUTION) {
+                    double value = in.readDouble();
+                    double[] plan = new double[in.readInt()];
+                    for (int k = 0; k < plan.length; k++)
+                        plan[k] = in.readDouble();
+                    inbox.add(new Message(connection, type, -1, 0, List.of(), new Solution(value, plan)));
+                } else if (type == DONE) {
+                    long jobId = in.readLong();
+                    long nodes = in.readLong();
+                    List<Subproblem> open = new ArrayList<>();
+                    for (int k = in.readInt(); k > 0; k--)
+                        open.add(Subproblem.read(in));
+                    inbox.add(new Message(connection, type, jobId, nodes, open, null));
+                } else {
+                    throw new IOException("Unknown message " + type);
+                }
+            }
+        } catch (IOException e) {
+            inbox.add(new Message(connection, LOST, -1, 0, List.of(), null));
+        }
+    }
+
+    /**
+     * The model as the solver got it, before presolve, with the settings a worker needs to build
+     * the same presolved model and root and to search like this process would. The branching rule
+     * and the heuristics follow as {@code strategies}.
+     */
+    private static void writeModel(DataOutputStream out, Solver solver, byte[] strategies) throws IOException {
+        SolverSettings settings = solver.settings();
+        Model model = solver.initialModel();
+        out.writeByte(MODEL);
+        out.writeLong(solver.fingerprint());
+        out.writeBoolean(solver.isMax());
+        out.writeBoolean(settings.isPresolve());
+        out.writeInt(settings.getCutRounds());
+        out.writeBoolean(settings.isNodeCuts());
+        out.writeBoolean(settings.isPropagation());
+        out.writeBoolean(settings.isRevisedSimplex());
+        out.writeUTF(settings.getPricing().name());
+        out.writeUTF(settings.getScaling().name());
+        out.writeInt(settings.getTranspositionTableSize());
+        out.writeUTF(settings.getNodeSelection().name());
+        out.writeInt(settings.getHeuristicFrequency());
+        out.writeDouble(settings.getRelativeGap());
+        out.writeDouble(settings.getAbsoluteGap());
+        out.writeInt(settings.getHeuristics().size());
+        out.writeInt(strategies.length);
+        out.write(strategies);
+
+        SparseMatrix constraints = model.constraints();
+        out.writeInt(constraints.rows());
+        out.writeInt(constraints.cols());
+        for (int i = 0; i < constraints.rows(); i++) {
+            out.writeInt(constraints.rowStart(i + 1) - constraints.rowStart(i));
+            for (int k = constraints.rowStart(i); k < constraints.rowStart(i + 1); k++) {
+                out.writeInt(constraints.colIndex(k));
+                out.writeDouble(constraints.value(k));
+            }
+            out.writeBoolean(model.signs()[i]);
+            out.writeDouble(model.freeVars()[i]);
+        }
+        for (double value : model.objective())
+            out.writeDouble(value);
+    }
+
+    private interface Write {
+        void to(DataOutputStream out) throws IOException;
+    }
+
+    private record Message(Connection from, byte type, long jobId, long nodes, List<Subproblem> open,
+                           Solution solution) {}
+
+    private static final class Connection {
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private Subproblem job;
+        private long jobId;
+        private boolean yieldRequested;
+
+        private Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            socket.setTcpNoDelay(true);
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package vntu.edu;
+
+import vntu.edu.simplex_methods.SparseMatrix;
+
+/** {@code upper} holds the upper bounds of the variables, {@code null} when there are none. */
+record Model(SparseMatrix constraints, boolean[] signs, double[] freeVars, double[] objective, double[] upper) {}
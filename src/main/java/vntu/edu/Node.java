@@ -0,0 +1,126 @@
+package vntu.edu;
+
+import vntu.edu.cutting_planes.Cut;
+import vntu.edu.simplex_methods.BaseSimplex;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A node of the search tree, stored as the difference to its parent: the bound it was branched
+ * on and the local cuts added at it. The LP and its solution are only held while the node is
+ * worked on; an open node {@link #release() releases} them and keeps its bound, and
+ * {@link Solver} rebuilds them from the nearest ancestor that still has its LP (at least the
+ * root) when the node is expanded.
+ */
+final class Node {
+    private static final Cut[] NO_CUTS = new Cut[0];
+
+    private final Node parent;
+    private final int variable;
+    private final double value;
+    private final boolean isUpper;
+    private final int depth;
+    private final long id;
+    private Cut[] cuts = NO_CUTS;
+    private double bound;
+    private BaseSimplex lp;
+    private Solution solution;
+
+    private Node(Node parent, int variable, double value, boolean isUpper, BaseSimplex lp, Solution solution,
+                 int depth, long id) {
+        this(parent, variable, value, isUpper, depth, id);
+        update(lp, solution);
+    }
+
+    private Node(Node parent, int variable, double value, boolean isUpper, int depth, long id) {
+        this.parent = parent;
+        this.variable = variable;
+        this.value = value;
+        this.isUpper = isUpper;
+        this.depth = depth;
+        this.id = id;
+    }
+
+    /** Released child as saved in a {@link Checkpoint}, with its bound and local cuts. */
+    Node restoredChild(int variable, double value, boolean isUpper, double bound, Cut[] cuts, long id) {
+        Node child = new Node(this, variable, value, isUpper, depth + 1, id);
+        child.bound = bound;
+        child.cuts = cuts.length == 0 ? NO_CUTS : cuts;
+        return child;
+    }
+
+    static Node root(BaseSimplex lp, Solution solution, long id) {
+        return new Node(null, -1, 0, false, lp, solution, 0, id);
+    }
+
+    /** Child with the bound {@code x[variable] <= value} ({@code >=} unless {@code isUpper}), solved as {@code lp}. */
+    Node child(int variable, double value, boolean isUpper, BaseSimplex lp, Solution solution, long id) {
+        return new Node(this, variable, value, isUpper, lp, solution, depth + 1, id);
+    }
+
+    Node parent() {
+        return parent;
+    }
+
+    int variable() {
+        return variable;
+    }
+
+    double value() {
+        return value;
+    }
+
+    boolean isUpper() {
+        return isUpper;
+    }
+
+    Cut[] cuts() {
+        return cuts;
+    }
+
+    int depth() {
+        return depth;
+    }
+
+    long id() {
+        return id;
+    }
+
+    double bound() {
+        return bound;
+    }
+
+    /** {@code null} while the node is released. */
+    BaseSimplex lp() {
+        return lp;
+    }
+
+    /** {@code null} while the node is released. */
+    Solution solution() {
+        return solution;
+    }
+
+    /** Replaces the LP, e.g. by one with more cuts or a rebuilt one; the bound follows its solution. */
+    void update(BaseSimplex lp, Solution solution) {
+        this.lp = lp;
+        this.solution = solution;
+        this.bound = solution.objValue();
+    }
+
+    /** Records cuts added to the LP of this node, so that a rebuilt LP gets them as well. */
+    void addCuts(List<Cut> added) {
+        Cut[] extended = Arrays.copyOf(cuts, cuts.length + added.size());
+        for (int k = 0; k < added.size(); k++)
+            extended[cuts.length + k] = added.get(k);
+        cuts = extended;
+    }
+
+    /** Drops the LP and the solution; the root keeps them as the base of every rebuild. */
+    void release() {
+        if (parent != null) {
+            lp = null;
+            solution = null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package vntu.edu;
+
+import java.util.Comparator;
+
+public enum NodeSelection {
+    /** Expands the open node with the best LP bound first. */
+    BEST_BOUND,
+    /** Expands the most recently created deepest node first. */
+    DEPTH_FIRST,
+    /** Dives depth-first until the first incumbent is found, then switches to best bound. */
+    HYBRID;
+
+    private static final Comparator<Node> BY_BOUND = Comparator.comparingDouble(Node::bound).reversed();
+    private static final Comparator<Node> BY_DEPTH = Comparator.comparingInt(Node::depth).reversed();
+    private static final Comparator<Node> BY_AGE = Comparator.comparingLong(Node::id).reversed();
+
+    Comparator<Node> comparator(boolean hasIncumbent) {
+        return switch (this) {
+            case BEST_BOUND -> BY_BOUND.thenComparing(BY_DEPTH).thenComparing(BY_AGE);
+            case DEPTH_FIRST -> BY_DEPTH.thenComparing(BY_BOUND).thenComparing(BY_AGE);
+            case HYBRID -> hasIncumbent
+                    ? BEST_BOUND.comparator(true)
+                    : DEPTH_FIRST.comparator(false);
+        };
+    }
+}
@@ -1,151 +1,799 @@
 package vntu.edu;
 
+import vntu.edu.branching.BranchingRule;
+import vntu.edu.cutting_planes.Cut;
+import vntu.edu.cutting_planes.CutPool;
+import vntu.edu.cutting_planes.GomoryCuts;
+import vntu.edu.heuristics.PrimalHeuristic;
+import vntu.edu.presolve.DomainPropagator;
+import vntu.edu.presolve.Presolve;
 import vntu.edu.simplex_methods.BaseSimplex;
 import vntu.edu.simplex_methods.DualSimplex;
+import vntu.edu.simplex_methods.RevisedSimplex;
 import vntu.edu.simplex_methods.Simplex;
+import vntu.edu.simplex_methods.SparseMatrix;
 
+import java.io.IOException;
+import java.io.Serial;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
-import java.util.function.Function;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 import static java.lang.Math.*;
 import static java.lang.Math.abs;
+import static vntu.edu.SolverListener.PruneReason.*;
 
 public class Solver {
+    private static final double EPSILON = 1e-9;
+    private static final int CUTS_PER_ROUND = 16;
+    private static final int MAX_CUT_AGE = 8;
+    /** A cut round that moves the bound by less than this share stops the loop. */
+    private static final double MIN_CUT_PROGRESS = 1e-4;
+    /** Reduced costs below this are too close to rounding noise to fix a variable with. */
+    private static final double MIN_REDUCED_COST = 1e-7;
+    /** Slack of the reduced-cost fixing, so that LP noise cannot cut off the optimum. */
+    private static final double FIXING_TOLERANCE = 1e-6;
+
     private final Model initialModel;
-    private final BaseSimplex simplex;
-    private final Map<Solution, Model> cache;
-    private Solution baseSolution;
+    /** Presolve of the running {@link #solve}, {@code null} when it is off. */
+    private Presolve presolve;
+    /** Model the search works on: the presolved one or the initial one. */
+    private Model model;
+    /** Propagation over the rows of {@link #model}, {@code null} when {@link SolverSettings#isPropagation()} is off. */
+    private DomainPropagator propagator;
+    private final SolverSettings settings;
+    private final SolverListener listener;
+    private final BranchingRule branchingRule;
+    private final AtomicReference<Solution> incumbent = new AtomicReference<>();
+    private final AtomicLong nodeCounter = new AtomicLong();
+    private CutPool cutPool;
+    private TranspositionTable transpositions;
+    /** Best bound among the nodes left unexplored because of a limit or the gap tolerances. */
+    private final DoubleAccumulator unexploredBound = new DoubleAccumulator(Math::max, Double.NEGATIVE_INFINITY);
+    /** Set once a time or node limit stops the search. */
+    private volatile SolverStatus stopped;
+    private volatile boolean cancelled;
+    private long deadline;
+    /** Sense of the running {@link #solve} and {@link Checkpoint#fingerprint} of its model, saved with the checkpoints. */
+    private boolean max;
+    private long fingerprint;
+    private SolverStatus status;
+    private double dualBound;
+    /** Bound reported for the gap of a parallel search, where the open nodes are not enumerable. */
+    private double rootBound;
+    /** Value of an integer plan known elsewhere, e.g. to the {@link Coordinator}; nodes not above it are pruned. */
+    private volatile double cutoff = Double.NEGATIVE_INFINITY;
+    /** Receives every new incumbent of the presolved model, e.g. to send it to the {@link Coordinator}. */
+    private Consumer<Solution> incumbentSink;
 
     public Solver(double[][] constraints, boolean[] signs, double[] freeVars, double[] objective) {
-        this.initialModel = new Model(constraints, signs, freeVars, objective);
-        this.simplex = new Simplex(constraints, signs, freeVars, objective);
-        this.cache = new HashMap<>();
+        this(constraints, signs, freeVars, objective, SolverSettings.defaults());
+    }
+
+    public Solver(double[][] constraints, boolean[] signs, double[] freeVars, double[] objective,
+                  SolverSettings settings) {
+        this(SparseMatrix.of(constraints), signs, freeVars, objective, settings);
+    }
+
+    public Solver(SparseMatrix constraints, boolean[] signs, double[] freeVars, double[] objective,
+                  SolverSettings settings) {
+        this.initialModel = new Model(constraints, signs, freeVars, objective, null);
+        this.settings = settings;
+        this.listener = settings.getListener();
+        this.branchingRule = settings.getBranchingRule();
     }
 
+    /**
+     * Runs the branch and bound until it is finished or a limit of the settings stops it; then
+     * {@link #getStatus()} tells which, and {@link #getDualBound()} how good the plan is proven to be.
+     *
+     * @throws IllegalArgumentException if there is no integer plan
+     * @throws IllegalStateException    if a limit or {@link #cancel()} stopped the search before any
+     *                                  integer plan was found
+     */
     public Solution solve(boolean max) {
-        baseSolution = simplex.solve(max);
-        List<Solution> stageSolutions;
+        return run(max, null);
+    }
 
-        do {
-            stageSolutions = new LinkedList<>();
-            double[] plan = baseSolution.optimalPlan();
-
-            for (int i = 0; i < initialModel.constraints()[0].length; i++) {
-                if (hasFraction(plan[i])) {
-                    Solution left = computeSolution(true, plan, i, max);
-                    Solution right = computeSolution(false, plan, i, max);
-                    addSolutions(List.of(left, right), stageSolutions);
+    /**
+     * Continues the search saved in {@code checkpoint} by a solver of the same model, see
+     * {@link SolverSettings#getCheckpoint()}: the root is solved again and the saved incumbent
+     * and open nodes take over from there. The limits of the settings start afresh, and the
+     * statistics of the branching rule are not saved.
+     *
+     * @throws IOException              if the checkpoint cannot be read or is damaged
+     * @throws IllegalArgumentException if the checkpoint belongs to another model, or as {@link #solve}
+     */
+    public Solution resume(Path checkpoint) throws IOException {
+        Checkpoint saved = Checkpoint.read(checkpoint);
+        return run(saved.max(), saved);
+    }
+
+    private Solution run(boolean max, Checkpoint saved) {
+        if (settings.getCheckpoint() != null && (settings.getPool() != null || settings.getCoordinator() != null))
+            throw new IllegalArgumentException("Checkpoints need the sequential search");
+        Node root = start(max, saved);
+        if (root == null)
+            return presolve.postsolve(null);
+        if (isIntegral(root.solution())) {
+            updateIncumbent(root.solution(), root.id());
+            finish(SolverStatus.OPTIMAL, root.bound());
+            return toOriginal(root.solution());
+        }
+
+        List<Node> open = List.of(root);
+        if (saved != null) {
+            if (saved.incumbent() != null)
+                updateIncumbent(saved.incumbent(), -1);
+            nodeCounter.set(max(nodeCounter.get(), saved.nodeCount()));
+            unexploredBound.accumulate(saved.unexploredBound());
+            open = saved.restore(root);
+        }
+        runHeuristics(root);
+        rootBound = root.bound();
+        ForkJoinPool pool = settings.getPool();
+        if (settings.getCoordinator() != null) {
+            settings.getCoordinator().search(this, open);
+        } else if (pool == null) {
+            try (CheckpointWriter writer = settings.getCheckpoint() == null ? null
+                    : new CheckpointWriter(settings.getCheckpoint(), settings.getCheckpointInterval(), listener)) {
+                search(root, open, writer, null);
+            }
+        } else {
+            List<NodeTask> tasks = open.stream().map(node -> new NodeTask(null, node)).toList();
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
                 }
+            });
+        }
+
+        Solution result = incumbent.get();
+        if (result == null && stopped != null)
+            throw new IllegalStateException("No integer plan was found before the search stopped: "
+                    + stopped.name().toLowerCase().replace('_', ' '));
+        if (result == null)
+            throw new IllegalArgumentException("There is no integer optimal plan");
+        double bound = max(result.objValue(), unexploredBound.get());
+        if (stopped != null)
+            finish(stopped, bound);
+        else
+            finish(bound > result.objValue() ? SolverStatus.GAP_LIMIT : SolverStatus.OPTIMAL, bound);
+        return toOriginal(result);
+    }
+
+    /**
+     * Resets the state, presolves and solves the root; {@code null} when presolve alone solved the
+     * model. {@code saved} is the checkpoint to resume, checked against the presolved model.
+     */
+    Node start(boolean max, Checkpoint saved) {
+        this.max = max;
+        incumbent.set(null);
+        nodeCounter.set(0);
+        unexploredBound.reset();
+        stopped = null;
+        cutoff = Double.NEGATIVE_INFINITY;
+        Duration timeLimit = settings.getTimeLimit();
+        deadline = timeLimit == null ? Long.MAX_VALUE : System.nanoTime() + timeLimit.toNanos();
+        cutPool = new CutPool(MAX_CUT_AGE);
+        presolve(max);
+        if (presolve != null && presolve.isSolved()) {
+            updateIncumbent(new Solution(0, new double[0]), -1);
+            finish(SolverStatus.OPTIMAL, 0);
+            return null;
+        }
+        fingerprint = Checkpoint.fingerprint(model);
+        if (saved != null && saved.model() != fingerprint)
+            throw new IllegalArgumentException("The checkpoint belongs to another model");
+        branchingRule.init(model.constraints().cols());
+        propagator = settings.isPropagation()
+                ? new DomainPropagator(model.constraints(), model.signs(), model.freeVars())
+                : null;
+        transpositions = settings.getTranspositionTableSize() > 0
+                ? new TranspositionTable(settings.getTranspositionTableSize())
+                : null;
+        return solveRoot(model, max);
+    }
+
+    /**
+     * Explores the subproblem below {@code root}, the result of {@link #start}, until it is
+     * finished, {@code budget} nodes were created or {@code yield} says so, though not before the
+     * subproblem itself was branched on; returns the nodes left open. For a {@link Worker}.
+     */
+    List<Subproblem> explore(Node root, Subproblem job, long budget, BooleanSupplier yield) {
+        long first = nodeCounter.get();
+        // the node was created and counted by another process, so it has no id here
+        Node node = job.restore(root, -1);
+        Collection<Node> left = search(root, List.of(node), null, () -> nodeCounter.get() > first
+                && (nodeCounter.get() - first >= budget || yield.getAsBoolean()));
+        return left.stream().map(Subproblem::of).toList();
+    }
+
+    /**
+     * Stops the running {@link #solve} before its next node, as a limit would, or the next one
+     * right after its root; safe to call from any thread. A cancelled solver stays cancelled.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /** Nodes created by the last {@link #solve}, the root included. */
+    public long getNodeCount() {
+        return nodeCounter.get();
+    }
+
+    public SolverStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Best objective value an integer plan can have, proven by the last {@link #solve}, in the
+     * sense of {@link Solution#objValue()}; equal to the value of the plan when it is optimal.
+     */
+    public double getDualBound() {
+        return dualBound;
+    }
+
+    Model initialModel() {
+        return initialModel;
+    }
+
+    SolverSettings settings() {
+        return settings;
+    }
+
+    boolean isMax() {
+        return max;
+    }
+
+    long fingerprint() {
+        return fingerprint;
+    }
+
+    Solution incumbent() {
+        return incumbent.get();
+    }
+
+    /** Raises the cutoff; it never goes down during a solve. */
+    synchronized void setCutoff(double cutoff) {
+        this.cutoff = max(this.cutoff, cutoff);
+    }
+
+    void setIncumbentSink(Consumer<Solution> incumbentSink) {
+        this.incumbentSink = incumbentSink;
+    }
+
+    /** Accounts for nodes created elsewhere and for the bound of nodes left unexplored there. */
+    void addNodes(long count) {
+        nodeCounter.addAndGet(count);
+    }
+
+    void addUnexplored(double bound) {
+        unexploredBound.accumulate(bound);
+    }
+
+    private void finish(SolverStatus status, double bound) {
+        this.status = status;
+        this.dualBound = bound + (presolve == null ? 0 : presolve.objectiveOffset());
+        reportGap(bound);
+    }
+
+    /** Whether a time or node limit or {@link #cancel()} stops the search; the first one reached is kept. */
+    boolean isStopped() {
+        if (stopped == null) {
+            long nodeLimit = settings.getNodeLimit();
+            if (cancelled)
+                stopped = SolverStatus.CANCELLED;
+            else if (nodeLimit > 0 && nodeCounter.get() >= nodeLimit)
+                stopped = SolverStatus.NODE_LIMIT;
+            else if (System.nanoTime() > deadline)
+                stopped = SolverStatus.TIME_LIMIT;
+        }
+        return stopped != null;
+    }
+
+    private void presolve(boolean max) {
+        Model m = initialModel;
+        presolve = settings.isPresolve()
+                ? Presolve.run(m.constraints(), m.signs(), m.freeVars(), m.objective(), max)
+                : null;
+        model = presolve == null
+                ? m
+                : new Model(presolve.constraints(), presolve.signs(), presolve.freeVars(), presolve.objective(),
+                        presolve.upperBounds());
+    }
+
+    /** Drops the slacks of the cuts, or maps the plan back through the presolve. */
+    private Solution toOriginal(Solution solution) {
+        if (presolve != null)
+            return presolve.postsolve(solution);
+        int length = model.constraints().cols() + model.constraints().rows();
+        return solution.optimalPlan().length == length
+                ? solution
+                : new Solution(solution.objValue(), Arrays.copyOf(solution.optimalPlan(), length));
+    }
+
+    /**
+     * {@code warm} is the node whose LP is kept, at first the root; {@code start} are the nodes to
+     * explore. Returns the open nodes when {@code yield}, checked before every node, tells it to
+     * hand them over, otherwise none.
+     */
+    private Collection<Node> search(Node warm, Collection<Node> start, CheckpointWriter checkpoints,
+                                    BooleanSupplier yield) {
+        NodeSelection selection = settings.getNodeSelection();
+        Queue<Node> open = new PriorityQueue<>(selection.comparator(incumbent.get() != null));
+        open.addAll(start);
+        while (!open.isEmpty()) {
+            if (isStopped()) {
+                if (checkpoints != null)
+                    checkpoints.writeNow(checkpoint(open));
+                open.forEach(node -> unexploredBound.accumulate(node.bound()));
+                return List.of();
+            }
+            if (yield != null && yield.getAsBoolean())
+                return open;
+            if (checkpoints != null && checkpoints.isDue())
+                checkpoints.submit(checkpoint(open));
+            Node node = open.poll();
+            if (canBePruned(node.bound())) {
+                if (listener != null)
+                    listener.nodePruned(node.id(), BOUND);
+                continue;
+            }
+
+            Solution before = incumbent.get();
+            List<Node> children = expand(node);
+            open.addAll(children);
+            if (before == null && incumbent.get() != null && selection == NodeSelection.HYBRID)
+                open = reorder(open, selection.comparator(true));
+            // only the node explored next keeps its LP, the others are rebuilt when their turn comes
+            Node next = open.peek();
+            for (Node child : children)
+                if (child != next)
+                    release(child);
+            if (warm != next)
+                release(warm);
+            warm = next;
+            if (listener != null && before != incumbent.get())
+                reportGap(open.stream().mapToDouble(Node::bound).max().orElse(Double.NEGATIVE_INFINITY));
+        }
+        return List.of();
+    }
+
+    private Checkpoint checkpoint(Queue<Node> open) {
+        return Checkpoint.of(fingerprint, max, nodeCounter.get(), unexploredBound.get(),
+                incumbent.get(), open.toArray(new Node[0]));
+    }
+
+    /**
+     * Branches on the node and returns the children that still have to be explored;
+     * integral children only update the incumbent. Safe to call from several threads.
+     */
+    private List<Node> expand(Node node) {
+        if (node.lp() == null) {
+            try {
+                rebuild(node);
+            } catch (IllegalArgumentException iae) {
+                if (listener != null)
+                    listener.nodePruned(node.id(), INFEASIBLE);
+                return List.of();
+            }
+        }
+        int frequency = settings.getHeuristicFrequency();
+        if (frequency > 0 && node.id() % frequency == 0)
+            runHeuristics(node);
+        List<Node> children = new ArrayList<>(2);
+        int idx = branchingRule.select(node.lp(), node.solution(), fractionalVariables(node.solution()));
+        Domain domain = propagator == null ? null : fixByReducedCosts(node);
+        for (boolean isLeft : new boolean[]{true, false}) {
+            Node child = branch(node, idx, isLeft, domain);
+            if (child == null)
+                continue;
+            if (canBePruned(child.bound())) {
+                if (listener != null)
+                    listener.nodePruned(child.id(), BOUND);
+            } else if (isIntegral(child.solution())) {
+                if (listener != null)
+                    listener.nodePruned(child.id(), INTEGRAL);
+                updateIncumbent(child.solution(), child.id());
+            } else {
+                children.add(child);
             }
-            updateBaseSolution(stageSolutions);
-        } while (Arrays.stream(baseSolution.optimalPlan()).filter(this::hasFraction).count() != 0);
-        System.out.printf("Optimal integer plan: %s", baseSolution);
-        return baseSolution;
+        }
+        node.release();
+        return children;
     }
 
-    private void updateBaseSolution(List<Solution> stageSolutions) {
-        stageSolutions.sort(Comparator.comparingDouble(Solution::objValue).reversed());
-        List<Solution> withIntegerPlan = stageSolutions.stream()
-                .filter(solution -> Arrays.stream(solution.optimalPlan()).noneMatch(this::hasFraction)).toList();
+    /** Drops the LP of an open node, into the transposition table if there is one. */
+    private void release(Node node) {
+        if (transpositions != null && node.lp() != null && node.parent() != null)
+            transpositions.put(node);
+        node.release();
+    }
 
-        if (withIntegerPlan.isEmpty()) {
-            if (!stageSolutions.isEmpty())
-                baseSolution = stageSolutions.get(0);
+    /**
+     * Restores the LP of a released node, taken from the transposition table while it is still
+     * there. Otherwise the bounds and local cuts on the path up to the nearest ancestor that still
+     * has its LP are applied to a copy of that LP, which is then re-optimized from the ancestor's
+     * basis with dual pivots.
+     */
+    private void rebuild(Node node) {
+        if (transpositions != null && transpositions.restore(node))
             return;
+        List<Node> path = new ArrayList<>();
+        BaseSimplex base = null;
+        for (Node n = node; base == null; n = n.parent()) {
+            base = n.lp();
+            if (base == null)
+                path.add(n);
+        }
+        int[] variables = new int[path.size()];
+        double[] bounds = new double[path.size()];
+        boolean[] isUpper = new boolean[path.size()];
+        List<Cut> cuts = new ArrayList<>();
+        for (int k = 0; k < path.size(); k++) {
+            Node n = path.get(k);
+            variables[k] = n.variable();
+            bounds[k] = n.value();
+            isUpper[k] = n.isUpper();
+            cuts.addAll(Arrays.asList(n.cuts()));
+        }
+        BaseSimplex lp = propagator == null
+                ? base.withBounds(variables, bounds, isUpper)
+                : propagated(base, Domain.of(base, model.constraints().cols()), variables, bounds, isUpper);
+        if (!cuts.isEmpty())
+            lp = withCuts(lp, cuts);
+        node.update(lp, lp.reoptimize());
+    }
+
+    /**
+     * Reduced-cost fixing: the optimal LP of the node bounds its objective by
+     * {@code bound - Σ|d_j|·(distance of x[j] from its bound)}, so a non-basic variable cannot move
+     * further from its bound than {@code (bound - incumbent) / |d_j|} in a better plan. Returns the
+     * bounds of the node's LP tightened that way, valid for every node below it.
+     */
+    private Domain fixByReducedCosts(Node node) {
+        BaseSimplex lp = node.lp();
+        int cols = model.constraints().cols();
+        Domain domain = Domain.of(lp, cols);
+        Solution current = incumbent.get();
+        double best = current == null ? cutoff : max(current.objValue(), cutoff);
+        double gap = node.bound() - best;
+        if (best == Double.NEGATIVE_INFINITY || gap < 0)
+            return domain;
+        double[] reducedCosts = lp.getReducedCosts();
+        double[] lower = domain.lower();
+        double[] upper = domain.upper();
+        int[] changed = new int[cols];
+        int count = 0;
+        for (int j = 0; j < cols; j++) {
+            double d = reducedCosts[j];
+            if (!lp.isAtUpper(j) && d > MIN_REDUCED_COST) {
+                double bound = lower[j] + floor(gap / d + FIXING_TOLERANCE);
+                if (bound < upper[j]) {
+                    upper[j] = bound;
+                    changed[count++] = j;
+                }
+            } else if (lp.isAtUpper(j) && d < -MIN_REDUCED_COST) {
+                double bound = upper[j] - floor(gap / -d + FIXING_TOLERANCE);
+                if (bound > lower[j]) {
+                    lower[j] = bound;
+                    changed[count++] = j;
+                }
+            }
+        }
+        return new Domain(lower, upper, Arrays.copyOf(changed, count));
+    }
+
+    /**
+     * {@code lp} with the bounds of {@code domain} and then the given ones, all propagated over the
+     * rows of the model, in one {@link BaseSimplex#withBounds} copy.
+     *
+     * @throws IllegalArgumentException if the propagation proves that no integer plan is left
+     */
+    private BaseSimplex propagated(BaseSimplex lp, Domain domain, int[] variables, double[] bounds, boolean[] isUpper) {
+        double[] lower = domain.lower().clone();
+        double[] upper = domain.upper().clone();
+        int[] changed = Arrays.copyOf(domain.changed(), domain.changed().length + variables.length);
+        for (int k = 0; k < variables.length; k++) {
+            int j = variables[k];
+            if (isUpper[k])
+                upper[j] = min(upper[j], bounds[k]);
+            else
+                lower[j] = max(lower[j], bounds[k]);
+            changed[domain.changed().length + k] = j;
+        }
+        if (!propagator.propagate(lower, upper, changed))
+            throw new IllegalArgumentException("There is no integer plan below the node");
+
+        double[] lpLower = lp.getLower();
+        double[] lpUpper = lp.getUpper();
+        int[] tightened = new int[2 * lower.length];
+        double[] values = new double[2 * lower.length];
+        boolean[] upperBound = new boolean[2 * lower.length];
+        int count = 0;
+        for (int j = 0; j < lower.length; j++) {
+            if (lower[j] > lpLower[j]) {
+                tightened[count] = j;
+                values[count++] = lower[j];
+            }
+            if (upper[j] < lpUpper[j]) {
+                tightened[count] = j;
+                upperBound[count] = true;
+                values[count++] = upper[j];
+            }
+        }
+        return lp.withBounds(Arrays.copyOf(tightened, count), Arrays.copyOf(values, count),
+                Arrays.copyOf(upperBound, count));
+    }
+
+    private static BaseSimplex withCuts(BaseSimplex lp, List<Cut> cuts) {
+        double[][] rows = new double[cuts.size()][];
+        double[] rhs = new double[cuts.size()];
+        for (int k = 0; k < cuts.size(); k++) {
+            rows[k] = cuts.get(k).coefficients();
+            rhs[k] = cuts.get(k).rhs();
         }
-        List<Solution> integerSolutions = withIntegerPlan.stream()
-                .filter(s -> !hasFraction(s.objValue()))
-                .toList();
+        return lp.withConstraints(rows, rhs);
+    }
 
-        if (integerSolutions.isEmpty()) {
-            baseSolution = withIntegerPlan.get(0);
+    private void runHeuristics(Node node) {
+        for (PrimalHeuristic heuristic : settings.getHeuristics()) {
+            double[] plan = heuristic.find(node.lp(), node.solution());
+            Solution candidate = plan == null ? null : toModelSolution(plan, node.lp().getObjective());
+            if (candidate != null)
+                updateIncumbent(candidate, node.id());
+        }
+    }
+
+    /**
+     * Offers a plan a worker found: like the plans of the heuristics, it becomes the incumbent
+     * only when its structural values are integral and keep every row and bound of the model.
+     */
+    void offerIncumbent(double[] values) {
+        int cols = model.constraints().cols();
+        if (values.length < cols)
             return;
+        // the worker's LP leaves round-off on the integer values, which the check would reject
+        double[] plan = new double[cols];
+        for (int j = 0; j < cols; j++) {
+            if (!Double.isFinite(values[j]))
+                return;
+            plan[j] = hasFraction(values[j]) ? values[j] : rint(values[j]);
         }
-        baseSolution = integerSolutions.get(0);
+        double[] objective = model.objective().clone();
+        if (!max)
+            for (int j = 0; j < cols; j++)
+                objective[j] = -objective[j];
+        Solution candidate = toModelSolution(plan, objective);
+        if (candidate != null)
+            updateIncumbent(candidate, -1);
     }
 
-    private Solution computeSolution(boolean isLeft, double[] plan, int idx, boolean max) {
-        double[][] updatedC;
-        double[] newFreeVars, objective;
-        boolean[] signs;
+    /**
+     * Full plan of the model, slacks included, for integer values of the structural variables,
+     * or {@code null} when they break a row or a bound of the model. {@code objective} is the
+     * maximized one of the LP.
+     */
+    private Solution toModelSolution(double[] values, double[] objective) {
+        SparseMatrix constraints = model.constraints();
+        int cols = constraints.cols();
+        double[] plan = Arrays.copyOf(values, cols + constraints.rows());
+        double value = 0;
+        for (int j = 0; j < cols; j++) {
+            if (values[j] < 0 || model.upper() != null && values[j] > model.upper()[j] || hasFraction(values[j]))
+                return null;
+            value += objective[j] * values[j];
+        }
+        for (int i = 0; i < constraints.rows(); i++) {
+            double activity = 0;
+            for (int e = constraints.rowStart(i); e < constraints.rowStart(i + 1); e++)
+                activity += constraints.value(e) * values[constraints.colIndex(e)];
+            double slack = model.signs()[i] ? activity - model.freeVars()[i] : model.freeVars()[i] - activity;
+            if (slack < -EPSILON)
+                return null;
+            plan[cols + i] = slack;
+        }
+        return new Solution(value, plan);
+    }
 
-        Model lastModel = cache.get(baseSolution);
-        Function<Double, Double> action = isLeft ? Math::floor : Math::ceil;
-        if (lastModel != null) {
-            updatedC = getUpdatedConstraints(lastModel.constraints, idx);
-            newFreeVars = getUpdatedFreeVars(lastModel.freeVars, plan[idx], action);
-            signs = getUpdatedSigns(lastModel.signs, newFreeVars.length);
-            objective = getUpdatedObjective(lastModel.objective);
-        } else {
-            updatedC = getUpdatedConstraints(initialModel.constraints(), idx);
-            newFreeVars = getUpdatedFreeVars(initialModel.freeVars(), plan[idx], action);
-            signs = getUpdatedSigns(initialModel.signs(), newFreeVars.length);
-            objective = getUpdatedObjective(simplex.getObjective());
+    void updateIncumbent(Solution candidate, long nodeId) {
+        Solution current;
+        do {
+            current = incumbent.get();
+            if (current != null && candidate.objValue() <= current.objValue())
+                return;
+        } while (!incumbent.compareAndSet(current, candidate));
+        if (incumbentSink != null)
+            incumbentSink.accept(candidate);
+        if (listener != null)
+            listener.incumbentImproved(toOriginal(candidate), nodeId);
+    }
+
+    /** The dual bound is the best open bound, never below the incumbent. */
+    private void reportGap(double openBound) {
+        Solution current = incumbent.get();
+        if (listener == null || current == null)
+            return;
+        double offset = presolve == null ? 0 : presolve.objectiveOffset();
+        listener.gapUpdated(current.objValue() + offset, max(openBound, current.objValue()) + offset);
+    }
+
+    /**
+     * Whether a node with this bound cannot improve the incumbent by more than the gap tolerances;
+     * the bound of a node pruned only because of them is kept for {@link #getDualBound()}.
+     */
+    boolean canBePruned(double bound) {
+        Solution current = incumbent.get();
+        if (bound <= (current == null ? cutoff : max(current.objValue(), cutoff)) + EPSILON)
+            return true;
+        if (current == null)
+            return false;
+        double offset = presolve == null ? 0 : presolve.objectiveOffset();
+        double tolerance = max(settings.getAbsoluteGap(), settings.getRelativeGap() * abs(current.objValue() + offset));
+        if (bound > current.objValue() + tolerance)
+            return false;
+        unexploredBound.accumulate(bound);
+        return true;
+    }
+
+    private static Queue<Node> reorder(Queue<Node> open, Comparator<Node> comparator) {
+        Queue<Node> reordered = new PriorityQueue<>(max(1, open.size()), comparator);
+        reordered.addAll(open);
+        return reordered;
+    }
+
+    /** {@code domain} holds the bounds every child starts from, {@code null} without propagation. */
+    private Node branch(Node parent, int idx, boolean isLeft, Domain domain) {
+        double value = parent.solution().optimalPlan()[idx];
+        long id = nodeCounter.getAndIncrement();
+        long start = 0;
+        if (listener != null) {
+            listener.nodeCreated(id, parent.id(), parent.depth() + 1);
+            start = System.nanoTime();
+        }
+        BaseSimplex lp = null;
+        Node child = null;
+        try {
+            double bound = isLeft ? floor(value) : ceil(value);
+            lp = domain == null
+                    ? parent.lp().withBound(idx, bound, isLeft)
+                    : propagated(parent.lp(), domain, new int[]{idx}, new double[]{bound}, new boolean[]{isLeft});
+            child = parent.child(idx, bound, isLeft, lp, lp.reoptimize(), id);
+            double distance = isLeft ? value - floor(value) : ceil(value) - value;
+            branchingRule.childSolved(idx, isLeft, distance, max(0, parent.bound() - child.bound()));
+        } catch (IllegalArgumentException ignored) {
         }
-        if (!isLeft)
-            signs[newFreeVars.length - 1] = true;
-        lastModel = new Model(updatedC, signs, newFreeVars, objective);
-        Solution solution = compute(lastModel, max);
-        cache.put(solution, lastModel);
+        if (child != null && settings.isNodeCuts())
+            child = addCuts(child, 1, false);
+        if (listener != null) {
+            BaseSimplex solved = child == null ? lp : child.lp();
+            listener.lpSolved(id, solved == null ? 0 : solved.getPivots(), System.nanoTime() - start);
+            if (child == null)
+                listener.nodePruned(id, INFEASIBLE);
+        }
+        return child;
+    }
+
+    /**
+     * Cutting-plane loop on a solved node: each round adds the violated pool cuts and new Gomory
+     * cuts, then re-optimizes with dual pivots. It stops early when the plan is integral, no cut is
+     * violated or the bound barely moves. Only cuts found under the global bounds ({@code global})
+     * enter the pool. Returns {@code null} when the cuts make the node infeasible.
+     */
+    private Node addCuts(Node node, int rounds, boolean global) {
+        for (int round = 0; round < rounds && !isIntegral(node.solution()); round++) {
+            List<Cut> cuts = new ArrayList<>(cutPool.violated(node.solution().optimalPlan()));
+            List<Cut> gomory = GomoryCuts.separate(node.lp(), CUTS_PER_ROUND);
+            if (global)
+                cutPool.addAll(gomory);
+            cuts.addAll(gomory);
+            if (cuts.isEmpty())
+                break;
 
-        return solution;
+            double before = node.bound();
+            try {
+                BaseSimplex lp = withCuts(node.lp(), cuts);
+                node.update(lp, lp.reoptimize());
+            } catch (IllegalArgumentException iae) {
+                return null;
+            }
+            if (!global)
+                node.addCuts(cuts);
+            if (before - node.bound() < MIN_CUT_PROGRESS * max(1, abs(before)))
+                break;
+        }
+        cutPool.age();
+        return node;
     }
 
-    private void addSolutions(List<Solution> source, List<Solution> destination) {
-        source.forEach(solution -> {
-            if (solution.objValue() < baseSolution.objValue() && solution.objValue() != 0)
-                destination.add(solution);
-        });
+    private Node solveRoot(Model m, boolean max) {
+        long start = 0;
+        if (listener != null) {
+            listener.nodeCreated(0, -1, 0);
+            start = System.nanoTime();
+        }
+        Node root;
+        try {
+            root = solveRootLp(m, max);
+            if (settings.getCutRounds() > 0)
+                root = addCuts(root, settings.getCutRounds(), true);
+            if (root == null)
+                throw new IllegalArgumentException("There is no integer optimal plan");
+        } catch (IllegalArgumentException iae) {
+            if (listener != null)
+                listener.nodePruned(0, INFEASIBLE);
+            throw iae;
+        }
+        if (listener != null)
+            listener.lpSolved(root.id(), root.lp().getPivots(), System.nanoTime() - start);
+        return root;
     }
 
-    private Solution compute(Model m, boolean max) {
-        Solution solution;
+    private Node solveRootLp(Model m, boolean max) {
+        if (settings.isRevisedSimplex()) {
+            BaseSimplex solver = newLp(m, false);
+            return Node.root(solver, solver.solve(max), nodeCounter.getAndIncrement());
+        }
         BaseSimplex solver;
         boolean isDual = false;
         for (int i = 0; i < m.freeVars().length; i++)
-            if (m.freeVars()[i] < 0 && !m.signs()[i]) {//m.freeVars()[i] > 0 && m.signs()[i])
+            if (m.freeVars()[i] < 0 && !m.signs()[i] || m.freeVars()[i] > 0 && m.signs()[i]) {
                 isDual = true;
                 break;
             }
-        solver = isDual
-                ? new DualSimplex(m.constraints(), m.signs(), m.freeVars(), m.objective())
-                : new Simplex(m.constraints(), m.signs(), m.freeVars(), m.objective());
+        solver = newLp(m, isDual);
         try {
-            solution = solver.solve(max);
+            return Node.root(solver, solve(solver, max), nodeCounter.getAndIncrement());
         } catch (IllegalArgumentException iae) {
-            solution = solver instanceof Simplex
-                    ? new DualSimplex(m.constraints(), m.signs(), m.freeVars(), m.objective()).solve(max)
-                    : new Simplex(m.constraints(), m.signs(), m.freeVars(), m.objective()).solve(max);
+            solver = newLp(m, solver instanceof Simplex);
+            return Node.root(solver, solve(solver, max), nodeCounter.getAndIncrement());
         }
-        return solution;
     }
 
-    private double[][] getUpdatedConstraints(double[][] lastConstraints, int idx) {
-        double[][] updatedC = new double[lastConstraints.length + 1][lastConstraints[0].length];
-        for (int i = 0; i < lastConstraints.length; i++) {
-            System.arraycopy(lastConstraints[i], 0, updatedC[i], 0, lastConstraints[i].length);
-        }
-        updatedC[lastConstraints.length][idx] = 1;
-        return updatedC;
+    private BaseSimplex newLp(Model m, boolean dual) {
+        BaseSimplex lp;
+        if (settings.isRevisedSimplex())
+            lp = new RevisedSimplex(m.constraints(), m.signs(), m.freeVars(), m.objective());
+        else if (dual)
+            lp = new DualSimplex(m.constraints(), m.signs(), m.freeVars(), m.objective());
+        else
+            lp = new Simplex(m.constraints(), m.signs(), m.freeVars(), m.objective());
+        if (m.upper() != null)
+            lp.setUpperBounds(m.upper());
+        lp.setPricing(settings.getPricing());
+        lp.setScaling(settings.getScaling());
+        return lp;
+    }
+
+    private static Solution solve(BaseSimplex solver, boolean max) {
+        return solver instanceof DualSimplex dual ? dual.solveToOptimum(max) : solver.solve(max);
     }
 
-    private double[] getUpdatedObjective(double[] lastObj) {
-        double[] newObjective = new double[initialModel.constraints()[0].length];
-        System.arraycopy(lastObj, 0, newObjective, 0, initialModel.constraints()[0].length);
-        return newObjective;
+    private int firstFractional(double[] plan) {
+        for (int i = 0; i < model.constraints().cols(); i++)
+            if (hasFraction(plan[i]))
+                return i;
+        return -1;
     }
 
-    private double[] getUpdatedFreeVars(double[] lastFreeVars, double bound, Function<Double, Double> action) {
-        double[] newFreeVars = new double[lastFreeVars.length + 1];
-        System.arraycopy(lastFreeVars, 0, newFreeVars, 0, lastFreeVars.length);
-        newFreeVars[lastFreeVars.length] = action.apply(bound);
-        return newFreeVars;
+    private int[] fractionalVariables(Solution solution) {
+        double[] plan = solution.optimalPlan();
+        return IntStream.range(0, model.constraints().cols()).filter(i -> hasFraction(plan[i])).toArray();
     }
 
-    private boolean[] getUpdatedSigns(boolean[] lastSigns, int length) {
-        boolean[] newSigns = new boolean[length];
-        System.arraycopy(lastSigns, 0, newSigns, 0, lastSigns.length);
-        return newSigns;
+    private boolean isIntegral(Solution solution) {
+        return firstFractional(solution.optimalPlan()) == -1;
     }
 
     private boolean hasFraction(double element) {
@@ -159,5 +807,63 @@ public class Solver {
         return currentFraction > epsilon;
     }
 
-    private record Model(double[][] constraints, boolean[] signs, double[] freeVars, double[] objective) {}
-}
\ No newline at end of file
+    /** Bounds of the structural variables and the variables whose bounds changed since they were last propagated. */
+    private record Domain(double[] lower, double[] upper, int[] changed) {
+        static Domain of(BaseSimplex lp, int cols) {
+            return new Domain(Arrays.copyOf(lp.getLower(), cols), Arrays.copyOf(lp.getUpper(), cols), new int[0]);
+        }
+    }
+
+    /**
+     * Parallel counterpart of {@link #search}: every node is a fork-join task, the better child
+     * is explored by the current worker and the other one is left for stealing. The task keeps
+     * diving in a loop instead of recursing, and completes once the children it forked complete,
+     * so neither deep trees nor joins grow the stack.
+     */
+    private final class NodeTask extends CountedCompleter<Void> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final transient Node node;
+
+        private NodeTask(CountedCompleter<?> parent, Node node) {
+            super(parent);
+            this.node = node;
+        }
+
+        @Override
+        public void compute() {
+            Node current = node;
+            while (current != null)
+                current = dive(current);
+            tryComplete();
+        }
+
+        /** Expands {@code current}, forks all but its better child and returns that child to dive into. */
+        private Node dive(Node current) {
+            if (isStopped()) {
+                unexploredBound.accumulate(current.bound());
+                return null;
+            }
+            if (canBePruned(current.bound())) {
+                if (listener != null)
+                    listener.nodePruned(current.id(), BOUND);
+                return null;
+            }
+            Solution before = incumbent.get();
+            List<Node> children = expand(current);
+            if (listener != null && before != incumbent.get())
+                reportGap(rootBound);
+            if (children.isEmpty())
+                return null;
+            children.sort(NodeSelection.BEST_BOUND.comparator(true));
+            // the forked children drop their LPs, the first one is explored next on this worker
+            for (int k = 1; k < children.size(); k++) {
+                release(children.get(k));
+                addToPendingCount(1);
+                new NodeTask(this, children.get(k)).fork();
+            }
+            return children.get(0);
+        }
+    }
+}
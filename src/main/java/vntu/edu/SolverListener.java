@@ -0,0 +1,50 @@
+package vntu.edu;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Receives the events of a branch-and-bound search. All methods do nothing by default, so an
+ * implementation overrides only what it needs; without a listener in {@link SolverSettings} the
+ * solver skips the events altogether. Objective values are in the sense of
+ * {@link Solution#objValue()}. With a {@link SolverSettings#getPool() pool} the events come from
+ * the worker threads, so the listener has to be thread-safe.
+ */
+public interface SolverListener {
+    /** A node was created; the root has {@code parentId == -1}. */
+    default void nodeCreated(long id, long parentId, int depth) {
+    }
+
+    /** The LP of the node was solved or proven infeasible. */
+    default void lpSolved(long nodeId, int pivots, long nanos) {
+    }
+
+    /** The node is closed without branching. */
+    default void nodePruned(long nodeId, PruneReason reason) {
+    }
+
+    /** {@code nodeId} is {@code -1} when presolve alone fixed every variable. */
+    default void incumbentImproved(Solution incumbent, long nodeId) {
+    }
+
+    /** The best integer value found and the best bound still possible among the open nodes. */
+    default void gapUpdated(double primalBound, double dualBound) {
+    }
+
+    /** A checkpoint with {@code openNodes} open nodes was written in the background in {@code nanos}. */
+    default void checkpointWritten(Path path, int openNodes, long nanos) {
+    }
+
+    /** Writing a checkpoint failed; the search goes on and tries again at the next one. */
+    default void checkpointFailed(Path path, IOException exception) {
+    }
+
+    enum PruneReason {
+        /** The LP has no feasible plan. */
+        INFEASIBLE,
+        /** The LP bound is not better than the incumbent. */
+        BOUND,
+        /** The LP plan is integral and became a candidate for the incumbent. */
+        INTEGRAL
+    }
+}
@@ -0,0 +1,106 @@
+package vntu.edu;
+
+import lombok.Builder;
+import lombok.Getter;
+import vntu.edu.branching.BranchingRule;
+import vntu.edu.branching.FirstFractional;
+import vntu.edu.heuristics.PrimalHeuristic;
+import vntu.edu.simplex_methods.Pricing;
+import vntu.edu.simplex_methods.Scaling;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+@Getter
+@Builder(toBuilder = true)
+public class SolverSettings {
+    @Builder.Default
+    private final NodeSelection nodeSelection = NodeSelection.BEST_BOUND;
+    /**
+     * Picks the variable every node is branched on, e.g. {@link vntu.edu.branching.PseudoCostBranching};
+     * a rule may keep statistics, so one instance should serve one solve at a time.
+     */
+    @Builder.Default
+    private final BranchingRule branchingRule = new FirstFractional();
+    /** Reduces the model with {@link vntu.edu.presolve.Presolve} before the root LP. */
+    @Builder.Default
+    private final boolean presolve = true;
+    /**
+     * Rounds of Gomory cuts at the root, each re-optimized with the dual simplex; {@code 0} keeps
+     * plain branch and bound. The cuts go to a pool and are reused wherever they are violated.
+     */
+    private final int cutRounds;
+    /** One more round at every node: violated pool cuts and Gomory cuts valid below the node. */
+    private final boolean nodeCuts;
+    /**
+     * Run on the root LP and then on every {@link #heuristicFrequency}-th node to find an early
+     * incumbent, e.g. {@link vntu.edu.heuristics.SimpleRounding} or
+     * {@link vntu.edu.heuristics.FeasibilityPump}; none by default.
+     */
+    @Builder.Default
+    private final List<PrimalHeuristic> heuristics = List.of();
+    /** {@code 0} runs the {@link #heuristics} at the root only. */
+    @Builder.Default
+    private final int heuristicFrequency = 10;
+    /** Wall-clock limit of the search, checked before every node; {@code null} for none. */
+    private final Duration timeLimit;
+    /** Nodes to create at most, the root included; {@code 0} for no limit. */
+    private final long nodeLimit;
+    /**
+     * Nodes whose bound is not better than the incumbent by more than this share of it are
+     * pruned, so the search ends once the incumbent is within the gap; {@code 0} solves exactly.
+     */
+    private final double relativeGap;
+    /** Like {@link #relativeGap}, as an absolute difference of the objective values. */
+    private final double absoluteGap;
+    /**
+     * Tightens the bounds of every child before its LP is solved: reduced-cost fixing against the
+     * incumbent, then bound propagation over the rows, which also proves some children infeasible
+     * without a pivot.
+     */
+    @Builder.Default
+    private final boolean propagation = true;
+    /**
+     * LPs of open nodes kept at most in a {@link TranspositionTable}, so that a node's LP is not
+     * solved again when its turn comes; {@code 0}, the default, rebuilds every node from its nearest
+     * ancestor. Every entry is a full copy of an LP and the limit counts LPs, not bytes, so the
+     * table pays off on small models and should stay off on large ones.
+     */
+    private final int transpositionTableSize;
+    /** Solves node LPs with {@link vntu.edu.simplex_methods.RevisedSimplex} instead of the full tableau. */
+    private final boolean revisedSimplex;
+    /** Picks the entering column of the primal pivots in every LP. */
+    @Builder.Default
+    private final Pricing pricing = Pricing.DANTZIG;
+    /** Scales the rows and columns of every LP before its first pivot; the plans stay those of the model. */
+    @Builder.Default
+    private final Scaling scaling = Scaling.GEOMETRIC_MEAN;
+    /**
+     * Runs the search on this pool with work stealing, {@link #nodeSelection} is then only a local
+     * preference of each worker; {@code null} keeps the search on the calling thread.
+     */
+    private final ForkJoinPool pool;
+    /**
+     * Sends the search to the {@link Worker} processes connected to this coordinator, which must
+     * have the classes of the {@link #branchingRule} and the {@link #heuristics}; {@code null}
+     * searches in this process.
+     */
+    private final Coordinator coordinator;
+    /**
+     * File the sequential search saves its state to every {@link #checkpointInterval} and when a
+     * limit stops it, for {@link Solver#resume}; {@code null} for none. Not supported with a {@link #pool}.
+     * A failed write goes to {@link SolverListener#checkpointFailed}; without a {@link #listener} the
+     * solve throws an {@link java.io.UncheckedIOException} instead if the last write failed.
+     */
+    private final Path checkpoint;
+    @Builder.Default
+    private final Duration checkpointInterval = Duration.ofMinutes(1);
+    /** Receives the search events, e.g. a {@link SolverStatistics}; {@code null} turns them off. */
+    private final SolverListener listener;
+
+    public static SolverSettings defaults() {
+        return builder().build();
+    }
+}
@@ -0,0 +1,85 @@
+package vntu.edu;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.max;
+
+/** Listener that accumulates the counters of a search; safe to share with a parallel search. */
+public final class SolverStatistics implements SolverListener {
+    private final LongAdder nodesCreated = new LongAdder();
+    private final LongAdder nodesPruned = new LongAdder();
+    private final LongAdder incumbents = new LongAdder();
+    private final LongAdder pivots = new LongAdder();
+    private final LongAdder lpNanos = new LongAdder();
+    private volatile double primalBound = Double.NEGATIVE_INFINITY;
+    private volatile double dualBound = Double.POSITIVE_INFINITY;
+
+    @Override
+    public void nodeCreated(long id, long parentId, int depth) {
+        nodesCreated.increment();
+    }
+
+    @Override
+    public void lpSolved(long nodeId, int pivots, long nanos) {
+        this.pivots.add(pivots);
+        lpNanos.add(nanos);
+    }
+
+    @Override
+    public void nodePruned(long nodeId, PruneReason reason) {
+        nodesPruned.increment();
+    }
+
+    @Override
+    public void incumbentImproved(Solution incumbent, long nodeId) {
+        incumbents.increment();
+    }
+
+    @Override
+    public void gapUpdated(double primalBound, double dualBound) {
+        this.primalBound = primalBound;
+        this.dualBound = dualBound;
+    }
+
+    public long getNodesCreated() {
+        return nodesCreated.sum();
+    }
+
+    public long getNodesPruned() {
+        return nodesPruned.sum();
+    }
+
+    public long getIncumbents() {
+        return incumbents.sum();
+    }
+
+    public long getPivots() {
+        return pivots.sum();
+    }
+
+    public long getLpNanos() {
+        return lpNanos.sum();
+    }
+
+    public double getPrimalBound() {
+        return primalBound;
+    }
+
+    public double getDualBound() {
+        return dualBound;
+    }
+
+    /** {@code |dual - primal| / |primal|}, infinite until there is an incumbent. */
+    public double getGap() {
+        if (primalBound == Double.NEGATIVE_INFINITY)
+            return Double.POSITIVE_INFINITY;
+        return abs(dualBound - primalBound) / max(abs(primalBound), 1e-10);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("nodes = %d (pruned %d), incumbents = %d, pivots = %d, LP time = %.3f ms, gap = %.4f%%",
+                getNodesCreated(), getNodesPruned(), getIncumbents(), getPivots(), getLpNanos() / 1e6, getGap() * 100);
+    }
+}
@@ -0,0 +1,15 @@
+package vntu.edu;
+
+/** Why the last {@link Solver#solve} returned its plan. */
+public enum SolverStatus {
+    /** The search finished; the plan is optimal. */
+    OPTIMAL,
+    /** Nodes were left unexplored because the plan was already within the gap tolerances. */
+    GAP_LIMIT,
+    /** The time limit stopped the search; the plan is the best one found. */
+    TIME_LIMIT,
+    /** The node limit stopped the search; the plan is the best one found. */
+    NODE_LIMIT,
+    /** {@link Solver#cancel()} stopped the search; the plan is the best one found. */
+    CANCELLED
+}
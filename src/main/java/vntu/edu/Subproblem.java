@@ -0,0 +1,108 @@
+package vntu.edu;
+
+import vntu.edu.cutting_planes.Cut;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A node as it travels between the {@link Coordinator} and its {@link Worker}s: the bounds on
+ * the path from the root, the local cuts on it and the LP bound. Any process that solved the
+ * same root rebuilds the node from it.
+ */
+record Subproblem(int[] variables, double[] values, boolean[] isUpper, Cut[] cuts, double bound) {
+    /** The whole tree. */
+    static Subproblem root(double bound) {
+        return new Subproblem(new int[0], new double[0], new boolean[0], new Cut[0], bound);
+    }
+
+    /**
+     * Bounds and cuts of {@code node}. A variable branched on several times in the same direction
+     * keeps only its last, tightest bound.
+     */
+    static Subproblem of(Node node) {
+        Set<Long> seen = new HashSet<>();
+        List<Node> path = new ArrayList<>();
+        List<Cut> cuts = new ArrayList<>();
+        for (Node n = node; n.parent() != null; n = n.parent()) {
+            if (seen.add(2L * n.variable() + (n.isUpper() ? 1 : 0)))
+                path.add(n);
+            cuts.addAll(List.of(n.cuts()));
+        }
+        int[] variables = new int[path.size()];
+        double[] values = new double[path.size()];
+        boolean[] isUpper = new boolean[path.size()];
+        for (int k = 0; k < path.size(); k++) {
+            Node n = path.get(k);
+            variables[k] = n.variable();
+            values[k] = n.value();
+            isUpper[k] = n.isUpper();
+        }
+        return new Subproblem(variables, values, isUpper, cuts.toArray(new Cut[0]), node.bound());
+    }
+
+    /** The node as a chain of released nodes below {@code root}, the cuts on the last one; the root itself when there are no bounds. */
+    Node restore(Node root, long id) {
+        Node node = root;
+        for (int k = 0; k < variables.length; k++) {
+            boolean last = k == variables.length - 1;
+            node = node.restoredChild(variables[k], values[k], isUpper[k], bound, last ? cuts : new Cut[0], id);
+        }
+        return node;
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeDouble(bound);
+        out.writeInt(variables.length);
+        for (int k = 0; k < variables.length; k++) {
+            out.writeInt(variables[k]);
+            out.writeDouble(values[k]);
+            out.writeBoolean(isUpper[k]);
+        }
+        out.writeInt(cuts.length);
+        for (Cut cut : cuts) {
+            double[] coefficients = cut.coefficients();
+            int nonZeros = 0;
+            for (double coefficient : coefficients)
+                if (coefficient != 0)
+                    nonZeros++;
+            out.writeDouble(cut.rhs());
+            out.writeInt(coefficients.length);
+            out.writeInt(nonZeros);
+            for (int j = 0; j < coefficients.length; j++)
+                if (coefficients[j] != 0) {
+                    out.writeInt(j);
+                    out.writeDouble(coefficients[j]);
+                }
+        }
+    }
+
+    static Subproblem read(DataInput in) throws IOException {
+        double bound = in.readDouble();
+        int depth = in.readInt();
+        int[] variables = new int[depth];
+        double[] values = new double[depth];
+        boolean[] isUpper = new boolean[depth];
+        for (int k = 0; k < depth; k++) {
+            variables[k] = in.readInt();
+            values[k] = in.readDouble();
+            isUpper[k] = in.readBoolean();
+        }
+        Cut[] cuts = new Cut[in.readInt()];
+        for (int c = 0; c < cuts.length; c++) {
+            double rhs = in.readDouble();
+            double[] coefficients = new double[in.readInt()];
+            for (int k = in.readInt(); k > 0; k--) {
+                int j = in.readInt();
+                coefficients[j] = in.readDouble();
+            }
+            cuts[c] = new Cut(coefficients, rhs);
+        }
+        return new Subproblem(variables, values, isUpper, cuts, bound);
+    }
+}
@@ -0,0 +1,122 @@
+package vntu.edu;
+
+import vntu.edu.simplex_methods.BaseSimplex;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The solved LPs of released nodes, so that a node whose turn comes is not solved again. A node
+ * is looked up by its bound set, the tightest bound per variable and direction on its path, which
+ * does not depend on the order the bounds were branched in and is the same for a node restored
+ * from a {@link Subproblem}. At most {@code capacity} LPs are kept; an LP leaves the table when it
+ * is taken, so the least recently stored one is also the least recently used and is evicted
+ * first. Safe to use from several threads.
+ */
+final class TranspositionTable {
+    private final Map<BoundSet, Entry> entries;
+
+    TranspositionTable(int capacity) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BoundSet, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /** Keeps the LP and the solution of {@code node}, which still has them. */
+    void put(Node node) {
+        BoundSet key = BoundSet.of(node);
+        Entry entry = new Entry(node.lp(), node.solution());
+        synchronized (this) {
+            entries.put(key, entry);
+        }
+    }
+
+    /** Gives {@code node} the LP stored for its bound set and drops it from the table; {@code false} if there is none. */
+    boolean restore(Node node) {
+        BoundSet key = BoundSet.of(node);
+        Entry entry;
+        synchronized (this) {
+            entry = entries.remove(key);
+        }
+        if (entry == null)
+            return false;
+        node.update(entry.lp(), entry.solution());
+        return true;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry(BaseSimplex lp, Solution solution) {
+    }
+
+    /**
+     * Bounds sorted by {@code 2·variable + (isUpper ? 1 : 0)}. The hash is the XOR of one mixed key
+     * per bound, Zobrist-style; equal hashes are confirmed on the bounds themselves.
+     */
+    static final class BoundSet {
+        private final long[] codes;
+        private final double[] values;
+        private final long hash;
+
+        private BoundSet(long[] codes, double[] values) {
+            this.codes = codes;
+            this.values = values;
+            long h = 0;
+            for (int k = 0; k < codes.length; k++)
+                h ^= mix(codes[k] * 0x9E3779B97F4A7C15L + Double.doubleToLongBits(values[k]));
+            this.hash = h;
+        }
+
+        /**
+         * The deepest bound per variable and direction on the path of {@code node} is the tightest.
+         * The path is collected into primitive arrays: every bound is packed as its code above its
+         * distance from {@code node}, so one sort orders the codes and puts the deepest bound of
+         * each first.
+         */
+        static BoundSet of(Node node) {
+            long[] packed = new long[node.depth()];
+            double[] pathValues = new double[packed.length];
+            int length = 0;
+            for (Node n = node; n.parent() != null; n = n.parent()) {
+                packed[length] = (2L * n.variable() + (n.isUpper() ? 1 : 0)) << 31 | length;
+                pathValues[length++] = n.value();
+            }
+            Arrays.sort(packed, 0, length);
+            long[] codes = new long[length];
+            double[] values = new double[length];
+            int size = 0;
+            for (int k = 0; k < length; k++) {
+                long code = packed[k] >>> 31;
+                if (size > 0 && codes[size - 1] == code)
+                    continue;
+                codes[size] = code;
+                values[size++] = pathValues[(int) (packed[k] & Integer.MAX_VALUE)];
+            }
+            return new BoundSet(Arrays.copyOf(codes, size), Arrays.copyOf(values, size));
+        }
+
+        /** The finalizer of SplitMix64. */
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof BoundSet other && hash == other.hash
+                    && Arrays.equals(codes, other.codes) && Arrays.equals(values, other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hash);
+        }
+    }
+}
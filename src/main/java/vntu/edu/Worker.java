@@ -0,0 +1,245 @@
+package vntu.edu;
+
+import vntu.edu.branching.BranchingRule;
+import vntu.edu.heuristics.PrimalHeuristic;
+import vntu.edu.simplex_methods.Pricing;
+import vntu.edu.simplex_methods.Scaling;
+import vntu.edu.simplex_methods.SparseMatrix;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamField;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Explores the subproblems a {@link Coordinator} sends until it disconnects. Run as
+ * {@code java -cp <classpath> vntu.edu.Worker <host> <port>} in as many processes as the
+ * coordinator waits for.
+ * <p>
+ * For every model the worker presolves and solves the root itself, with the settings of the
+ * coordinating solver, and then rebuilds each subproblem from it. New incumbents go to the
+ * coordinator at once; its cutoff and its requests to yield are read on a thread of their own,
+ * so that they reach the running search.
+ */
+public final class Worker implements Runnable {
+    private static final Object CLOSED = new Object();
+
+    private final String host;
+    private final int port;
+    /** Models and jobs for the search thread, {@link #CLOSED} once the connection is gone. */
+    private final BlockingQueue<Object> inbox = new LinkedBlockingQueue<>();
+    private volatile Solver solver;
+    /** Best incumbent value the coordinator sent for the current model. */
+    private volatile double cutoff = Double.NEGATIVE_INFINITY;
+    private volatile long yieldJob = -1;
+
+    public Worker(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: Worker <host> <port>");
+            System.exit(2);
+        }
+        new Worker(args[0], Integer.parseInt(args[1])).run();
+    }
+
+    /** Serves the coordinator until it disconnects. */
+    @Override
+    public void run() {
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            Thread reader = new Thread(() -> read(in), "worker-reader");
+            reader.setDaemon(true);
+            reader.start();
+            serve(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void serve(DataOutputStream out) throws IOException, InterruptedException {
+        Node root = null;
+        while (true) {
+            Object message = inbox.take();
+            if (message == CLOSED)
+                return;
+            if (message instanceof ModelMessage model) {
+                solver = model.solver();
+                solver.setIncumbentSink(solution -> send(out, solution));
+                root = solver.start(model.max(), null);
+                if (root == null || solver.fingerprint() != model.fingerprint())
+                    throw new IllegalStateException("The model did not presolve as on the coordinator");
+            } else if (message instanceof JobMessage job) {
+                if (root == null)
+                    throw new IllegalStateException("A job came before its model");
+                solver.setCutoff(Math.max(job.cutoff(), cutoff));
+                long before = solver.getNodeCount();
+                List<Subproblem> open = solver.explore(root, job.subproblem(), job.budget(),
+                        () -> yieldJob == job.jobId());
+                out.writeByte(Coordinator.DONE);
+                out.writeLong(job.jobId());
+                out.writeLong(solver.getNodeCount() - before);
+                out.writeInt(open.size());
+                for (Subproblem subproblem : open)
+                    subproblem.write(out);
+                out.flush();
+            }
+        }
+    }
+
+    private static void send(DataOutputStream out, Solution solution) {
+        try {
+            out.writeByte(Coordinator.SOLUTION);
+            out.writeDouble(solution.objValue());
+            out.writeInt(solution.optimalPlan().length);
+            for (double value : solution.optimalPlan())
+                out.writeDouble(value);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void read(DataInputStream in) {
+        try {
+            while (true) {
+                byte type = in.readByte();
+                switch (type) {
+                    case Coordinator.MODEL -> {
+                        // job ids start over with every search, so a yield left from the last one must not match
+                        yieldJob = -1;
+                        cutoff = Double.NEGATIVE_INFINITY;
+                        inbox.add(readModel(in));
+                    }
+                    case Coordinator.JOB -> inbox.add(new JobMessage(in.readLong(), in.readInt(), in.readDouble(),
+                            Subproblem.read(in)));
+                    case Coordinator.CUTOFF -> {
+                        cutoff = Math.max(cutoff, in.readDouble());
+                        Solver current = solver;
+                        if (current != null)
+                            current.setCutoff(cutoff);
+                    }
+                    case Coordinator.YIELD -> yieldJob = in.readLong();
+                    default -> throw new IOException("Unknown message " + type);
+                }
+            }
+        } catch (EOFException e) {
+            // the coordinator closed the connection
+        } catch (IOException e) {
+            System.err.println("Worker lost its coordinator: " + e.getMessage());
+        } finally {
+            inbox.add(CLOSED);
+        }
+    }
+
+    private static ModelMessage readModel(DataInputStream in) throws IOException {
+        long fingerprint = in.readLong();
+        boolean max = in.readBoolean();
+        SolverSettings.SolverSettingsBuilder settings = SolverSettings.builder()
+                .presolve(in.readBoolean())
+                .cutRounds(in.readInt())
+                .nodeCuts(in.readBoolean())
+                .propagation(in.readBoolean())
+                .revisedSimplex(in.readBoolean())
+                .pricing(Pricing.valueOf(in.readUTF()))
+                .scaling(Scaling.valueOf(in.readUTF()))
+                .transpositionTableSize(in.readInt())
+                .nodeSelection(NodeSelection.valueOf(in.readUTF()))
+                .heuristicFrequency(in.readInt())
+                .relativeGap(in.readDouble())
+                .absoluteGap(in.readDouble());
+        int heuristicCount = in.readInt();
+        byte[] strategies = new byte[in.readInt()];
+        in.readFully(strategies);
+        try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(strategies))) {
+            objects.setObjectInputFilter(new StrategyFilter());
+            settings.branchingRule((BranchingRule) objects.readObject());
+            List<PrimalHeuristic> heuristics = new ArrayList<>();
+            for (int k = 0; k < heuristicCount; k++)
+                heuristics.add((PrimalHeuristic) objects.readObject());
+            settings.heuristics(heuristics);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Cannot read the branching rule and the heuristics", e);
+        }
+
+        int rows = in.readInt();
+        int cols = in.readInt();
+        SparseMatrix.Builder constraints = SparseMatrix.builder(rows, cols);
+        boolean[] signs = new boolean[rows];
+        double[] freeVars = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            for (int k = in.readInt(); k > 0; k--)
+                constraints.add(i, in.readInt(), in.readDouble());
+            signs[i] = in.readBoolean();
+            freeVars[i] = in.readDouble();
+        }
+        double[] objective = new double[cols];
+        for (int j = 0; j < cols; j++)
+            objective[j] = in.readDouble();
+        Solver solver = new Solver(constraints.build(), signs, freeVars, objective, settings.build());
+        return new ModelMessage(fingerprint, max, solver);
+    }
+
+    /**
+     * Lets through only implementations of {@link BranchingRule} and {@link PrimalHeuristic}, the
+     * types their serialized fields declare, transitively, and arrays of those or of primitives;
+     * any other class in the stream is rejected before it is instantiated.
+     */
+    static final class StrategyFilter implements ObjectInputFilter {
+        private final Set<Class<?>> allowed = new HashSet<>();
+
+        @Override
+        public Status checkInput(FilterInfo info) {
+            Class<?> type = info.serialClass();
+            if (type == null)
+                return Status.UNDECIDED;
+            type = element(type);
+            if (type.isPrimitive())
+                return Status.ALLOWED;
+            if (!allowed.contains(type) && !BranchingRule.class.isAssignableFrom(type)
+                    && !PrimalHeuristic.class.isAssignableFrom(type))
+                return Status.REJECTED;
+            // the stream describes a class before its superclasses and the values of its fields
+            for (Class<?> parent = type.getSuperclass(); parent != null; parent = parent.getSuperclass())
+                allowed.add(parent);
+            ObjectStreamClass descriptor = ObjectStreamClass.lookup(type);
+            if (descriptor != null)
+                for (ObjectStreamField field : descriptor.getFields())
+                    if (!field.isPrimitive())
+                        allowed.add(element(field.getType()));
+            return Status.ALLOWED;
+        }
+
+        private static Class<?> element(Class<?> type) {
+            while (type.isArray())
+                type = type.getComponentType();
+            return type;
+        }
+    }
+
+    private record ModelMessage(long fingerprint, boolean max, Solver solver) {}
+
+    private record JobMessage(long jobId, int budget, double cutoff, Subproblem subproblem) {}
+}
@@ -0,0 +1,32 @@
+package vntu.edu.branching;
+
+import vntu.edu.Solution;
+import vntu.edu.simplex_methods.BaseSimplex;
+
+/**
+ * Picks the variable a node is branched on. Objective values are in the sense of
+ * {@link Solution#objValue()}, so a child loses bound by going down. With a
+ * {@link vntu.edu.SolverSettings#getPool() pool} the methods are called from several threads.
+ * A {@link vntu.edu.Coordinator} sends a copy of the rule to its workers, so it has to be
+ * {@link java.io.Serializable}, as the rules of this package are.
+ */
+public interface BranchingRule {
+    /** Called at the start of every solve with the number of structural variables. */
+    default void init(int variables) {
+    }
+
+    /**
+     * @param lp         the solved LP of the node; it is not changed
+     * @param solution   its optimal solution
+     * @param candidates the structural variables with a fractional value, never empty
+     * @return one of the candidates
+     */
+    int select(BaseSimplex lp, Solution solution, int[] candidates);
+
+    /**
+     * The child that moved {@code var} by {@code distance} down ({@code isLeft}) or up lost
+     * {@code loss} of the bound of its parent.
+     */
+    default void childSolved(int var, boolean isLeft, double distance, double loss) {
+    }
+}
@@ -0,0 +1,31 @@
+package vntu.edu.branching;
+
+import vntu.edu.Solution;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import static java.lang.Math.floor;
+import static java.lang.Math.min;
+
+/** Orders the branching candidates. */
+final class Candidates {
+
+    private Candidates() {
+    }
+
+    /** Distance of the value from the nearest integer, {@code 0.5} at most. */
+    static double fractionality(Solution solution, int var) {
+        double fraction = solution.optimalPlan()[var] - floor(solution.optimalPlan()[var]);
+        return min(fraction, 1 - fraction);
+    }
+
+    static int[] mostFractional(Solution solution, int[] candidates, int limit) {
+        return Arrays.stream(candidates)
+                .boxed()
+                .sorted(Comparator.comparingDouble(var -> -fractionality(solution, var)))
+                .limit(limit)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+}
@@ -0,0 +1,18 @@
+package vntu.edu.branching;
+
+import vntu.edu.Solution;
+import vntu.edu.simplex_methods.BaseSimplex;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/** The fractional variable with the smallest index. */
+public final class FirstFractional implements BranchingRule, Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public int select(BaseSimplex lp, Solution solution, int[] candidates) {
+        return candidates[0];
+    }
+}
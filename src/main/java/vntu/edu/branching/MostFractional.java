@@ -0,0 +1,22 @@
+package vntu.edu.branching;
+
+import vntu.edu.Solution;
+import vntu.edu.simplex_methods.BaseSimplex;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/** The variable whose fraction is closest to one half. */
+public final class MostFractional implements BranchingRule, Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public int select(BaseSimplex lp, Solution solution, int[] candidates) {
+        int best = candidates[0];
+        for (int var : candidates)
+            if (Candidates.fractionality(solution, var) > Candidates.fractionality(solution, best))
+                best = var;
+        return best;
+    }
+}
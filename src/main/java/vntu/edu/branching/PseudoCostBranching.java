@@ -0,0 +1,100 @@
+package vntu.edu.branching;
+
+import vntu.edu.Solution;
+import vntu.edu.simplex_methods.BaseSimplex;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+import static java.lang.Math.floor;
+
+/**
+ * Pseudo-cost branching with reliability. The pseudo-cost of a variable in a direction is the
+ * average bound loss per unit of change seen in the children branched that way; the score of a
+ * candidate is the product of its expected down and up losses. A candidate observed fewer than
+ * {@code reliability} times in a direction is unreliable and is evaluated by strong branching
+ * instead, up to {@code maxStrongCandidates} per node, which also records its losses. The
+ * remaining ones without observations use the average pseudo-cost.
+ */
+public final class PseudoCostBranching implements BranchingRule, Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int reliability;
+    private final int maxStrongCandidates;
+    /** Per direction, down and up, the sum of the losses per unit and their number. */
+    private double[][] sums = new double[2][0];
+    private int[][] counts = new int[2][0];
+
+    public PseudoCostBranching(int reliability, int maxStrongCandidates) {
+        this.reliability = reliability;
+        this.maxStrongCandidates = maxStrongCandidates;
+    }
+
+    public PseudoCostBranching() {
+        this(4, 8);
+    }
+
+    @Override
+    public synchronized void init(int variables) {
+        sums = new double[2][variables];
+        counts = new int[2][variables];
+    }
+
+    @Override
+    public int select(BaseSimplex lp, Solution solution, int[] candidates) {
+        int strong = 0;
+        int best = candidates[0];
+        double bestScore = -1;
+        for (int var : Candidates.mostFractional(solution, candidates, candidates.length)) {
+            double value = solution.optimalPlan()[var];
+            double down = value - floor(value);
+            double score;
+            if (!isReliable(var) && strong < maxStrongCandidates) {
+                strong++;
+                double[] losses = StrongBranching.losses(lp, solution, var);
+                if (losses[0] != Double.POSITIVE_INFINITY)
+                    childSolved(var, true, down, losses[0]);
+                if (losses[1] != Double.POSITIVE_INFINITY)
+                    childSolved(var, false, 1 - down, losses[1]);
+                score = StrongBranching.score(losses[0], losses[1]);
+            } else {
+                score = StrongBranching.score(pseudoCost(0, var) * down, pseudoCost(1, var) * (1 - down));
+            }
+            if (score == Double.POSITIVE_INFINITY)
+                return var;
+            if (score > bestScore) {
+                bestScore = score;
+                best = var;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public synchronized void childSolved(int var, boolean isLeft, double distance, double loss) {
+        if (distance <= 0)
+            return;
+        int dir = isLeft ? 0 : 1;
+        sums[dir][var] += loss / distance;
+        counts[dir][var]++;
+    }
+
+    private synchronized boolean isReliable(int var) {
+        return counts[0][var] >= reliability && counts[1][var] >= reliability;
+    }
+
+    /** Average loss per unit, or the average over all variables when {@code var} has no observations. */
+    private synchronized double pseudoCost(int dir, int var) {
+        if (counts[dir][var] > 0)
+            return sums[dir][var] / counts[dir][var];
+        double sum = 0;
+        int count = 0;
+        for (int j = 0; j < sums[dir].length; j++)
+            if (counts[dir][j] > 0) {
+                sum += sums[dir][j] / counts[dir][j];
+                count++;
+            }
+        return count == 0 ? 1 : sum / count;
+    }
+}
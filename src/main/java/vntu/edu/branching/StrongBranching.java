@@ -0,0 +1,70 @@
+package vntu.edu.branching;
+
+import vntu.edu.Solution;
+import vntu.edu.simplex_methods.BaseSimplex;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+import static java.lang.Math.ceil;
+import static java.lang.Math.floor;
+import static java.lang.Math.max;
+
+/**
+ * Limited strong branching: both children of the {@code maxCandidates} most fractional variables
+ * are re-optimized from the node basis and the variable whose children lose the most bound wins,
+ * by the product of the two losses. A variable with an infeasible child is taken at once.
+ */
+public final class StrongBranching implements BranchingRule, Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final double MIN_LOSS = 1e-6;
+
+    private final int maxCandidates;
+
+    public StrongBranching(int maxCandidates) {
+        this.maxCandidates = maxCandidates;
+    }
+
+    public StrongBranching() {
+        this(8);
+    }
+
+    @Override
+    public int select(BaseSimplex lp, Solution solution, int[] candidates) {
+        int best = candidates[0];
+        double bestScore = -1;
+        for (int var : Candidates.mostFractional(solution, candidates, maxCandidates)) {
+            double[] losses = losses(lp, solution, var);
+            double score = score(losses[0], losses[1]);
+            if (score == Double.POSITIVE_INFINITY)
+                return var;
+            if (score > bestScore) {
+                bestScore = score;
+                best = var;
+            }
+        }
+        return best;
+    }
+
+    /** Bound losses of the down and the up child of {@code var}, {@code +∞} for an infeasible child. */
+    static double[] losses(BaseSimplex lp, Solution solution, int var) {
+        double value = solution.optimalPlan()[var];
+        double[] output = new double[2];
+        for (int dir = 0; dir < 2; dir++) {
+            boolean down = dir == 0;
+            try {
+                Solution child = lp.withBound(var, down ? floor(value) : ceil(value), down).reoptimize();
+                output[dir] = max(0, solution.objValue() - child.objValue());
+            } catch (IllegalArgumentException infeasible) {
+                output[dir] = Double.POSITIVE_INFINITY;
+            }
+        }
+        return output;
+    }
+
+    static double score(double downLoss, double upLoss) {
+        return max(downLoss, MIN_LOSS) * max(upLoss, MIN_LOSS);
+    }
+}
@@ -0,0 +1,13 @@
+package vntu.edu.cutting_planes;
+
+/** Inequality {@code coefficients·x <= rhs} over the structural variables. */
+public record Cut(double[] coefficients, double rhs) {
+
+    /** How far {@code plan} lies beyond the cut, positive when it is violated. */
+    public double violation(double[] plan) {
+        double activity = 0;
+        for (int j = 0; j < coefficients.length; j++)
+            activity += coefficients[j] * plan[j];
+        return activity - rhs;
+    }
+}
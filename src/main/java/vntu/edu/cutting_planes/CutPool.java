@@ -0,0 +1,65 @@
+package vntu.edu.cutting_planes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Globally valid cuts kept for the LPs of the whole search. A cut gets young again whenever it is
+ * returned by {@link #violated}; every {@link #age()} makes all cuts older and forgets those that
+ * were not used for more than {@code maxAge} rounds. Safe to use from several threads.
+ */
+public final class CutPool {
+    private static final double TOLERANCE = 1e-6;
+
+    private final int maxAge;
+    private final List<Entry> entries = new ArrayList<>();
+
+    public CutPool(int maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    /** Adds the cuts that are not in the pool yet. */
+    public synchronized void addAll(List<Cut> cuts) {
+        for (Cut cut : cuts)
+            if (entries.stream().noneMatch(entry -> isSame(entry.cut, cut)))
+                entries.add(new Entry(cut));
+    }
+
+    /** The cuts that {@code plan} violates, the most violated first. */
+    public synchronized List<Cut> violated(double[] plan) {
+        List<Entry> output = new ArrayList<>();
+        for (Entry entry : entries)
+            if (entry.cut.violation(plan) > TOLERANCE) {
+                entry.age = 0;
+                output.add(entry);
+            }
+        output.sort((a, b) -> Double.compare(b.cut.violation(plan), a.cut.violation(plan)));
+        return output.stream().map(entry -> entry.cut).toList();
+    }
+
+    public synchronized void age() {
+        entries.removeIf(entry -> ++entry.age > maxAge);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static boolean isSame(Cut a, Cut b) {
+        if (Math.abs(a.rhs() - b.rhs()) > TOLERANCE)
+            return false;
+        for (int j = 0; j < a.coefficients().length; j++)
+            if (Math.abs(a.coefficients()[j] - b.coefficients()[j]) > TOLERANCE)
+                return false;
+        return true;
+    }
+
+    private static final class Entry {
+        private final Cut cut;
+        private int age;
+
+        private Entry(Cut cut) {
+            this.cut = cut;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package vntu.edu.cutting_planes;
+
+import vntu.edu.simplex_methods.BaseSimplex;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.floor;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Gomory mixed-integer cuts read off the rows of an optimal basis.
+ * <p>
+ * A row whose basic variable is structural and fractional is written over the distances
+ * {@code t_j >= 0} of the non-basic variables from the bounds they sit on,
+ * {@code x_B + Σ a_j·t_j = β}. With {@code f0} the fraction of {@code β}, an integer {@code t_j}
+ * gets {@code min(f_j / f0, (1 - f_j) / (1 - f0))} by the fraction {@code f_j} of {@code a_j}, and
+ * a slack, taken as continuous, gets {@code a_j / f0} or {@code -a_j / (1 - f0)}; then
+ * {@code Σ g_j·t_j >= 1} cuts the current plan off. The cut is mapped back to the structural
+ * variables with every slack replaced by its row. It relies on the bounds of the LP, so a cut
+ * found under branching bounds is valid only below that node.
+ */
+public final class GomoryCuts {
+    private static final double MIN_FRACTION = 0.01;
+    private static final double MAX_DYNAMISM = 1e6;
+    private static final double MIN_VIOLATION = 1e-6;
+    private static final double EPSILON = 1e-12;
+
+    private GomoryCuts() {
+    }
+
+    /** At most {@code maxCuts} cuts from the rows whose basic value is closest to half-integral. */
+    public static List<Cut> separate(BaseSimplex lp, int maxCuts) {
+        int structural = lp.getStructural();
+        double[] values = lp.getFreeVars();
+        double[] lower = lp.getLower();
+        double[] upper = lp.getUpper();
+        double[] plan = new double[structural];
+        for (int j = 0; j < structural; j++)
+            plan[j] = lp.isAtUpper(j) ? upper[j] : lower[j];
+        List<Integer> rows = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            int var = lp.getBasicVar(i);
+            if (var >= structural)
+                continue;
+            plan[var] = values[i];
+            if (fraction(values[i]) >= MIN_FRACTION && fraction(values[i]) <= 1 - MIN_FRACTION)
+                rows.add(i);
+        }
+        rows.sort(Comparator.comparingDouble(i -> abs(fraction(values[i]) - 0.5)));
+
+        List<Cut> cuts = new ArrayList<>();
+        for (int i : rows) {
+            if (cuts.size() == maxCuts)
+                break;
+            Cut cut = derive(lp, i, fraction(values[i]));
+            if (cut != null && cut.violation(plan) > MIN_VIOLATION)
+                cuts.add(cut);
+        }
+        return cuts;
+    }
+
+    /** The cut of one row as {@code -π·x <= -π0} from {@code π·x >= π0}, or {@code null} if it is numerically unsafe. */
+    private static Cut derive(BaseSimplex lp, int row, double f0) {
+        int structural = lp.getStructural();
+        double[] alpha = lp.getRow(row);
+        double[] lower = lp.getLower();
+        double[] upper = lp.getUpper();
+        double[] pi = new double[structural];
+        double pi0 = 1;
+        for (int j = 0; j < alpha.length; j++) {
+            if (j == lp.getBasicVar(row) || abs(alpha[j]) < EPSILON)
+                continue;
+            boolean atUpper = lp.isAtUpper(j);
+            double a = atUpper ? -alpha[j] : alpha[j];
+            double g;
+            if (j < structural) {
+                double fj = fraction(a);
+                g = fj <= f0 ? fj / f0 : (1 - fj) / (1 - f0);
+            } else {
+                g = a >= 0 ? a / f0 : -a / (1 - f0);
+            }
+            if (g < EPSILON)
+                continue;
+
+            // t_j = x_j - lower_j, or upper_j - x_j
+            double c = atUpper ? -g : g;
+            pi0 += c * (atUpper ? upper[j] : lower[j]);
+            if (j < structural) {
+                pi[j] += c;
+            } else {
+                // the slack is b - a·x
+                double[] constraint = lp.getConstraintRow(j - structural);
+                pi0 -= c * lp.getConstraintRhs(j - structural);
+                for (int k = 0; k < structural; k++)
+                    pi[k] -= c * constraint[k];
+            }
+        }
+
+        double largest = 0;
+        double smallest = Double.POSITIVE_INFINITY;
+        for (int k = 0; k < structural; k++) {
+            if (abs(pi[k]) < EPSILON) {
+                pi[k] = 0;
+                continue;
+            }
+            largest = max(largest, abs(pi[k]));
+            smallest = min(smallest, abs(pi[k]));
+            pi[k] = -pi[k];
+        }
+        if (largest == 0 || largest > MAX_DYNAMISM * smallest)
+            return null;
+        return new Cut(pi, -pi0);
+    }
+
+    private static double fraction(double value) {
+        return value - floor(value);
+    }
+}
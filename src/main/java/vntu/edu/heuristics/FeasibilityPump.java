@@ -0,0 +1,100 @@
+package vntu.edu.heuristics;
+
+import vntu.edu.Solution;
+import vntu.edu.simplex_methods.BaseSimplex;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.max;
+import static java.lang.Math.rint;
+
+/**
+ * Feasibility pump: alternates between rounding the LP plan and the LP plan closest to that
+ * rounding. The distance objective pulls every variable towards its rounded value, so no auxiliary
+ * variables are needed; a variable rounded up that has no upper bound is capped at its rounding
+ * for the projection, which keeps the LP bounded. The LPs are warm started from the basis of the
+ * node. When a rounding repeats one seen before, a random number of the variables farthest from
+ * their rounded values are rounded the other way to leave the cycle.
+ */
+public final class FeasibilityPump implements PrimalHeuristic, Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Random random;
+    private final int maxIterations;
+
+    public FeasibilityPump(long seed, int maxIterations) {
+        this.random = new Random(seed);
+        this.maxIterations = maxIterations;
+    }
+
+    public FeasibilityPump() {
+        this(0, 20);
+    }
+
+    @Override
+    public double[] find(BaseSimplex lp, Solution solution) {
+        double[] relaxed = Plans.structural(lp, solution.optimalPlan());
+        List<double[]> seen = new ArrayList<>();
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            double[] next = new double[relaxed.length];
+            for (int j = 0; j < next.length; j++)
+                next[j] = rint(relaxed[j]);
+            if (seen.stream().anyMatch(rounded -> Arrays.equals(rounded, next)))
+                perturb(next, relaxed);
+            if (Plans.isFeasible(lp, next))
+                return next;
+            seen.add(next);
+
+            try {
+                relaxed = Plans.structural(lp, project(lp, next, relaxed).reoptimize().optimalPlan());
+            } catch (IllegalArgumentException failed) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /** The LP that minimizes the distance of its plan to {@code rounded}, maximizing in its own sense. */
+    private static BaseSimplex project(BaseSimplex lp, double[] rounded, double[] relaxed) {
+        BaseSimplex projection = lp;
+        double[] distance = new double[rounded.length];
+        double[] lower = lp.getLower();
+        double[] upper = lp.getUpper();
+        for (int j = 0; j < rounded.length; j++) {
+            if (rounded[j] <= lower[j])
+                distance[j] = -1;
+            else if (rounded[j] >= upper[j])
+                distance[j] = 1;
+            else
+                distance[j] = Math.signum(rounded[j] - relaxed[j]);
+            if (distance[j] > 0 && upper[j] == Double.POSITIVE_INFINITY)
+                projection = projection.withBound(j, rounded[j], true);
+        }
+        if (projection != lp)
+            projection.reoptimize();
+        return projection.withObjective(distance);
+    }
+
+    private void perturb(double[] rounded, double[] relaxed) {
+        int flips = 1 + random.nextInt(max(1, rounded.length / 4));
+        int[] farthest = IntStream.range(0, rounded.length)
+                .boxed()
+                .sorted(Comparator.comparingDouble(j -> -abs(relaxed[j] - rounded[j])))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        for (int k = 0; k < flips && k < farthest.length; k++) {
+            int j = farthest[k];
+            if (relaxed[j] != rounded[j])
+                rounded[j] += relaxed[j] > rounded[j] ? 1 : -1;
+        }
+    }
+}
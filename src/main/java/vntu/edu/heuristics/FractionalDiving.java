@@ -0,0 +1,73 @@
+package vntu.edu.heuristics;
+
+import vntu.edu.Solution;
+import vntu.edu.simplex_methods.BaseSimplex;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+import static java.lang.Math.ceil;
+import static java.lang.Math.floor;
+
+/**
+ * Dives from the node towards a leaf: the variable closest to an integer is bounded to it and the
+ * LP re-optimized with dual pivots, until the plan is integral. When a bound makes the LP
+ * infeasible the other rounding is tried once; after that, or after {@code maxDepth} bounds, the
+ * dive gives up.
+ */
+public final class FractionalDiving implements PrimalHeuristic, Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int maxDepth;
+
+    public FractionalDiving(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    public FractionalDiving() {
+        this(64);
+    }
+
+    @Override
+    public double[] find(BaseSimplex lp, Solution solution) {
+        BaseSimplex current = lp;
+        double[] plan = Plans.structural(lp, solution.optimalPlan());
+        for (int depth = 0; depth < maxDepth; depth++) {
+            int idx = -1;
+            double closest = Double.MAX_VALUE;
+            for (int j = 0; j < plan.length; j++) {
+                double fraction = Plans.fraction(plan[j]);
+                double distance = Math.min(fraction, 1 - fraction);
+                if (!Plans.isIntegral(plan[j]) && distance < closest) {
+                    closest = distance;
+                    idx = j;
+                }
+            }
+            if (idx == -1)
+                return plan;
+
+            boolean down = Plans.fraction(plan[idx]) < 0.5;
+            Dive next = dive(current, idx, plan[idx], down);
+            if (next == null)
+                next = dive(current, idx, plan[idx], !down);
+            if (next == null)
+                return null;
+            current = next.lp();
+            plan = Plans.structural(current, next.solution().optimalPlan());
+        }
+        return null;
+    }
+
+    private static Dive dive(BaseSimplex lp, int idx, double value, boolean down) {
+        try {
+            BaseSimplex child = lp.withBound(idx, down ? floor(value) : ceil(value), down);
+            return new Dive(child, child.reoptimize());
+        } catch (IllegalArgumentException infeasible) {
+            return null;
+        }
+    }
+
+    private record Dive(BaseSimplex lp, Solution solution) {
+    }
+}
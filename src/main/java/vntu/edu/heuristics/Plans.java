@@ -0,0 +1,58 @@
+package vntu.edu.heuristics;
+
+import vntu.edu.simplex_methods.BaseSimplex;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.floor;
+import static java.lang.Math.rint;
+
+/** Checks shared by the heuristics. */
+final class Plans {
+    static final double INTEGRALITY_TOLERANCE = 1e-6;
+    private static final double FEASIBILITY_TOLERANCE = 1e-9;
+
+    private Plans() {
+    }
+
+    static boolean isIntegral(double value) {
+        return abs(value - rint(value)) <= INTEGRALITY_TOLERANCE;
+    }
+
+    static double fraction(double value) {
+        return value - floor(value);
+    }
+
+    /** The structural part of the plan, with the values that are integral within tolerance rounded. */
+    static double[] structural(BaseSimplex lp, double[] plan) {
+        double[] output = new double[lp.getStructural()];
+        for (int j = 0; j < output.length; j++)
+            output[j] = isIntegral(plan[j]) ? rint(plan[j]) : plan[j];
+        return output;
+    }
+
+    static boolean isIntegral(double[] plan) {
+        for (double value : plan)
+            if (!isIntegral(value))
+                return false;
+        return true;
+    }
+
+    /** Whether {@code plan} keeps the bounds and all the rows of the LP. */
+    static boolean isFeasible(BaseSimplex lp, double[] plan) {
+        double[] lower = lp.getLower();
+        double[] upper = lp.getUpper();
+        for (int j = 0; j < plan.length; j++)
+            if (plan[j] < lower[j] - FEASIBILITY_TOLERANCE || plan[j] > upper[j] + FEASIBILITY_TOLERANCE)
+                return false;
+        int rows = lp.getFreeVars().length;
+        for (int i = 0; i < rows; i++) {
+            double[] row = lp.getConstraintRow(i);
+            double activity = 0;
+            for (int j = 0; j < plan.length; j++)
+                activity += row[j] * plan[j];
+            if (activity > lp.getConstraintRhs(i) + FEASIBILITY_TOLERANCE)
+                return false;
+        }
+        return true;
+    }
+}
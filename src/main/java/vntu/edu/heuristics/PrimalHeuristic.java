@@ -0,0 +1,20 @@
+package vntu.edu.heuristics;
+
+import vntu.edu.Solution;
+import vntu.edu.simplex_methods.BaseSimplex;
+
+/**
+ * Looks for an integer plan near the LP optimum of a node, so that the search gets an incumbent
+ * before an LP happens to be integral. The solver checks the plan against the model before it
+ * takes it. With a {@link vntu.edu.SolverSettings#getPool() pool} it is called from several threads.
+ * A {@link vntu.edu.Coordinator} sends a copy of the heuristic to its workers, so it has to be
+ * {@link java.io.Serializable}, as the heuristics of this package are.
+ */
+public interface PrimalHeuristic {
+    /**
+     * @param lp       the solved LP of the node; it is not changed
+     * @param solution its optimal solution
+     * @return integer values of the structural variables, or {@code null} when nothing was found
+     */
+    double[] find(BaseSimplex lp, Solution solution);
+}
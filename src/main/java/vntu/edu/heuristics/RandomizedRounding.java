@@ -0,0 +1,47 @@
+package vntu.edu.heuristics;
+
+import vntu.edu.Solution;
+import vntu.edu.simplex_methods.BaseSimplex;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Random;
+
+import static java.lang.Math.ceil;
+import static java.lang.Math.floor;
+
+/**
+ * Rounds every fractional variable up with the probability of its fraction, so that values near
+ * an integer usually go to it; up to {@code attempts} roundings are tried.
+ */
+public final class RandomizedRounding implements PrimalHeuristic, Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Random random;
+    private final int attempts;
+
+    public RandomizedRounding(long seed, int attempts) {
+        this.random = new Random(seed);
+        this.attempts = attempts;
+    }
+
+    public RandomizedRounding() {
+        this(0, 10);
+    }
+
+    @Override
+    public double[] find(BaseSimplex lp, Solution solution) {
+        double[] relaxed = Plans.structural(lp, solution.optimalPlan());
+        double[] plan = new double[relaxed.length];
+        for (int attempt = 0; attempt < attempts; attempt++) {
+            for (int j = 0; j < plan.length; j++)
+                plan[j] = Plans.isIntegral(relaxed[j]) || random.nextDouble() >= Plans.fraction(relaxed[j])
+                        ? floor(relaxed[j] + Plans.INTEGRALITY_TOLERANCE)
+                        : ceil(relaxed[j]);
+            if (Plans.isFeasible(lp, plan))
+                return plan;
+        }
+        return null;
+    }
+}
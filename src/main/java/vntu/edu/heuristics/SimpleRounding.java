@@ -0,0 +1,48 @@
+package vntu.edu.heuristics;
+
+import vntu.edu.Solution;
+import vntu.edu.simplex_methods.BaseSimplex;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+import static java.lang.Math.ceil;
+import static java.lang.Math.floor;
+
+/**
+ * Rounds every fractional variable in a direction that cannot violate a row: down when it has no
+ * negative coefficient in the {@code <=} rows, up when it has no positive one. Fails when some
+ * variable is locked both ways.
+ */
+public final class SimpleRounding implements PrimalHeuristic, Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public double[] find(BaseSimplex lp, Solution solution) {
+        double[] plan = Plans.structural(lp, solution.optimalPlan());
+        boolean[] downLocked = new boolean[plan.length];
+        boolean[] upLocked = new boolean[plan.length];
+        int rows = lp.getFreeVars().length;
+        for (int i = 0; i < rows; i++) {
+            double[] row = lp.getConstraintRow(i);
+            for (int j = 0; j < plan.length; j++) {
+                if (row[j] > 0)
+                    upLocked[j] = true;
+                else if (row[j] < 0)
+                    downLocked[j] = true;
+            }
+        }
+        for (int j = 0; j < plan.length; j++) {
+            if (Plans.isIntegral(plan[j]))
+                continue;
+            if (!downLocked[j])
+                plan[j] = floor(plan[j]);
+            else if (!upLocked[j])
+                plan[j] = ceil(plan[j]);
+            else
+                return null;
+        }
+        return Plans.isFeasible(lp, plan) ? plan : null;
+    }
+}
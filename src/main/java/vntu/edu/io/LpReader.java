@@ -0,0 +1,368 @@
+package vntu.edu.io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Reads a file in the CPLEX LP format through {@link MappedInput}, tokenizing the mapped bytes in
+ * place: terms go into the matrix as they are read and names are interned as bytes.
+ * <p>
+ * Supported sections are the objective ({@code maximize}/{@code minimize}), the constraints
+ * ({@code subject to}), {@code bounds}, {@code general} and {@code binary}, up to {@code end}.
+ * Every variable is an integer; constraints take linear terms only, and bounds must keep the
+ * variables non-negative, so {@code free} and negative lower bounds are rejected.
+ */
+public final class LpReader {
+    private static final int END = 0;
+    private static final int NUMBER = 1;
+    private static final int NAME = 2;
+    private static final int PLUS = 3;
+    private static final int MINUS = 4;
+    private static final int LESS = 5;
+    private static final int GREATER = 6;
+    private static final int EQUAL = 7;
+    private static final int COLON = 8;
+    private static final int MAX_BOUND_TOKENS = 5;
+
+    private enum Section {NONE, OBJECTIVE, CONSTRAINTS, BOUNDS, GENERALS, BINARIES, END}
+
+    private final MappedInput input;
+    private final ProblemBuilder problem = new ProblemBuilder();
+    private int cursor;
+    private int kind;
+    private int tokenStart;
+    private int tokenEnd;
+    private double number;
+
+    private boolean started;
+    private int row = -1;
+    private double sign = 1;
+    private double coefficient = Double.NaN;
+    private double constant;
+    private int relation;
+    private double rhsSign = 1;
+
+    private final int[] boundKinds = new int[MAX_BOUND_TOKENS];
+    private final double[] boundValues = new double[MAX_BOUND_TOKENS];
+    private final int[] boundStarts = new int[MAX_BOUND_TOKENS];
+    private final int[] boundEnds = new int[MAX_BOUND_TOKENS];
+
+    private LpReader(MappedInput input) {
+        this.input = input;
+    }
+
+    public static Problem read(Path path) throws IOException {
+        try (MappedInput input = new MappedInput(path)) {
+            return new LpReader(input).parse();
+        }
+    }
+
+    private Problem parse() throws IOException {
+        Section section = Section.NONE;
+        while (input.nextLine()) {
+            cursor = input.lineStart;
+            next();
+            Section keyword = kind == NAME ? keyword() : null;
+            if (keyword != null) {
+                endStatement(section);
+                section = keyword;
+                if (section == Section.END)
+                    break;
+            }
+            switch (section) {
+                case OBJECTIVE -> expression(false);
+                case CONSTRAINTS -> expression(true);
+                case BOUNDS -> bound();
+                case GENERALS -> integers(false);
+                case BINARIES -> integers(true);
+                default -> {
+                    if (kind != END)
+                        throw input.error("expected maximize or minimize");
+                }
+            }
+        }
+        endStatement(section);
+        return problem.build();
+    }
+
+    /** Consumes a section keyword at the start of a line, or returns {@code null}. */
+    private Section keyword() throws IOException {
+        Section section = null;
+        if (isWord("maximize") || isWord("maximise") || isWord("maximum") || isWord("max")) {
+            problem.setMax(true);
+            section = Section.OBJECTIVE;
+        } else if (isWord("minimize") || isWord("minimise") || isWord("minimum") || isWord("min")) {
+            section = Section.OBJECTIVE;
+        } else if (isWord("st") || isWord("s.t.") || isWord("st.")) {
+            section = Section.CONSTRAINTS;
+        } else if (isWord("subject") || isWord("such")) {
+            int start = tokenStart;
+            next();
+            if (kind != NAME || !isWord("to") && !isWord("that"))
+                throw input.error("unknown keyword " + input.text(start, tokenEnd));
+            section = Section.CONSTRAINTS;
+        } else if (isWord("bounds") || isWord("bound")) {
+            section = Section.BOUNDS;
+        } else if (isWord("general") || isWord("generals") || isWord("gen")
+                || isWord("integer") || isWord("integers")) {
+            section = Section.GENERALS;
+        } else if (isWord("binary") || isWord("binaries") || isWord("bin")) {
+            section = Section.BINARIES;
+        } else if (isWord("end")) {
+            section = Section.END;
+        } else if (isWord("semi-continuous") || isWord("semis") || isWord("semi") || isWord("sos")) {
+            throw input.error("section " + input.text(tokenStart, tokenEnd) + " is not supported");
+        }
+        if (section != null)
+            next();
+        return section;
+    }
+
+    /** Objective or constraint terms; a constraint ends with its right-hand side. */
+    private void expression(boolean constraint) throws IOException {
+        for (; kind != END; next()) {
+            switch (kind) {
+                case NAME -> {
+                    if (!started && isLabel()) {
+                        started = true;
+                        continue;
+                    }
+                    if (relation != 0)
+                        throw input.error("variables must be on the left-hand side");
+                    double value = sign * (Double.isNaN(coefficient) ? 1 : coefficient);
+                    int column = problem.column(input, tokenStart, tokenEnd);
+                    if (!constraint) {
+                        problem.addObjective(column, value);
+                    } else {
+                        if (row == -1)
+                            row = problem.addRow(false, 0);
+                        problem.add(row, column, value);
+                    }
+                    started = true;
+                    sign = 1;
+                    coefficient = Double.NaN;
+                }
+                case NUMBER -> {
+                    started = true;
+                    if (relation != 0) {
+                        finishConstraint(rhsSign * number - constant);
+                    } else if (Double.isNaN(coefficient)) {
+                        coefficient = number;
+                    } else {
+                        throw input.error("two numbers in a row");
+                    }
+                }
+                case PLUS, MINUS -> {
+                    started = true;
+                    if (relation != 0) {
+                        if (kind == MINUS)
+                            rhsSign = -rhsSign;
+                    } else {
+                        pendingConstant();
+                        if (kind == MINUS)
+                            sign = -sign;
+                    }
+                }
+                case LESS, GREATER, EQUAL -> {
+                    if (!constraint || relation != 0)
+                        throw input.error("unexpected relation");
+                    pendingConstant();
+                    relation = kind;
+                }
+                default -> throw input.error("unexpected '" + input.text(tokenStart, tokenEnd) + "'");
+            }
+        }
+    }
+
+    /** A number that no variable follows is a constant: dropped from the objective, moved to the right-hand side. */
+    private void pendingConstant() {
+        if (!Double.isNaN(coefficient))
+            constant += sign * coefficient;
+        sign = 1;
+        coefficient = Double.NaN;
+    }
+
+    private void finishConstraint(double rhs) {
+        if (row == -1)
+            row = problem.addRow(false, 0);
+        problem.setRow(row, relation == GREATER, rhs);
+        if (relation == EQUAL)
+            problem.addTwin(row, true, rhs);
+        resetStatement();
+    }
+
+    private void endStatement(Section section) throws IOException {
+        if (section == Section.CONSTRAINTS && started)
+            throw input.error("the constraint has no right-hand side");
+        resetStatement();
+    }
+
+    private void resetStatement() {
+        started = false;
+        row = -1;
+        sign = 1;
+        coefficient = Double.NaN;
+        constant = 0;
+        relation = 0;
+        rhsSign = 1;
+    }
+
+    /** One bound per line: {@code x <= u}, {@code l <= x}, {@code l <= x <= u}, {@code x = v} or {@code x free}. */
+    private void bound() throws IOException {
+        int count = 0;
+        for (; kind != END; next(), count++) {
+            if (count == MAX_BOUND_TOKENS)
+                throw input.error("malformed bound");
+            boundStarts[count] = tokenStart;
+            if (kind == PLUS || kind == MINUS) {
+                double boundSign = kind == MINUS ? -1 : 1;
+                next();
+                if (kind == NAME && isInfinity())
+                    number = ProblemBuilder.INFINITY;
+                else if (kind != NUMBER)
+                    throw input.error("expected a number");
+                boundKinds[count] = NUMBER;
+                boundValues[count] = boundSign * number;
+            } else if (kind == NAME && isInfinity()) {
+                boundKinds[count] = NUMBER;
+                boundValues[count] = ProblemBuilder.INFINITY;
+            } else {
+                boundKinds[count] = kind;
+                boundValues[count] = number;
+            }
+            boundEnds[count] = tokenEnd;
+        }
+
+        if (count == 0)
+            return;
+        if (count == 2 && boundKinds[0] == NAME && boundKinds[1] == NAME
+                && input.is(boundStarts[1], boundEnds[1], "free")) {
+            problem.lowerBound(input, column(0), -ProblemBuilder.INFINITY);
+        } else if (count == 3 && boundKinds[0] == NAME && isRelation(1) && boundKinds[2] == NUMBER) {
+            applyBound(column(0), boundKinds[1], boundValues[2]);
+        } else if ((count == 3 || count == 5) && boundKinds[0] == NUMBER && isRelation(1) && boundKinds[2] == NAME) {
+            int column = column(2);
+            applyBound(column, flip(boundKinds[1]), boundValues[0]);
+            if (count == 5) {
+                if (!isRelation(3) || boundKinds[4] != NUMBER)
+                    throw input.error("malformed bound");
+                applyBound(column, boundKinds[3], boundValues[4]);
+            }
+        } else {
+            throw input.error("malformed bound");
+        }
+    }
+
+    private void applyBound(int column, int relation, double value) throws IOException {
+        if (relation != GREATER) {
+            if (value < 0)
+                throw input.error("negative upper bounds are not supported, every variable is non-negative");
+            problem.upperBound(column, value);
+        }
+        if (relation != LESS)
+            problem.lowerBound(input, column, value);
+    }
+
+    private void integers(boolean binary) throws IOException {
+        for (; kind != END; next()) {
+            if (kind != NAME)
+                throw input.error("expected a variable name");
+            int column = problem.column(input, tokenStart, tokenEnd);
+            if (binary)
+                problem.upperBound(column, 1);
+        }
+    }
+
+    private int column(int token) {
+        return problem.column(input, boundStarts[token], boundEnds[token]);
+    }
+
+    private boolean isRelation(int token) {
+        return boundKinds[token] == LESS || boundKinds[token] == GREATER || boundKinds[token] == EQUAL;
+    }
+
+    private static int flip(int relation) {
+        return relation == LESS ? GREATER : relation == GREATER ? LESS : relation;
+    }
+
+    private boolean isWord(String word) {
+        return input.is(tokenStart, tokenEnd, word);
+    }
+
+    private boolean isInfinity() {
+        return isWord("inf") || isWord("infinity");
+    }
+
+    /** Whether the name just read is followed by a colon, which is then consumed. */
+    private boolean isLabel() throws IOException {
+        int k = cursor;
+        while (k < input.lineEnd && MappedInput.isSpace(input.at(k)))
+            k++;
+        if (k == input.lineEnd || input.at(k) != ':')
+            return false;
+        next();
+        return true;
+    }
+
+    private void next() throws IOException {
+        int end = input.lineEnd;
+        while (cursor < end && MappedInput.isSpace(input.at(cursor)))
+            cursor++;
+        tokenStart = cursor;
+        if (cursor == end || input.at(cursor) == '\\') {
+            kind = END;
+            cursor = end;
+            tokenEnd = end;
+            return;
+        }
+        byte b = input.at(cursor);
+        if (MappedInput.isDigit(b) || b == '.' && cursor + 1 < end && MappedInput.isDigit(input.at(cursor + 1))) {
+            while (cursor < end && (MappedInput.isDigit(input.at(cursor)) || input.at(cursor) == '.'))
+                cursor++;
+            if (cursor < end && (input.at(cursor) == 'e' || input.at(cursor) == 'E')) {
+                int k = cursor + 1;
+                if (k < end && (input.at(k) == '+' || input.at(k) == '-'))
+                    k++;
+                if (k < end && MappedInput.isDigit(input.at(k)))
+                    for (cursor = k; cursor < end && MappedInput.isDigit(input.at(cursor)); )
+                        cursor++;
+            }
+            tokenEnd = cursor;
+            kind = NUMBER;
+            number = input.number(tokenStart, tokenEnd);
+            return;
+        }
+        cursor++;
+        switch (b) {
+            case '+' -> kind = PLUS;
+            case '-' -> kind = MINUS;
+            case ':' -> kind = COLON;
+            case '<' -> kind = operator(LESS, '=');
+            case '>' -> kind = operator(GREATER, '=');
+            case '=' -> kind = cursor < end && input.at(cursor) == '<' ? operator(LESS, '<')
+                    : cursor < end && input.at(cursor) == '>' ? operator(GREATER, '>') : operator(EQUAL, '=');
+            default -> {
+                if (!isNameByte(b))
+                    throw input.error("unexpected '" + (char) b + "'");
+                while (cursor < end && isNameByte(input.at(cursor)))
+                    cursor++;
+                kind = NAME;
+            }
+        }
+        tokenEnd = cursor;
+    }
+
+    /** Skips the optional second byte of an operator such as {@code <=}. */
+    private int operator(int kind, char second) {
+        if (cursor < input.lineEnd && input.at(cursor) == second)
+            cursor++;
+        return kind;
+    }
+
+    private static boolean isNameByte(byte b) {
+        return switch (b) {
+            case '+', '-', '<', '>', '=', ':', '\\', '[', ']', '*', '^' -> false;
+            default -> b > ' ';
+        };
+    }
+}
@@ -0,0 +1,175 @@
+package vntu.edu.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file line by line through memory-mapped windows of at most {@value #WINDOW} bytes. A
+ * window is remapped from the start of the line that crosses its end, so every line lies in one
+ * buffer and is handed out as the offsets {@link #lineStart}..{@link #lineEnd}; nothing is copied.
+ */
+final class MappedInput implements Closeable {
+    private static final int WINDOW = 1 << 30;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final FileChannel channel;
+    private final long size;
+    private MappedByteBuffer buffer;
+    private long base;
+    private int position;
+
+    int lineStart;
+    int lineEnd;
+    long lineNumber;
+
+    MappedInput(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        size = channel.size();
+        map(0);
+    }
+
+    private void map(long offset) throws IOException {
+        base = offset;
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(WINDOW, size - offset));
+        position = 0;
+    }
+
+    /** Moves to the next line without its line terminator; {@code false} at the end of the file. */
+    boolean nextLine() throws IOException {
+        while (true) {
+            int limit = buffer.limit();
+            boolean last = base + limit >= size;
+            if (position >= limit) {
+                if (last)
+                    return false;
+                map(base + position);
+                continue;
+            }
+            int end = position;
+            while (end < limit && buffer.get(end) != '\n')
+                end++;
+            if (end == limit && !last) {
+                if (position == 0)
+                    throw error("the line is longer than " + WINDOW + " bytes");
+                map(base + position);
+                continue;
+            }
+            lineStart = position;
+            lineEnd = end > position && buffer.get(end - 1) == '\r' ? end - 1 : end;
+            position = end + 1;
+            lineNumber++;
+            return true;
+        }
+    }
+
+    byte at(int index) {
+        return buffer.get(index);
+    }
+
+    static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\f' || b == '\r';
+    }
+
+    static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /** Compares the bytes with an ASCII word, ignoring case. */
+    boolean is(int from, int to, String word) {
+        if (to - from != word.length())
+            return false;
+        for (int k = 0; k < word.length(); k++) {
+            int b = at(from + k);
+            if (b >= 'A' && b <= 'Z')
+                b += 'a' - 'A';
+            int c = word.charAt(k);
+            if (c >= 'A' && c <= 'Z')
+                c += 'a' - 'A';
+            if (b != c)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parses a decimal number in place. Up to 15 significant digits and a decimal exponent within
+     * ±22 both the mantissa and the power of ten are exact doubles, so one multiplication or
+     * division gives the correctly rounded value; longer numbers fall back to
+     * {@link Double#parseDouble}.
+     */
+    double number(int from, int to) throws IOException {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (at(i) == '+' || at(i) == '-'))
+            negative = at(i++) == '-';
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean any = false;
+        for (; i < to && isDigit(at(i)); i++) {
+            any = true;
+            if (digits < 18) {
+                mantissa = mantissa * 10 + at(i) - '0';
+                if (mantissa != 0)
+                    digits++;
+            } else {
+                exponent++;
+            }
+        }
+        if (i < to && at(i) == '.')
+            for (i++; i < to && isDigit(at(i)); i++) {
+                any = true;
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + at(i) - '0';
+                    if (mantissa != 0)
+                        digits++;
+                    exponent--;
+                }
+            }
+        if (any && i < to && (at(i) == 'e' || at(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < to && (at(i) == '+' || at(i) == '-'))
+                negativeExponent = at(i++) == '-';
+            if (i == to)
+                any = false;
+            int value = 0;
+            for (; i < to && isDigit(at(i)); i++)
+                value = Math.min(value * 10 + at(i) - '0', 100_000);
+            exponent += negativeExponent ? -value : value;
+        }
+        if (!any || i != to)
+            throw error("'" + text(from, to) + "' is not a number");
+
+        double value;
+        if (digits <= 15 && Math.abs(exponent) <= 22)
+            value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        else
+            value = Math.abs(Double.parseDouble(text(from, to)));
+        return negative ? -value : value;
+    }
+
+    String text(int from, int to) {
+        byte[] bytes = new byte[to - from];
+        for (int k = 0; k < bytes.length; k++)
+            bytes[k] = at(from + k);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    IOException error(String message) {
+        return new IOException("Line " + lineNumber + ": " + message);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
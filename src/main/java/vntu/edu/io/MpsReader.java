@@ -0,0 +1,258 @@
+package vntu.edu.io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Reads an MPS file, free or fixed format, through {@link MappedInput}: fields are parsed where
+ * they lie in the mapped file and names are interned as bytes, so the reader allocates no
+ * object per line and the matrix is the only copy of the model on the heap.
+ * <p>
+ * Supported sections are {@code NAME}, {@code OBJSENSE}, {@code ROWS}, {@code COLUMNS},
+ * {@code RHS}, {@code RANGES}, {@code BOUNDS} and {@code ENDATA}. Every variable is an integer,
+ * so integer markers are skipped; the objective constant and free rows other than the first are
+ * ignored. Bounds must keep the variables non-negative: {@code MI}, {@code FR} and negative
+ * lower bounds are rejected.
+ */
+public final class MpsReader {
+    private static final int MAX_FIELDS = 6;
+    private static final int[] FIXED_FROM = {1, 4, 14, 24, 39, 49};
+    private static final int[] FIXED_TO = {3, 12, 22, 36, 47, 61};
+
+    private enum Section {NONE, OBJSENSE, ROWS, COLUMNS, RHS, RANGES, BOUNDS}
+
+    private final MappedInput input;
+    private final boolean fixed;
+    private final ProblemBuilder problem = new ProblemBuilder();
+    private final NameTable rowNames = new NameTable();
+    private byte[] rowTypes = new byte[64];
+    private int[] physical = new int[64];
+    private double[] rowRhs = new double[64];
+    private double[] ranges = new double[64];
+    private int objectiveRow = -1;
+    private final int[] starts = new int[MAX_FIELDS];
+    private final int[] ends = new int[MAX_FIELDS];
+    private int fields;
+
+    private MpsReader(MappedInput input, boolean fixed) {
+        this.input = input;
+        this.fixed = fixed;
+    }
+
+    /** Reads a free-format file; names may not contain spaces. */
+    public static Problem read(Path path) throws IOException {
+        return read(path, false);
+    }
+
+    /** Reads a fixed-format file, where fields are found by their columns. */
+    public static Problem readFixed(Path path) throws IOException {
+        return read(path, true);
+    }
+
+    private static Problem read(Path path, boolean fixed) throws IOException {
+        try (MappedInput input = new MappedInput(path)) {
+            return new MpsReader(input, fixed).parse();
+        }
+    }
+
+    private Problem parse() throws IOException {
+        Section section = Section.NONE;
+        while (input.nextLine()) {
+            int start = input.lineStart;
+            if (start == input.lineEnd || input.at(start) == '*')
+                continue;
+            if (!MappedInput.isSpace(input.at(start))) {
+                splitFree();
+                if (input.is(starts[0], ends[0], "ENDATA"))
+                    break;
+                section = section(starts[0], ends[0]);
+                if (section == Section.OBJSENSE && fields > 1)
+                    objectiveSense(1);
+                continue;
+            }
+            if (fixed)
+                splitFixed();
+            else
+                splitFree();
+            if (fields == 0)
+                continue;
+            switch (section) {
+                case OBJSENSE -> objectiveSense(0);
+                case ROWS -> row();
+                case COLUMNS -> column();
+                case RHS -> values(rowRhs);
+                case RANGES -> values(ranges);
+                case BOUNDS -> bound();
+                default -> throw input.error("data outside of a section");
+            }
+        }
+        return finish();
+    }
+
+    private Section section(int from, int to) throws IOException {
+        if (input.is(from, to, "NAME"))
+            return Section.NONE;
+        for (Section section : Section.values())
+            if (input.is(from, to, section.name()))
+                return section;
+        throw input.error("section " + input.text(from, to) + " is not supported");
+    }
+
+    private void objectiveSense(int field) throws IOException {
+        if (input.is(starts[field], ends[field], "MAX") || input.is(starts[field], ends[field], "MAXIMIZE"))
+            problem.setMax(true);
+        else if (!input.is(starts[field], ends[field], "MIN") && !input.is(starts[field], ends[field], "MINIMIZE"))
+            throw input.error("unknown objective sense " + input.text(starts[field], ends[field]));
+    }
+
+    private void row() throws IOException {
+        if (fields != 2 || ends[0] - starts[0] != 1)
+            throw input.error("a row needs a type and a name");
+        int size = rowNames.size();
+        int id = rowNames.add(input, starts[1], ends[1]);
+        if (id < size)
+            throw input.error("row " + input.text(starts[1], ends[1]) + " is defined twice");
+        if (id == rowTypes.length) {
+            rowTypes = Arrays.copyOf(rowTypes, 2 * id);
+            physical = Arrays.copyOf(physical, 2 * id);
+            rowRhs = Arrays.copyOf(rowRhs, 2 * id);
+            ranges = Arrays.copyOf(ranges, 2 * id);
+        }
+        byte type = input.at(starts[0]);
+        if (type >= 'a')
+            type -= 'a' - 'A';
+        if (type != 'N' && type != 'L' && type != 'G' && type != 'E')
+            throw input.error("unknown row type " + (char) type);
+        rowTypes[id] = type;
+        ranges[id] = Double.NaN;
+        physical[id] = type == 'N' ? -1 : problem.addRow(false, 0);
+        if (type == 'N' && objectiveRow == -1)
+            objectiveRow = id;
+    }
+
+    private void column() throws IOException {
+        if (fields >= 3 && input.is(starts[1], ends[1], "'MARKER'"))
+            return;
+        if (fields != 3 && fields != 5)
+            throw input.error("a column needs one or two row and value pairs");
+        int column = problem.column(input, starts[0], ends[0]);
+        for (int field = 1; field < fields; field += 2) {
+            int row = row(field);
+            double value = input.number(starts[field + 1], ends[field + 1]);
+            if (row == objectiveRow)
+                problem.addObjective(column, value);
+            else if (physical[row] != -1)
+                problem.add(physical[row], column, value);
+        }
+    }
+
+    /** RHS and RANGES: an optional set name, then one or two row and value pairs. */
+    private void values(double[] target) throws IOException {
+        if (fields < 2 || fields > 5)
+            throw input.error("expected one or two row and value pairs");
+        for (int field = fields % 2; field < fields; field += 2) {
+            int row = row(field);
+            if (row != objectiveRow)
+                target[row] = input.number(starts[field + 1], ends[field + 1]);
+        }
+    }
+
+    private void bound() throws IOException {
+        int from = starts[0];
+        int to = ends[0];
+        boolean valued = input.is(from, to, "UP") || input.is(from, to, "LO") || input.is(from, to, "FX")
+                || input.is(from, to, "UI") || input.is(from, to, "LI");
+        int field = valued ? fields - 2 : Math.min(fields - 1, 2);
+        if (field < 1 || fields > 4)
+            throw input.error("malformed bound");
+        int column = problem.column(input, starts[field], ends[field]);
+        double value = valued ? input.number(starts[field + 1], ends[field + 1]) : 0;
+
+        if (input.is(from, to, "UP") || input.is(from, to, "UI")) {
+            if (value < 0)
+                throw input.error("negative upper bounds are not supported, every variable is non-negative");
+            problem.upperBound(column, value);
+        } else if (input.is(from, to, "LO") || input.is(from, to, "LI")) {
+            problem.lowerBound(input, column, value);
+        } else if (input.is(from, to, "FX")) {
+            problem.lowerBound(input, column, value);
+            problem.upperBound(column, value);
+        } else if (input.is(from, to, "BV")) {
+            problem.upperBound(column, 1);
+        } else if (input.is(from, to, "MI") || input.is(from, to, "FR")) {
+            problem.lowerBound(input, column, -ProblemBuilder.INFINITY);
+        } else if (!input.is(from, to, "PL")) {
+            throw input.error("unknown bound type " + input.text(from, to));
+        }
+    }
+
+    private int row(int field) throws IOException {
+        int row = rowNames.find(input, starts[field], ends[field]);
+        if (row == -1)
+            throw input.error("unknown row " + input.text(starts[field], ends[field]));
+        return row;
+    }
+
+    private Problem finish() {
+        for (int id = 0; id < rowNames.size(); id++) {
+            int row = physical[id];
+            double rhs = rowRhs[id];
+            double range = ranges[id];
+            switch (rowTypes[id]) {
+                case 'L' -> {
+                    problem.setRow(row, false, rhs);
+                    if (!Double.isNaN(range))
+                        problem.addTwin(row, true, rhs - Math.abs(range));
+                }
+                case 'G' -> {
+                    problem.setRow(row, true, rhs);
+                    if (!Double.isNaN(range))
+                        problem.addTwin(row, false, rhs + Math.abs(range));
+                }
+                case 'E' -> {
+                    problem.setRow(row, false, range > 0 ? rhs + range : rhs);
+                    problem.addTwin(row, true, range < 0 ? rhs + range : rhs);
+                }
+                default -> {
+                }
+            }
+        }
+        return problem.build();
+    }
+
+    private void splitFree() throws IOException {
+        fields = 0;
+        int k = input.lineStart;
+        int end = input.lineEnd;
+        while (true) {
+            while (k < end && MappedInput.isSpace(input.at(k)))
+                k++;
+            if (k == end)
+                return;
+            if (fields == MAX_FIELDS)
+                throw input.error("too many fields");
+            starts[fields] = k;
+            while (k < end && !MappedInput.isSpace(input.at(k)))
+                k++;
+            ends[fields++] = k;
+        }
+    }
+
+    private void splitFixed() {
+        fields = 0;
+        int length = input.lineEnd - input.lineStart;
+        for (int field = 0; field < MAX_FIELDS && FIXED_FROM[field] < length; field++) {
+            int from = input.lineStart + FIXED_FROM[field];
+            int to = input.lineStart + Math.min(FIXED_TO[field], length);
+            while (from < to && MappedInput.isSpace(input.at(from)))
+                from++;
+            while (to > from && MappedInput.isSpace(input.at(to - 1)))
+                to--;
+            if (from < to) {
+                starts[fields] = from;
+                ends[fields++] = to;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package vntu.edu.io;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Maps names to dense ids {@code 0, 1, ...}. The names are kept back to back in one byte arena
+ * and the hash table is open-addressed over ids, so looking a name up from the input allocates
+ * nothing; a {@link String} is only made when {@link #name(int)} asks for one.
+ */
+final class NameTable {
+    private byte[] arena = new byte[1024];
+    private int[] offsets = new int[17];
+    private int[] slots = new int[32];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    /** The id of the name in {@code input} at {@code from..to}, or {@code -1}. */
+    int find(MappedInput input, int from, int to) {
+        int mask = slots.length - 1;
+        for (int slot = hash(input, from, to) & mask; slots[slot] != 0; slot = (slot + 1) & mask)
+            if (matches(slots[slot] - 1, input, from, to))
+                return slots[slot] - 1;
+        return -1;
+    }
+
+    /** The id of the name, added if it is new. */
+    int add(MappedInput input, int from, int to) {
+        int mask = slots.length - 1;
+        int slot = hash(input, from, to) & mask;
+        for (; slots[slot] != 0; slot = (slot + 1) & mask)
+            if (matches(slots[slot] - 1, input, from, to))
+                return slots[slot] - 1;
+
+        int length = to - from;
+        int start = offsets[size];
+        if (start + length > arena.length)
+            arena = Arrays.copyOf(arena, Math.max(2 * arena.length, start + length));
+        for (int k = 0; k < length; k++)
+            arena[start + k] = input.at(from + k);
+        if (size + 2 > offsets.length)
+            offsets = Arrays.copyOf(offsets, 2 * offsets.length);
+        offsets[size + 1] = start + length;
+        slots[slot] = ++size;
+        if (2 * size > slots.length)
+            rehash();
+        return size - 1;
+    }
+
+    String name(int id) {
+        return new String(arena, offsets[id], offsets[id + 1] - offsets[id], StandardCharsets.US_ASCII);
+    }
+
+    private boolean matches(int id, MappedInput input, int from, int to) {
+        int start = offsets[id];
+        if (offsets[id + 1] - start != to - from)
+            return false;
+        for (int k = from; k < to; k++)
+            if (arena[start++] != input.at(k))
+                return false;
+        return true;
+    }
+
+    private void rehash() {
+        slots = new int[2 * slots.length];
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int hash = 0x811c9dc5;
+            for (int k = offsets[id]; k < offsets[id + 1]; k++)
+                hash = (hash ^ arena[k]) * 0x01000193;
+            int slot = hash & mask;
+            while (slots[slot] != 0)
+                slot = (slot + 1) & mask;
+            slots[slot] = id + 1;
+        }
+    }
+
+    /** FNV-1a over the bytes. */
+    private static int hash(MappedInput input, int from, int to) {
+        int hash = 0x811c9dc5;
+        for (int k = from; k < to; k++)
+            hash = (hash ^ input.at(k)) * 0x01000193;
+        return hash;
+    }
+}
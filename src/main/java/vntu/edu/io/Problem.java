@@ -0,0 +1,58 @@
+package vntu.edu.io;
+
+import vntu.edu.Solver;
+import vntu.edu.SolverSettings;
+import vntu.edu.simplex_methods.SparseMatrix;
+
+/**
+ * A model read by {@link MpsReader} or {@link LpReader}, in the form {@link Solver} takes:
+ * non-negative integer variables and rows {@code a·x <= b} ({@code signs[i] == false}) or
+ * {@code a·x >= b}.
+ */
+public final class Problem {
+    private final SparseMatrix constraints;
+    private final boolean[] signs;
+    private final double[] freeVars;
+    private final double[] objective;
+    private final boolean max;
+    private final NameTable names;
+
+    Problem(SparseMatrix constraints, boolean[] signs, double[] freeVars, double[] objective, boolean max,
+            NameTable names) {
+        this.constraints = constraints;
+        this.signs = signs;
+        this.freeVars = freeVars;
+        this.objective = objective;
+        this.max = max;
+        this.names = names;
+    }
+
+    public SparseMatrix constraints() {
+        return constraints;
+    }
+
+    public boolean[] signs() {
+        return signs;
+    }
+
+    public double[] freeVars() {
+        return freeVars;
+    }
+
+    public double[] objective() {
+        return objective;
+    }
+
+    public boolean max() {
+        return max;
+    }
+
+    /** The name of structural variable {@code j} in the file. */
+    public String variableName(int j) {
+        return names.name(j);
+    }
+
+    public Solver solver(SolverSettings settings) {
+        return new Solver(constraints, signs, freeVars, objective, settings);
+    }
+}
@@ -0,0 +1,98 @@
+package vntu.edu.io;
+
+import vntu.edu.simplex_methods.SparseMatrix;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Collects a model while a file is read. Matrix entries go straight into a
+ * {@link SparseMatrix.Builder}; rows are {@code a·x <= b} or {@code a·x >= b}, so an equality or
+ * a ranged row gets a twin with the other sign that is copied from its entries at the end.
+ * Variable bounds become singleton rows, which presolve turns back into bounds.
+ */
+final class ProblemBuilder {
+    /** Bounds at least this large mean no bound, as in MPS files. */
+    static final double INFINITY = 1e30;
+
+    final NameTable columns = new NameTable();
+    private final SparseMatrix.Builder matrix = SparseMatrix.builder();
+    private boolean[] signs = new boolean[64];
+    private double[] rhs = new double[64];
+    private int rows;
+    private double[] objective = new double[64];
+    private int[] twinRows = new int[16];
+    private boolean[] twinSigns = new boolean[16];
+    private double[] twinRhs = new double[16];
+    private int twins;
+    private boolean max;
+
+    int column(MappedInput input, int from, int to) {
+        int column = columns.add(input, from, to);
+        if (column == objective.length)
+            objective = Arrays.copyOf(objective, 2 * objective.length);
+        return column;
+    }
+
+    int addRow(boolean greater, double value) {
+        if (rows == signs.length) {
+            signs = Arrays.copyOf(signs, 2 * rows);
+            rhs = Arrays.copyOf(rhs, 2 * rows);
+        }
+        signs[rows] = greater;
+        rhs[rows] = value;
+        return rows++;
+    }
+
+    void setRow(int row, boolean greater, double value) {
+        signs[row] = greater;
+        rhs[row] = value;
+    }
+
+    /** Adds a copy of {@code row} with another sign and right-hand side. */
+    void addTwin(int row, boolean greater, double value) {
+        if (twins == twinRows.length) {
+            twinRows = Arrays.copyOf(twinRows, 2 * twins);
+            twinSigns = Arrays.copyOf(twinSigns, 2 * twins);
+            twinRhs = Arrays.copyOf(twinRhs, 2 * twins);
+        }
+        twinRows[twins] = row;
+        twinSigns[twins] = greater;
+        twinRhs[twins++] = value;
+    }
+
+    void add(int row, int column, double value) {
+        matrix.add(row, column, value);
+    }
+
+    void addObjective(int column, double value) {
+        objective[column] += value;
+    }
+
+    void setMax(boolean max) {
+        this.max = max;
+    }
+
+    void upperBound(int column, double value) {
+        if (value < INFINITY)
+            add(addRow(false, value), column, 1);
+    }
+
+    void lowerBound(MappedInput input, int column, double value) throws IOException {
+        if (value <= -INFINITY)
+            throw input.error("free variables are not supported, every variable is non-negative");
+        if (value < 0)
+            throw input.error("negative lower bounds are not supported, every variable is non-negative");
+        if (value > 0)
+            add(addRow(true, value), column, 1);
+    }
+
+    Problem build() {
+        matrix.duplicateRows(Arrays.copyOf(twinRows, twins), rows);
+        for (int k = 0; k < twins; k++)
+            addRow(twinSigns[k], twinRhs[k]);
+        int cols = columns.size();
+        return new Problem(matrix.build(rows, cols), Arrays.copyOf(signs, rows), Arrays.copyOf(rhs, rows),
+                Arrays.copyOf(objective, cols), max, columns);
+    }
+}
@@ -0,0 +1,126 @@
+package vntu.edu.presolve;
+
+import vntu.edu.simplex_methods.SparseMatrix;
+
+import static java.lang.Math.*;
+
+/**
+ * The bound propagation of {@link Presolve} for the nodes of the search: a row {@code a·x <= b}
+ * whose minimal activity under the bounds of the node leaves a variable less room tightens its
+ * bound, rounded to an integer, and a row whose minimal activity exceeds {@code b} proves that no
+ * integer plan is left. Only the rows of the variables whose bounds changed are visited, then the
+ * rows of the variables they tightened in turn, up to {@value #MAX_VISITS_PER_ROW} visits per row
+ * on average. Shared by the threads of a search.
+ */
+public final class DomainPropagator {
+    /** Slack of the roundings and of the infeasibility test, so that LP noise cannot cut off a plan. */
+    private static final double TOLERANCE = 1e-6;
+    private static final int MAX_VISITS_PER_ROW = 4;
+
+    private final SparseMatrix constraints;
+    private final double[] rowSign;
+    private final double[] rhs;
+
+    public DomainPropagator(SparseMatrix constraints, boolean[] signs, double[] freeVars) {
+        this.constraints = constraints;
+        this.rowSign = new double[constraints.rows()];
+        this.rhs = new double[constraints.rows()];
+        for (int i = 0; i < rowSign.length; i++) {
+            rowSign[i] = signs[i] ? -1 : 1;
+            rhs[i] = rowSign[i] * freeVars[i];
+        }
+    }
+
+    /**
+     * Tightens {@code lower} and {@code upper}, the bounds of the variables, in place from the rows
+     * of the variables {@code changed}; returns {@code false} when the bounds admit no plan.
+     */
+    public boolean propagate(double[] lower, double[] upper, int[] changed) {
+        int rows = constraints.rows();
+        int[] queue = new int[rows];
+        boolean[] queued = new boolean[rows];
+        int head = 0;
+        int size = 0;
+        for (int j : changed)
+            for (int e = constraints.colStart(j); e < constraints.colStart(j + 1); e++) {
+                int i = constraints.rowIndex(e);
+                if (!queued[i]) {
+                    queued[i] = true;
+                    queue[(head + size++) % rows] = i;
+                }
+            }
+        for (long visits = (long) MAX_VISITS_PER_ROW * rows; size > 0 && visits > 0; visits--) {
+            int i = queue[head];
+            head = (head + 1) % rows;
+            size--;
+            queued[i] = false;
+
+            double minActivity = 0;
+            int minInfinite = 0;
+            for (int e = constraints.rowStart(i); e < constraints.rowStart(i + 1); e++) {
+                int j = constraints.colIndex(e);
+                double a = rowSign[i] * constraints.value(e);
+                if (a == 0)
+                    continue;
+                if (a > 0)
+                    minActivity += a * lower[j];
+                else if (upper[j] == Double.POSITIVE_INFINITY)
+                    minInfinite++;
+                else
+                    minActivity += a * upper[j];
+            }
+            if (minInfinite == 0 && minActivity > rhs[i] + TOLERANCE * max(1, abs(rhs[i])))
+                return false;
+            if (minInfinite > 1)
+                continue;
+            for (int e = constraints.rowStart(i); e < constraints.rowStart(i + 1); e++) {
+                int j = constraints.colIndex(e);
+                double a = rowSign[i] * constraints.value(e);
+                if (!tighten(j, a, rhs[i], minActivity, minInfinite, lower, upper, TOLERANCE))
+                    continue;
+                if (lower[j] > upper[j])
+                    return false;
+                for (int f = constraints.colStart(j); f < constraints.colStart(j + 1); f++) {
+                    int k = constraints.rowIndex(f);
+                    if (!queued[k]) {
+                        queued[k] = true;
+                        queue[(head + size++) % rows] = k;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bound of {@code x[j]} implied by {@code a·x[j] <= rhs - (minimal activity of the rest of the row)},
+     * rounded to an integer with the slack {@code tolerance}; returns whether it tightened
+     * {@code lower} or {@code upper}. Also used by {@link Presolve}.
+     */
+    static boolean tighten(int j, double a, double rhs, double minActivity, int minInfinite,
+                           double[] lower, double[] upper, double tolerance) {
+        if (a == 0)
+            return false;
+        double rest;
+        if (a < 0 && upper[j] == Double.POSITIVE_INFINITY)
+            rest = minActivity;
+        else if (minInfinite > 0)
+            return false;
+        else
+            rest = minActivity - (a > 0 ? a * lower[j] : a * upper[j]);
+
+        double bound = (rhs - rest) / a;
+        if (a > 0) {
+            double rounded = floor(bound + tolerance);
+            if (rounded >= upper[j])
+                return false;
+            upper[j] = rounded;
+        } else {
+            double rounded = ceil(bound - tolerance);
+            if (rounded <= lower[j])
+                return false;
+            lower[j] = rounded;
+        }
+        return true;
+    }
+}
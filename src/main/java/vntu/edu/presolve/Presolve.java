@@ -0,0 +1,295 @@
+package vntu.edu.presolve;
+
+import vntu.edu.Solution;
+import vntu.edu.simplex_methods.SparseMatrix;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.lang.Math.*;
+
+/**
+ * Reductions of an integer program before its root LP, with the postsolve that maps a plan of
+ * the reduced model back to the original variables.
+ * <p>
+ * Every row is first written as {@code a·x <= b}. Duplicate rows keep the tightest right-hand
+ * side. Then, until nothing changes, the minimal and maximal activity of every row is computed
+ * from the variable bounds: rows that can never be violated (empty and singleton rows among
+ * them) are dropped, and the others tighten the bounds of their variables, rounded to integers.
+ * Variables whose bounds meet, or that are left in no row, are fixed. The kept variables are
+ * shifted to a zero lower bound; their upper bounds are passed to the LP.
+ */
+public final class Presolve {
+    private static final double TOLERANCE = 1e-9;
+    private static final int MAX_PASSES = 32;
+
+    private final SparseMatrix original;
+    private final double[] rowSign;
+    private final double[] rhs;
+    private final double[] objective;
+    private final boolean max;
+    private final double[] lower;
+    private final double[] upper;
+    private final boolean[] rowActive;
+
+    private int[] keptRows;
+    private int[] keptCols;
+    private SparseMatrix constraints;
+    private double[] freeVars;
+    private double[] upperBounds;
+    private double objectiveOffset;
+
+    private Presolve(SparseMatrix constraints, boolean[] signs, double[] freeVars, double[] objective, boolean max) {
+        int rows = constraints.rows();
+        int cols = constraints.cols();
+        this.original = constraints;
+        this.objective = objective;
+        this.max = max;
+        this.rowSign = new double[rows];
+        this.rhs = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            rowSign[i] = signs[i] ? -1 : 1;
+            rhs[i] = rowSign[i] * freeVars[i];
+        }
+        this.lower = new double[cols];
+        this.upper = new double[cols];
+        Arrays.fill(upper, Double.POSITIVE_INFINITY);
+        this.rowActive = new boolean[rows];
+        Arrays.fill(rowActive, true);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the reductions prove that there is no integer plan,
+     *                                  or that the objective is unbounded
+     */
+    public static Presolve run(SparseMatrix constraints, boolean[] signs, double[] freeVars, double[] objective,
+                               boolean max) {
+        Presolve presolve = new Presolve(constraints, signs, freeVars, objective, max);
+        presolve.removeDuplicateRows();
+        for (int pass = 0; pass < MAX_PASSES; pass++)
+            if (!presolve.propagate())
+                break;
+        presolve.fixEmptyColumns();
+        presolve.buildReducedModel();
+        return presolve;
+    }
+
+    /** Constraints of the reduced model; every row is {@code <=}. */
+    public SparseMatrix constraints() {
+        return constraints;
+    }
+
+    public boolean[] signs() {
+        return new boolean[keptRows.length];
+    }
+
+    public double[] freeVars() {
+        return freeVars;
+    }
+
+    public double[] objective() {
+        double[] output = new double[keptCols.length];
+        for (int k = 0; k < keptCols.length; k++)
+            output[k] = objective[keptCols[k]];
+        return output;
+    }
+
+    /** Upper bounds of the reduced variables, {@code +∞} when there is none; the lower bounds are zero. */
+    public double[] upperBounds() {
+        return upperBounds;
+    }
+
+    /** Nothing is left for the LP: every variable is fixed. */
+    public boolean isSolved() {
+        return keptCols.length == 0;
+    }
+
+    public int removedRows() {
+        return original.rows() - keptRows.length;
+    }
+
+    public int removedColumns() {
+        return original.cols() - keptCols.length;
+    }
+
+    /** Objective value of the fixed and shifted parts, in the sense of {@link Solution#objValue()}. */
+    public double objectiveOffset() {
+        return max ? objectiveOffset : -objectiveOffset;
+    }
+
+    /**
+     * Plan of the original model, structural variables and one slack per original row, for a
+     * plan of the reduced one; {@code reduced} is ignored when {@link #isSolved()}.
+     */
+    public Solution postsolve(Solution reduced) {
+        int cols = original.cols();
+        double[] plan = new double[cols + original.rows()];
+        for (int j = 0; j < cols; j++)
+            plan[j] = lower[j];
+        double value = objectiveOffset();
+        if (!isSolved()) {
+            for (int k = 0; k < keptCols.length; k++)
+                plan[keptCols[k]] += reduced.optimalPlan()[k];
+            value += reduced.objValue();
+        }
+        for (int i = 0; i < original.rows(); i++) {
+            double activity = 0;
+            for (int e = original.rowStart(i); e < original.rowStart(i + 1); e++)
+                activity += original.value(e) * plan[original.colIndex(e)];
+            plan[cols + i] = rhs[i] - rowSign[i] * activity;
+        }
+        return new Solution(value, plan);
+    }
+
+    private void removeDuplicateRows() {
+        Map<RowKey, Integer> seen = new HashMap<>();
+        for (int i = 0; i < original.rows(); i++) {
+            int from = original.rowStart(i);
+            int to = original.rowStart(i + 1);
+            if (from == to)
+                continue;
+            double scale = abs(original.value(from));
+            int[] cols = new int[to - from];
+            double[] values = new double[to - from];
+            for (int e = from; e < to; e++) {
+                cols[e - from] = original.colIndex(e);
+                values[e - from] = rowSign[i] * original.value(e) / scale;
+            }
+            RowKey key = new RowKey(cols, values);
+            Integer other = seen.putIfAbsent(key, i);
+            if (other == null)
+                continue;
+            double otherScale = abs(original.value(original.rowStart(other)));
+            if (rhs[i] / scale < rhs[other] / otherScale) {
+                rowActive[other] = false;
+                seen.put(key, i);
+            } else {
+                rowActive[i] = false;
+            }
+        }
+    }
+
+    /** One sweep over the active rows; returns whether a bound changed or a row was dropped. */
+    private boolean propagate() {
+        boolean changed = false;
+        for (int i = 0; i < original.rows(); i++) {
+            if (!rowActive[i])
+                continue;
+            double minActivity = 0;
+            double maxActivity = 0;
+            int minInfinite = 0;
+            for (int e = original.rowStart(i); e < original.rowStart(i + 1); e++) {
+                int j = original.colIndex(e);
+                double a = rowSign[i] * original.value(e);
+                if (a == 0)
+                    continue;
+                if (a > 0) {
+                    minActivity += a * lower[j];
+                    maxActivity += a * upper[j];
+                } else {
+                    maxActivity += a * lower[j];
+                    if (upper[j] == Double.POSITIVE_INFINITY)
+                        minInfinite++;
+                    else
+                        minActivity += a * upper[j];
+                }
+            }
+            if (maxActivity <= rhs[i] + TOLERANCE) {
+                rowActive[i] = false;
+                changed = true;
+                continue;
+            }
+            if (minInfinite == 0 && minActivity > rhs[i] + TOLERANCE)
+                throw new IllegalArgumentException("There is no integer optimal plan");
+            if (minInfinite > 1)
+                continue;
+            for (int e = original.rowStart(i); e < original.rowStart(i + 1); e++)
+                changed |= tighten(original.colIndex(e), rowSign[i] * original.value(e), rhs[i],
+                        minActivity, minInfinite);
+        }
+        return changed;
+    }
+
+    /** Tightens the bound of {@code x[j]} implied by the row, see {@link DomainPropagator#tighten}. */
+    private boolean tighten(int j, double a, double rhs, double minActivity, int minInfinite) {
+        if (!DomainPropagator.tighten(j, a, rhs, minActivity, minInfinite, lower, upper, TOLERANCE))
+            return false;
+        if (lower[j] > upper[j])
+            throw new IllegalArgumentException("There is no integer optimal plan");
+        return true;
+    }
+
+    /** A variable left in no active row takes the bound its objective prefers. */
+    private void fixEmptyColumns() {
+        boolean[] used = new boolean[original.cols()];
+        for (int i = 0; i < original.rows(); i++)
+            if (rowActive[i])
+                for (int e = original.rowStart(i); e < original.rowStart(i + 1); e++)
+                    used[original.colIndex(e)] = true;
+        for (int j = 0; j < original.cols(); j++) {
+            if (used[j] || lower[j] == upper[j])
+                continue;
+            double gain = max ? objective[j] : -objective[j];
+            if (gain > 0) {
+                if (upper[j] == Double.POSITIVE_INFINITY)
+                    throw new IllegalArgumentException("There is no optimal plan (F → ∞)");
+                lower[j] = upper[j];
+            } else {
+                upper[j] = lower[j];
+            }
+        }
+    }
+
+    private void buildReducedModel() {
+        int[] newCol = new int[original.cols()];
+        int cols = 0;
+        for (int j = 0; j < original.cols(); j++) {
+            newCol[j] = lower[j] == upper[j] ? -1 : cols++;
+            objectiveOffset += objective[j] * lower[j];
+        }
+        keptCols = new int[cols];
+        upperBounds = new double[cols];
+        for (int j = 0; j < original.cols(); j++)
+            if (newCol[j] != -1) {
+                keptCols[newCol[j]] = j;
+                upperBounds[newCol[j]] = upper[j] - lower[j];
+            }
+
+        int rows = 0;
+        for (boolean active : rowActive)
+            if (active)
+                rows++;
+        keptRows = new int[rows];
+        freeVars = new double[rows];
+        SparseMatrix.Builder builder = SparseMatrix.builder(rows, cols);
+        for (int i = 0, r = 0; i < original.rows(); i++) {
+            if (!rowActive[i])
+                continue;
+            keptRows[r] = i;
+            double b = rhs[i];
+            for (int e = original.rowStart(i); e < original.rowStart(i + 1); e++) {
+                int j = original.colIndex(e);
+                double a = rowSign[i] * original.value(e);
+                b -= a * lower[j];
+                if (newCol[j] != -1)
+                    builder.add(r, newCol[j], a);
+            }
+            freeVars[r++] = b;
+        }
+        constraints = builder.build();
+    }
+
+    private record RowKey(int[] cols, double[] values) {
+        @Override
+        public boolean equals(Object object) {
+            return object instanceof RowKey other
+                    && Arrays.equals(cols, other.cols) && Arrays.equals(values, other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(cols) + Arrays.hashCode(values);
+        }
+    }
+}
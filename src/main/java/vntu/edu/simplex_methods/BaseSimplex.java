@@ -1,28 +1,398 @@
 package vntu.edu.simplex_methods;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import vntu.edu.Solution;
 import java.util.Arrays;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.util.Arrays.copyOf;
 
+/**
+ * Common part of the simplex engines. Every variable, slacks included, has a lower and an upper
+ * bound ({@code 0} and {@code +∞} unless tightened); a non-basic variable sits on one of them and
+ * {@link #freeVars} always holds the actual values of the basic variables. A non-basic variable
+ * whose bounds meet is fixed and never enters the basis.
+ * <p>
+ * With a {@link Scaling} the pivots work on scaled rows and columns; everything an LP takes or
+ * hands out, plans, bounds, rows and reduced costs, is in the variables of the LP as given.
+ */
 @Getter
 public abstract class BaseSimplex {
-    protected final double[][] constraints;
+    private static final double EPSILON = 1e-12;
+    private static final double FEASIBILITY_TOLERANCE = 1e-9;
+    /** Reduced costs this small are rounding noise; pivoting on them can cycle on degenerate vertices. */
+    private static final double OPTIMALITY_TOLERANCE = 1e-9;
+    /** Pivots after which the incrementally updated reduced costs are computed afresh. */
+    private static final int REFRESH_INTERVAL = 50;
+    /** Smallest block of {@link Pricing#PARTIAL}; larger rows are split into {@value #PARTIAL_BLOCKS} blocks. */
+    private static final int PARTIAL_BLOCK = 32;
+    private static final int PARTIAL_BLOCKS = 8;
+
+    @Getter(AccessLevel.NONE)
+    protected final Tableau tableau;
+    /** Constraints as given, structural columns only; rows added later live in {@link #cutRows}. */
+    @Getter(AccessLevel.NONE)
+    protected final SparseMatrix matrix;
+    /** Number of structural variables; the slack of row {@code i} is variable {@code structural + i}. */
+    protected final int structural;
+    /** {@code -1} for the rows that were {@code >=}, set by the canonical form. */
+    @Getter(AccessLevel.NONE)
+    protected double[] rowSigns;
+    /** Right-hand side of the {@code <=} rows of {@link #matrix}. */
+    @Getter(AccessLevel.NONE)
+    protected double[] rhs;
+    /** Rows appended by {@link #withConstraints}, dense over the structural variables, and their right-hand side. */
+    @Getter(AccessLevel.NONE)
+    protected double[][] cutRows = new double[0][];
+    @Getter(AccessLevel.NONE)
+    protected double[] cutRhs = new double[0];
     protected final boolean[] signs;
-    protected final double[] freeVars;
+    protected double[] freeVars;
     protected double[] objective;
+    protected int[] basicVars;
+    protected double[] basicVarCoEffs;
+    protected double[] lower;
+    protected double[] upper;
+    /** Non-basic variables that sit on their upper bound. */
+    @Getter(AccessLevel.NONE)
+    protected boolean[] atUpper;
+    @Getter(AccessLevel.NONE)
+    private double[] structuralUpper;
+    /** Pivots done on this LP since it was created. */
+    protected int pivots;
+    protected Pricing pricing = Pricing.DANTZIG;
+    /** Reference weights of {@link Pricing#DEVEX} or edge norms of {@link Pricing#STEEPEST_EDGE} during primal pivots. */
+    @Getter(AccessLevel.NONE)
+    protected double[] weights;
+    @Getter(AccessLevel.NONE)
+    private int nextBlock;
+    protected Scaling scaling = Scaling.NONE;
+    /**
+     * Scale of every variable in the canonical form, {@code x = scale[j]·x'} for the value {@code x'}
+     * the pivots work with: the column factor of a structural variable, the inverse row factor of
+     * a slack. All {@code 1} without {@link #scaling}.
+     */
+    @Getter(AccessLevel.NONE)
+    protected double[] scale;
+    /** Factor of every row of {@link #matrix} in the canonical form. */
+    @Getter(AccessLevel.NONE)
+    protected double[] rowScale;
 
     public BaseSimplex(double[][] constraints, boolean[] signs, double[] freeVars, double[] objective) {//copy here, not in the impl
-        this.constraints = cloneMatrix(constraints);
+        this(Tableau.of(constraints, constraints.length), SparseMatrix.of(constraints), signs, freeVars, objective);
+    }
+
+    public BaseSimplex(SparseMatrix constraints, boolean[] signs, double[] freeVars, double[] objective) {
+        this(Tableau.of(constraints, constraints.rows()), constraints, signs, freeVars, objective);
+    }
+
+    /** {@code tableau} is {@code null} for engines that work on the constraint matrix directly. */
+    BaseSimplex(Tableau tableau, SparseMatrix constraints, boolean[] signs, double[] freeVars, double[] objective) {
+        this.tableau = tableau;
+        this.matrix = constraints;
+        this.structural = constraints.cols();
         this.signs = copyOf(signs, signs.length);
         this.freeVars = copyOf(freeVars, freeVars.length);
         this.objective = copyOf(objective, objective.length);
     }
 
+    /** Takes over a tableau that is already in canonical form together with its basis. */
+    BaseSimplex(Tableau tableau, BaseSimplex basis) {
+        this.tableau = tableau;
+        this.matrix = basis.matrix;
+        this.structural = basis.structural;
+        this.rowSigns = basis.rowSigns;
+        this.rhs = basis.rhs;
+        this.cutRows = basis.cutRows;
+        this.cutRhs = basis.cutRhs;
+        this.signs = new boolean[tableau.rows()];
+        this.freeVars = copyOf(basis.freeVars, basis.freeVars.length);
+        this.objective = basis.objective;
+        this.basicVars = copyOf(basis.basicVars, basis.basicVars.length);
+        this.basicVarCoEffs = copyOf(basis.basicVarCoEffs, basis.basicVarCoEffs.length);
+        this.lower = copyOf(basis.lower, basis.lower.length);
+        this.upper = copyOf(basis.upper, basis.upper.length);
+        this.atUpper = copyOf(basis.atUpper, basis.atUpper.length);
+        this.pricing = basis.pricing;
+        this.scaling = basis.scaling;
+        this.scale = basis.scale;
+        this.rowScale = basis.rowScale;
+    }
+
     public abstract Solution solve(boolean max);
 
+    /** Upper bounds of the structural variables for {@link #solve}; {@code +∞} leaves a variable unbounded. */
+    public void setUpperBounds(double[] upper) {
+        structuralUpper = copyOf(upper, upper.length);
+    }
+
+    /** Pricing of the primal pivots; LPs derived from this one keep it. */
+    public void setPricing(Pricing pricing) {
+        this.pricing = pricing;
+    }
+
+    /** Scaling {@link #solve} applies to the constraints; LPs derived from this one keep its factors. */
+    public void setScaling(Scaling scaling) {
+        this.scaling = scaling;
+    }
+
+    /**
+     * Builds a child of this solved LP with the bound {@code x[varIdx] <= bound} (or {@code >=} when
+     * {@code isUpper} is false). The bound is tightened in place, so the child has the same size as
+     * its parent; the copied basis stays dual feasible and {@link #reoptimize()} of the child needs
+     * only a few dual pivots.
+     */
+    public BaseSimplex withBound(int varIdx, double bound, boolean isUpper) {
+        return withBounds(new int[]{varIdx}, new double[]{bound}, new boolean[]{isUpper});
+    }
+
+    /** {@link #withBound} for several bounds at once, with a single copy of the LP. */
+    public BaseSimplex withBounds(int[] varIdx, double[] bounds, boolean[] isUpper) {
+        BaseSimplex child = copyForBounds();
+        for (int k = 0; k < varIdx.length; k++) {
+            int var = varIdx[k];
+            child.shiftBasicVars(var, child.tightenBound(var, bounds[k] / scale[var], isUpper[k]));
+        }
+        return child;
+    }
+
+    /** Copy that continues with dual pivots, for {@link #withBounds}. */
+    protected BaseSimplex copyForBounds() {
+        return new DualSimplex(tableau.copy(), this);
+    }
+
+    /** Updates the basic variables after the non-basic {@code var} moved by {@code shift}. */
+    protected void shiftBasicVars(int var, double shift) {
+        if (shift == 0)
+            return;
+        for (int i = 0; i < freeVars.length; i++)
+            freeVars[i] -= tableau.get(i, var) * shift;
+    }
+
+    /** Optimizes again from the current basis: dual pivots restore feasibility, primal pivots optimality. */
+    public Solution reoptimize() {
+        dualIterations();
+        primalIterations(basicVars, basicVarCoEffs);
+        return getSolution();
+    }
+
+    /**
+     * Builds a child of this solved LP with the rows {@code rows[k]·x <= rhs[k]} over the structural
+     * variables added. Every new row gets a basic slack, so the basis stays dual feasible and
+     * {@link #reoptimize()} of the child repairs the violated rows with dual pivots.
+     */
+    public BaseSimplex withConstraints(double[][] rows, double[] rhs) {
+        DualSimplex child = new DualSimplex(tableau.copyForAppend(rows.length), this);
+        child.pivots = pivots;
+        double[] plan = getOptimalPlan(basicVars);
+        for (int k = 0; k < rows.length; k++) {
+            double[] scaled = scaleRow(rows[k]);
+            int row = child.tableau.appendRow();
+            child.tableau.appendColumn();
+            for (int j = 0; j < structural; j++)
+                child.tableau.set(row, j, scaled[j]);
+            // express the row in the current basis: clear the columns of the basic variables
+            for (int i = 0; i < row; i++) {
+                int var = child.basicVars[i];
+                double a = child.tableau.get(row, var);
+                if (a != 0) {
+                    child.tableau.addRow(row, i, -a);
+                    child.tableau.set(row, var, 0);
+                }
+            }
+            child.tableau.set(row, child.objective.length, 1);
+            child.appendConstraint(scaled, rhs[k], plan);
+        }
+        return child;
+    }
+
+    /**
+     * Builds a copy of this solved LP that maximizes {@code objective}, given for the structural
+     * variables, instead. The basis stays primal feasible, so {@link #reoptimize()} of the copy
+     * needs only primal pivots.
+     */
+    public BaseSimplex withObjective(double[] objective) {
+        DualSimplex child = new DualSimplex(tableau.copy(), this);
+        child.replaceObjective(objective);
+        return child;
+    }
+
+    /**
+     * Builds a copy of this solved LP with the right-hand sides of the model rows replaced by
+     * {@code freeVars}, given with the signs of the constructor; added rows keep theirs. The basis
+     * stays dual feasible, so {@link #reoptimize()} of the copy needs only dual pivots.
+     */
+    public BaseSimplex withRhs(double[] freeVars) {
+        DualSimplex child = new DualSimplex(tableau.copy(), this);
+        child.replaceRhs(freeVars);
+        return child;
+    }
+
+    /** Moves the basic variables by {@code B⁻¹Δb}, read off the columns of the slacks. */
+    protected void replaceRhs(double[] freeVars) {
+        double[] next = canonicalRhs(freeVars);
+        for (int i = 0; i < next.length; i++) {
+            double delta = next[i] - rhs[i];
+            if (delta == 0)
+                continue;
+            for (int k = 0; k < this.freeVars.length; k++)
+                this.freeVars[k] += tableau.get(k, structural + i) * delta;
+        }
+        rhs = next;
+    }
+
+    /** Right-hand sides of the model rows as they stand in the canonical form. */
+    protected double[] canonicalRhs(double[] freeVars) {
+        double[] output = new double[rhs.length];
+        for (int i = 0; i < output.length; i++)
+            output[i] = rowSigns[i] * freeVars[i] * rowScale[i];
+        return output;
+    }
+
+    protected void replaceObjective(double[] structuralObjective) {
+        objective = new double[objective.length];
+        for (int j = 0; j < structural; j++)
+            objective[j] = structuralObjective[j] * scale[j];
+        for (int i = 0; i < basicVars.length; i++)
+            basicVarCoEffs[i] = objective[basicVars[i]];
+    }
+
+    /** A row over the structural variables as given, in the scaled columns; the slack of an added row is not scaled. */
+    protected double[] scaleRow(double[] row) {
+        double[] output = new double[structural];
+        for (int j = 0; j < structural; j++)
+            output[j] = row[j] * scale[j];
+        return output;
+    }
+
+    /**
+     * Records an added row, already {@link #scaleRow scaled}, and makes its slack, valued at
+     * {@code rhs - row·plan}, basic.
+     */
+    protected void appendConstraint(double[] row, double rhs, double[] plan) {
+        double value = rhs;
+        for (int j = 0; j < structural; j++)
+            value -= row[j] * plan[j];
+        int slack = objective.length;
+        cutRows = copyOf(cutRows, cutRows.length + 1);
+        cutRows[cutRows.length - 1] = copyOf(row, structural);
+        cutRhs = append(cutRhs, rhs);
+        objective = append(objective, 0);
+        scale = append(scale, 1);
+        lower = append(lower, 0);
+        upper = append(upper, Double.POSITIVE_INFINITY);
+        atUpper = copyOf(atUpper, slack + 1);
+        basicVars = copyOf(basicVars, basicVars.length + 1);
+        basicVars[basicVars.length - 1] = slack;
+        basicVarCoEffs = append(basicVarCoEffs, 0);
+        freeVars = append(freeVars, value);
+    }
+
+    public double[][] getConstraints() {
+        return tableau.toMatrix();
+    }
+
+    /** Row {@code row} of the constraints as {@code a·x <= b} over the structural variables. */
+    public double[] getConstraintRow(int row) {
+        if (row >= matrix.rows()) {
+            double[] output = copyOf(cutRows[row - matrix.rows()], structural);
+            for (int j = 0; j < structural; j++)
+                output[j] /= scale[j];
+            return output;
+        }
+        double[] output = new double[structural];
+        for (int k = matrix.rowStart(row); k < matrix.rowStart(row + 1); k++)
+            output[matrix.colIndex(k)] = matrix.value(k) * rowSigns[row];
+        return output;
+    }
+
+    /** Right-hand side {@code b} of {@link #getConstraintRow}. */
+    public double getConstraintRhs(int row) {
+        return row >= matrix.rows() ? cutRhs[row - matrix.rows()] : rhs[row] / rowScale[row];
+    }
+
+    /** Row {@code row} of the current basis, {@code B⁻¹A}, over all variables. */
+    public double[] getRow(int row) {
+        double[] output = basisRow(row);
+        if (scaling != Scaling.NONE) {
+            double basic = scale[basicVars[row]];
+            for (int j = 0; j < output.length; j++)
+                output[j] *= basic / scale[j];
+        }
+        return output;
+    }
+
+    /** {@link #getRow} in the scaled variables. */
+    protected double[] basisRow(int row) {
+        return tableau.row(row);
+    }
+
+    public int getBasicVar(int row) {
+        return basicVars[row];
+    }
+
+    public boolean isAtUpper(int var) {
+        return atUpper[var];
+    }
+
+    /**
+     * Reduced costs {@code c_B B⁻¹ a_j - c_j} of the structural variables in the current basis, in
+     * the maximized objective: moving a non-basic {@code x[j]} off its bound by {@code t} lowers the
+     * objective by {@code |d_j|·t} at an optimum. Basic variables get {@code 0}.
+     */
+    public double[] getReducedCosts() {
+        return unscaleCosts(copyOf(calculateIndexRow(basicVarCoEffs), structural));
+    }
+
+    /** Values of the basic variables, row by row. */
+    public double[] getFreeVars() {
+        if (scaling == Scaling.NONE)
+            return freeVars;
+        double[] output = new double[freeVars.length];
+        for (int i = 0; i < output.length; i++)
+            output[i] = freeVars[i] * scale[basicVars[i]];
+        return output;
+    }
+
+    /** Objective of every variable in the maximized sense. */
+    public double[] getObjective() {
+        return scaling == Scaling.NONE ? objective : unscaleCosts(copyOf(objective, objective.length));
+    }
+
+    public double[] getLower() {
+        return scaling == Scaling.NONE ? lower : unscale(copyOf(lower, lower.length));
+    }
+
+    public double[] getUpper() {
+        return scaling == Scaling.NONE ? upper : unscale(copyOf(upper, upper.length));
+    }
+
+    /** Values, in place, of the variables as given from those of the scaled ones. */
+    protected double[] unscale(double[] values) {
+        if (scaling != Scaling.NONE)
+            for (int j = 0; j < values.length; j++)
+                values[j] *= scale[j];
+        return values;
+    }
+
+    /** Costs per unit, in place, of the variables as given from those of the scaled ones. */
+    protected double[] unscaleCosts(double[] costs) {
+        if (scaling != Scaling.NONE)
+            for (int j = 0; j < costs.length; j++)
+                costs[j] /= scale[j];
+        return costs;
+    }
+
+    protected Solution getSolution() {
+        return new Solution(calculateObjectiveValue(basicVarCoEffs), unscale(getOptimalPlan(basicVars)));
+    }
+
     protected double[] getOptimalPlan(int[] basicVars) {
-        double[] output = new double[constraints[0].length];
+        double[] output = new double[objective.length];
+        for (int j = 0; j < output.length; j++)
+            output[j] = nonbasicValue(j);
         int idx = 0;
         for (int var : basicVars)
             output[var] = freeVars[idx++];
@@ -32,7 +402,56 @@ public abstract class BaseSimplex {
 
     protected void standardToCanonicalForm(boolean max) {
         objectiveFromMinToMax(max);
+        initScaling();
+        if (scaling != Scaling.NONE) {
+            tableau.scale(rowScale, scale);
+            for (int i = 0; i < rowScale.length; i++) {
+                freeVars[i] *= rowScale[i];
+                rhs[i] *= rowScale[i];
+            }
+            for (int j = 0; j < structural; j++)
+                objective[j] *= scale[j];
+        }
         extendConstraints();
+        initBounds(objective.length);
+    }
+
+    /** Computes {@link #rowScale} and {@link #scale} for the structural variables and the slacks of {@link #matrix}. */
+    protected void initScaling() {
+        double[][] factors = scaling.factors(matrix);
+        rowScale = factors[0];
+        scale = copyOf(factors[1], structural + rowScale.length);
+        for (int i = 0; i < rowScale.length; i++)
+            scale[structural + i] = 1 / rowScale[i];
+    }
+
+    protected void initBounds(int cols) {
+        lower = new double[cols];
+        upper = new double[cols];
+        Arrays.fill(upper, Double.POSITIVE_INFINITY);
+        if (structuralUpper != null)
+            for (int j = 0; j < structuralUpper.length; j++)
+                upper[j] = structuralUpper[j] / scale[j];
+        atUpper = new boolean[cols];
+    }
+
+    protected double nonbasicValue(int var) {
+        return atUpper[var] ? upper[var] : lower[var];
+    }
+
+    /**
+     * Tightens a bound of the variable and returns how far it moved if it is non-basic, so that the
+     * caller can shift the basic variables; a basic variable is left for the dual pivots.
+     */
+    protected double tightenBound(int varIdx, double bound, boolean isUpper) {
+        double before = nonbasicValue(varIdx);
+        if (isUpper)
+            upper[varIdx] = min(upper[varIdx], bound);
+        else
+            lower[varIdx] = max(lower[varIdx], bound);
+        if (lower[varIdx] > upper[varIdx] + FEASIBILITY_TOLERANCE)
+            throw new IllegalArgumentException("There is no optimal plan (F → ∞)");
+        return indexOf(basicVars, varIdx) == -1 ? nonbasicValue(varIdx) - before : 0;
     }
 
     private void extendConstraints() {
@@ -41,30 +460,20 @@ public abstract class BaseSimplex {
     }
 
     private void extendWithBasicVars() {
-        int rows = constraints.length;
-        int cols = constraints[0].length;
-        for (int i = 0; i < rows; i++) {
-            double[] old = copyOf(constraints[i], cols);
-            double[] extension = new double[rows];
-            extension[i] = 1;
-            constraints[i] = new double[cols + rows];
-            System.arraycopy(old, 0, constraints[i], 0, cols);
-            System.arraycopy(extension, 0, constraints[i], cols, rows);
-        }
+        tableau.appendIdentity();
     }
 
     private void extendObjective() {
         int oldLength = objective.length;
-        double[] output = new double[oldLength + constraints.length];
+        double[] output = new double[oldLength + tableau.rows()];
         double[] temp = copyOf(objective, oldLength);
         System.arraycopy(temp, 0, output, 0, oldLength);
         objective = output;
     }
 
     protected void divideRowByPivot(int rowIdx, int colIdx) {
-        double divider = constraints[rowIdx][colIdx];
-        for (int i = 0; i < constraints[rowIdx].length; i++)
-            constraints[rowIdx][i] /= divider;
+        double divider = tableau.get(rowIdx, colIdx);
+        tableau.divideRow(rowIdx, divider);
         freeVars[rowIdx] /= divider;
     }
 
@@ -80,31 +489,297 @@ public abstract class BaseSimplex {
     }
 
     private void checkConstraints() {
-        for (int i = 0; i < constraints.length; i++)
+        rowSigns = new double[tableau.rows()];
+        for (int i = 0; i < tableau.rows(); i++) {
+            rowSigns[i] = signs[i] ? -1 : 1;
             if (signs[i]) {
-                for (int j = 0; j < constraints[i].length; j++)
-                    constraints[i][j] *= -1;
+                tableau.multiplyRow(i, -1);
                 signs[i] = false;
                 freeVars[i] *= -1;
             }
+        }
+        rhs = copyOf(freeVars, freeVars.length);
     }
 
     protected int[] getBasicVars() {
-        int[] basicVars = new int[constraints.length];
-        for (int i = 0; i < constraints.length; i++)
+        int[] basicVars = new int[tableau.rows()];
+        for (int i = 0; i < tableau.rows(); i++)
             basicVars[i] = objective.length + i;
         return basicVars;
     }
 
     protected void addRows(int rowIdx, int colIdx) {
-        for (int i = 0; i < constraints.length; i++)
-            if (rowIdx != i) {
-                freeVars[i] += freeVars[rowIdx] * (- constraints[i][colIdx]);
+        pivots++;
+        tableau.eliminate(rowIdx, colIdx, freeVars);
+    }
+
+    protected void dualIterations() {
+        double[] indexRow = null;
+        int updates = 0;
+        while (true) {
+            int rowIdx = findResolvingRow();
+            if (rowIdx == -1) break;
+
+            if (indexRow == null)
+                indexRow = calculateIndexRow(basicVarCoEffs);
+            boolean toUpper = freeVars[rowIdx] > upper[basicVars[rowIdx]];
+            int colIdx = findRatioColumn(tableau.row(rowIdx), indexRow, rowIdx, toUpper);
+            if (colIdx == -1)
+                throw new IllegalArgumentException("There is no optimal plan (F → ∞)");
+            pivot(rowIdx, colIdx, toUpper);
+            indexRow = updateIndexRow(indexRow, rowIdx, colIdx, ++updates);
+        }
+    }
+
+    /** The basic variable that violates its bounds the most. */
+    protected int findResolvingRow() {
+        int idx = -1;
+        double saved = FEASIBILITY_TOLERANCE;
+
+        for (int i = 0; i < freeVars.length; i++) {
+            int var = basicVars[i];
+            double violation = max(lower[var] - freeVars[i], freeVars[i] - upper[var]);
+            if (violation > saved) {
+                saved = violation;
+                idx = i;
+            }
+        }
+        return idx;
+    }
+
+    /**
+     * Bounded dual ratio test on the pivot row {@code row}. The leaving variable moves to its upper
+     * bound when {@code toUpper}, otherwise to its lower one; only non-basic variables that can move
+     * it there from their own bound are eligible. If there are none, the problem is infeasible.
+     */
+    protected int findRatioColumn(double[] row, double[] indexRow, int rowIdx, boolean toUpper) {
+        int idx = -1;
+        double saved = Double.MAX_VALUE;
+        double direction = toUpper ? 1 : -1;
+        for (int i = 0; i < indexRow.length; i++) {
+            if (i == basicVars[rowIdx] || lower[i] == upper[i])
+                continue;
+            double element = row[i] * direction;
+            boolean eligible = atUpper[i] ? element < -EPSILON : element > EPSILON;
+            if (eligible && indexRow[i] / element < saved) {
+                saved = indexRow[i] / element;
+                idx = i;
+            }
+        }
+        return idx;
+    }
+
+    /**
+     * Primal pivots until no reduced cost improves the objective. The reduced costs are computed
+     * once and then updated with the pivot row after every pivot, which costs one row instead of
+     * the whole tableau; a bound flip leaves them unchanged.
+     */
+    protected void primalIterations(int[] basicVars, double[] basicVarCoEffs) {
+        double[] indexRow = calculateIndexRow(basicVarCoEffs);
+        weights = initialWeights();
+        int updates = 0;
+
+        int colIdx = findEnteringColumn(indexRow);
+        while (colIdx != -1) {
+            double[] column = tableau.column(colIdx);
+            int rowIdx = findKeyRow(colIdx, column);
+            if (rowIdx == -1) {
+                flipBound(colIdx, column);
+            } else {
+                if (weights != null)
+                    updateWeights(tableau.row(rowIdx), column[rowIdx],
+                            pricing == Pricing.STEEPEST_EDGE ? columnProducts(column) : null,
+                            colIdx, basicVars[rowIdx]);
+                pivot(rowIdx, colIdx, column[rowIdx] * direction(colIdx) < 0);
+                indexRow = updateIndexRow(indexRow, rowIdx, colIdx, ++updates);
+            }
+            colIdx = findEnteringColumn(indexRow);
+        }
+        weights = null;
+    }
+
+    /**
+     * Reduced costs after {@code colIdx} entered on {@code rowIdx}: {@code d -= d_q · row}, with the
+     * pivot row already divided by the pivot. Every {@value #REFRESH_INTERVAL} updates they are
+     * computed afresh, so that rounding errors cannot pile up.
+     */
+    private double[] updateIndexRow(double[] indexRow, int rowIdx, int colIdx, int updates) {
+        if (updates % REFRESH_INTERVAL == 0)
+            return calculateIndexRow(basicVarCoEffs);
+        tableau.addRowTo(indexRow, rowIdx, -indexRow[colIdx]);
+        indexRow[colIdx] = 0;
+        return indexRow;
+    }
+
+    /** {@code α_j · α_q} for every column {@code j}, where {@code α_q} is {@code column}. */
+    private double[] columnProducts(double[] column) {
+        double[] output = new double[tableau.cols()];
+        for (int i = 0; i < column.length; i++)
+            if (column[i] != 0)
+                tableau.addRowTo(output, i, column[i]);
+        return output;
+    }
+
+    /** Starting {@link #weights} of the pricing rule, {@code null} when it has none. */
+    protected double[] initialWeights() {
+        if (pricing == Pricing.DEVEX) {
+            double[] output = new double[objective.length];
+            Arrays.fill(output, 1);
+            return output;
+        }
+        if (pricing != Pricing.STEEPEST_EDGE)
+            return null;
+        double[] output = new double[objective.length];
+        Arrays.fill(output, 1);
+        for (int i = 0; i < tableau.rows(); i++)
+            for (int j = 0; j < output.length; j++) {
+                double element = tableau.get(i, j);
+                output[j] += element * element;
+            }
+        return output;
+    }
+
+    /**
+     * Updates {@link #weights} before {@code colIdx} enters on the row {@code row} of the current
+     * basis, {@code pivot} being its element in that column and {@code leaving} the variable that
+     * leaves. Devex keeps the larger of the old weight and the one carried over from the entering
+     * column; steepest edge needs {@code products}, the {@code α_j · α_q} of every column, to
+     * update the norms exactly.
+     */
+    protected void updateWeights(double[] row, double pivot, double[] products, int colIdx, int leaving) {
+        double reference = weights[colIdx];
+        for (int j = 0; j < weights.length; j++) {
+            if (j == colIdx || row[j] == 0)
+                continue;
+            double ratio = row[j] / pivot;
+            weights[j] = products == null
+                    ? max(weights[j], ratio * ratio * reference)
+                    : max(weights[j] - 2 * ratio * products[j] + ratio * ratio * reference, 1 + ratio * ratio);
+        }
+        weights[leaving] = max(reference / (pivot * pivot), 1);
+    }
+
+    /**
+     * Pivots {@code colIdx} into the basis on {@code rowIdx}; the leaving variable becomes non-basic
+     * on its upper or lower bound. The bound values are moved into the right-hand side first, so the
+     * Jordan-Gauss step leaves {@link #freeVars} with the new basic values.
+     */
+    private void pivot(int rowIdx, int colIdx, boolean leavesAtUpper) {
+        double entering = nonbasicValue(colIdx);
+        if (entering != 0)
+            for (int i = 0; i < freeVars.length; i++)
+                freeVars[i] += tableau.get(i, colIdx) * entering;
+        int leaving = basicVars[rowIdx];
+        atUpper[leaving] = leavesAtUpper;
+        atUpper[colIdx] = false;
+        double leavingValue = nonbasicValue(leaving);
+        if (leavingValue != 0)
+            freeVars[rowIdx] -= leavingValue;
+
+        //divide row
+        divideRowByPivot(rowIdx, colIdx);
+        basicVarCoEffs[rowIdx] = objective[colIdx];
+        basicVars[rowIdx] = colIdx;
+
+        //Jordan-Gauss
+        addRows(rowIdx, colIdx);
+    }
+
+    /** Moves a non-basic variable to its other bound; {@code column} is its column in the current basis. */
+    protected void flipBound(int colIdx, double[] column) {
+        double shift = (upper[colIdx] - lower[colIdx]) * direction(colIdx);
+        for (int i = 0; i < freeVars.length; i++)
+            freeVars[i] -= column[i] * shift;
+        atUpper[colIdx] = !atUpper[colIdx];
+    }
+
+    /** {@code +1} when the non-basic variable can only grow, {@code -1} when it sits on its upper bound. */
+    protected double direction(int var) {
+        return atUpper[var] ? -1 : 1;
+    }
+
+    /**
+     * Bounded primal ratio test for the entering {@code colIdx}: the row whose basic variable hits
+     * one of its bounds first, or {@code -1} when the entering variable reaches its own other bound
+     * before that.
+     */
+    protected int findKeyRow(int colIdx, double[] column) {
+        int idx = -1;
+        double leastEstimation = upper[colIdx] - lower[colIdx];
+        double direction = direction(colIdx);
 
-                double multiplier = - constraints[i][colIdx];
-                for (int j = 0; j < constraints[rowIdx].length; j++)
-                    constraints[i][j] += constraints[rowIdx][j] * multiplier;
+        for (int i = 0; i < column.length; i++) {
+            int var = basicVars[i];
+            double element = column[i] * direction;
+            if (element > EPSILON && (freeVars[i] - lower[var]) / element <= leastEstimation) {
+                idx = i;
+                leastEstimation = (freeVars[i] - lower[var]) / element;
+            } else if (element < -EPSILON && upper[var] != Double.POSITIVE_INFINITY
+                    && (upper[var] - freeVars[i]) / -element <= leastEstimation) {
+                idx = i;
+                leastEstimation = (upper[var] - freeVars[i]) / -element;
             }
+        }
+        if (idx == -1 && leastEstimation == Double.POSITIVE_INFINITY)
+            throw new IllegalArgumentException("There is no optimal plan (F → ∞)");
+        return idx;
+    }
+
+    /** The non-basic variable whose move off its bound improves the objective the most, by the {@link #pricing}. */
+    protected int findEnteringColumn(double[] indexRow) {
+        if (pricing != Pricing.PARTIAL) {
+            priceColumns(indexRow, 0, indexRow.length);
+            return findEnteringColumn(indexRow, 0, indexRow.length);
+        }
+        int block = max(PARTIAL_BLOCK, indexRow.length / PARTIAL_BLOCKS);
+        int blocks = (indexRow.length + block - 1) / block;
+        for (int k = 0; k < blocks; k++) {
+            int from = (nextBlock + k) % blocks * block;
+            int to = min(from + block, indexRow.length);
+            priceColumns(indexRow, from, to);
+            int idx = findEnteringColumn(indexRow, from, to);
+            if (idx != -1) {
+                nextBlock = (nextBlock + k + 1) % blocks;
+                return idx;
+            }
+        }
+        return -1;
+    }
+
+    private int findEnteringColumn(double[] indexRow, int from, int to) {
+        int idx = -1;
+        double largest = 0;
+        for (int i = from; i < to; i++) {
+            double gain = atUpper[i] ? indexRow[i] : -indexRow[i];
+            if (gain <= OPTIMALITY_TOLERANCE || lower[i] == upper[i])
+                continue;
+            if (weights != null)
+                gain *= gain / weights[i];
+            if (gain > largest) {
+                largest = gain;
+                idx = i;
+            }
+        }
+        return idx;
+    }
+
+    /**
+     * Fills {@code indexRow} from {@code from} to {@code to} for engines that price lazily; the
+     * tableau keeps the whole row up to date.
+     */
+    protected void priceColumns(double[] indexRow, int from, int to) {
+    }
+
+    protected double[] calculateIndexRow(double[] basicVarCoEffs) {
+        int length = tableau.cols();
+        double[] indexRow = new double[length];
+
+        // row by row, so the tableau is swept in memory order; slack rows have zero cost
+        for (int j = 0; j < basicVarCoEffs.length; j++)
+            if (basicVarCoEffs[j] != 0)
+                tableau.addRowTo(indexRow, j, basicVarCoEffs[j]);
+        Kernels.axpy(-1, objective, 0, indexRow, 0, length);
+        return indexRow;
     }
 
     protected double calculateObjectiveValue(double[] basicVarCoEffs) {
@@ -112,11 +787,25 @@ public abstract class BaseSimplex {
         for (int i = 0; i < basicVarCoEffs.length; i++) {
             sum += basicVarCoEffs[i] * freeVars[i];
         }
+        boolean[] basic = new boolean[objective.length];
+        for (int var : basicVars)
+            basic[var] = true;
+        for (int j = 0; j < objective.length; j++)
+            if (!basic[j] && nonbasicValue(j) != 0)
+                sum += objective[j] * nonbasicValue(j);
         return sum;
     }
 
-    protected static double[][] cloneMatrix(double[][] matrix) {
-        return Arrays.stream(matrix).map(double[]::clone)
-                .toArray(double[][]::new);
+    protected static int indexOf(int[] array, int value) {
+        for (int i = 0; i < array.length; i++)
+            if (array[i] == value)
+                return i;
+        return -1;
+    }
+
+    protected static double[] append(double[] array, double value) {
+        double[] output = copyOf(array, array.length + 1);
+        output[array.length] = value;
+        return output;
     }
-}
\ No newline at end of file
+}
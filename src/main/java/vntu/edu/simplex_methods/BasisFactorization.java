@@ -0,0 +1,267 @@
+package vntu.edu.simplex_methods;
+
+import java.util.Arrays;
+
+import static java.lang.Math.abs;
+
+/**
+ * LU factorization of a simplex basis with product-form (eta) updates.
+ * <p>
+ * Slack columns of the basis are unit vectors, so only the kernel is factorized: the structural
+ * basic columns restricted to the rows whose slack is not basic. The kernel gets a dense LU with
+ * partial pivoting; the rows covered by basic slacks are resolved by substitution. Every pivot
+ * after that appends one sparse eta column until the owner refactorizes.
+ */
+final class BasisFactorization {
+    private static final double SINGULARITY_TOLERANCE = 1e-11;
+
+    private final int rows;
+    private final int[] slackPosition;
+    private final int[] kernelRows;
+    private final int[] kernelPositions;
+    private final int[][] entryRows;
+    private final double[][] entryValues;
+    private final double[][] lu;
+    private final int[] permutation;
+
+    private int[] etaPivot = new int[8];
+    private double[] etaPivotValue = new double[8];
+    private int[][] etaIndex = new int[8][];
+    private double[][] etaValue = new double[8][];
+    private int etaCount;
+
+    /**
+     * @param basicVars   variable in every basis position
+     * @param structural  number of structural variables, the slack of row {@code i} is {@code structural + i}
+     * @param columns     sparse structural columns: {@code columns.rows(j)} and {@code columns.values(j)}
+     */
+    BasisFactorization(int[] basicVars, int structural, Columns columns) {
+        rows = basicVars.length;
+        slackPosition = new int[rows];
+        Arrays.fill(slackPosition, -1);
+        int kernelSize = 0;
+        for (int p = 0; p < rows; p++)
+            if (basicVars[p] >= structural)
+                slackPosition[basicVars[p] - structural] = p;
+            else
+                kernelSize++;
+
+        kernelRows = new int[kernelSize];
+        kernelPositions = new int[kernelSize];
+        int[] kernelIndexOfRow = new int[rows];
+        Arrays.fill(kernelIndexOfRow, -1);
+        for (int i = 0, r = 0; i < rows; i++)
+            if (slackPosition[i] == -1) {
+                if (r == kernelSize)
+                    throw new IllegalStateException("Singular basis");
+                kernelIndexOfRow[i] = r;
+                kernelRows[r++] = i;
+            }
+
+        entryRows = new int[kernelSize][];
+        entryValues = new double[kernelSize][];
+        lu = new double[kernelSize][kernelSize];
+        for (int p = 0, c = 0; p < rows; p++) {
+            if (basicVars[p] >= structural)
+                continue;
+            kernelPositions[c] = p;
+            entryRows[c] = columns.rows(basicVars[p]);
+            entryValues[c] = columns.values(basicVars[p]);
+            for (int k = 0; k < entryRows[c].length; k++) {
+                int r = kernelIndexOfRow[entryRows[c][k]];
+                if (r != -1)
+                    lu[r][c] = entryValues[c][k];
+            }
+            c++;
+        }
+        permutation = new int[kernelSize];
+        factorize();
+    }
+
+    /** Copy that shares the LU factors and continues with its own eta file. */
+    private BasisFactorization(BasisFactorization other) {
+        rows = other.rows;
+        slackPosition = other.slackPosition;
+        kernelRows = other.kernelRows;
+        kernelPositions = other.kernelPositions;
+        entryRows = other.entryRows;
+        entryValues = other.entryValues;
+        lu = other.lu;
+        permutation = other.permutation;
+        etaPivot = other.etaPivot.clone();
+        etaPivotValue = other.etaPivotValue.clone();
+        etaIndex = other.etaIndex.clone();
+        etaValue = other.etaValue.clone();
+        etaCount = other.etaCount;
+    }
+
+    BasisFactorization copy() {
+        return new BasisFactorization(this);
+    }
+
+    int etaCount() {
+        return etaCount;
+    }
+
+    /** Solves {@code B x = v}; {@code v} is indexed by row, the result by basis position. */
+    double[] ftran(double[] v) {
+        double[] x = new double[rows];
+        int kernelSize = kernelRows.length;
+        double[] z = new double[kernelSize];
+        for (int r = 0; r < kernelSize; r++)
+            z[r] = v[kernelRows[permutation[r]]];
+        solveLu(z);
+
+        double[] covered = new double[rows];
+        for (int c = 0; c < kernelSize; c++) {
+            x[kernelPositions[c]] = z[c];
+            if (z[c] == 0)
+                continue;
+            for (int k = 0; k < entryRows[c].length; k++)
+                covered[entryRows[c][k]] += entryValues[c][k] * z[c];
+        }
+        for (int i = 0; i < rows; i++)
+            if (slackPosition[i] != -1)
+                x[slackPosition[i]] = v[i] - covered[i];
+
+        for (int e = 0; e < etaCount; e++) {
+            int r = etaPivot[e];
+            double xr = x[r] / etaPivotValue[e];
+            if (xr != 0)
+                for (int k = 0; k < etaIndex[e].length; k++)
+                    x[etaIndex[e][k]] -= etaValue[e][k] * xr;
+            x[r] = xr;
+        }
+        return x;
+    }
+
+    /** Solves {@code y B = w}; {@code w} is indexed by basis position, the result by row. */
+    double[] btran(double[] w) {
+        double[] u = Arrays.copyOf(w, rows);
+        for (int e = etaCount - 1; e >= 0; e--) {
+            int r = etaPivot[e];
+            double sum = u[r];
+            for (int k = 0; k < etaIndex[e].length; k++)
+                sum -= etaValue[e][k] * u[etaIndex[e][k]];
+            u[r] = sum / etaPivotValue[e];
+        }
+
+        double[] y = new double[rows];
+        for (int i = 0; i < rows; i++)
+            if (slackPosition[i] != -1)
+                y[i] = u[slackPosition[i]];
+        int kernelSize = kernelRows.length;
+        double[] t = new double[kernelSize];
+        for (int c = 0; c < kernelSize; c++) {
+            double sum = u[kernelPositions[c]];
+            for (int k = 0; k < entryRows[c].length; k++) {
+                int i = entryRows[c][k];
+                if (slackPosition[i] != -1)
+                    sum -= y[i] * entryValues[c][k];
+            }
+            t[c] = sum;
+        }
+        solveLuTransposed(t);
+        for (int r = 0; r < kernelSize; r++)
+            y[kernelRows[permutation[r]]] = t[r];
+        return y;
+    }
+
+    /** Records the pivot on basis position {@code pivot} with the entering column {@code alpha = ftran(a_q)}. */
+    void update(int pivot, double[] alpha) {
+        if (etaCount == etaPivot.length) {
+            int capacity = etaCount * 2;
+            etaPivot = Arrays.copyOf(etaPivot, capacity);
+            etaPivotValue = Arrays.copyOf(etaPivotValue, capacity);
+            etaIndex = Arrays.copyOf(etaIndex, capacity);
+            etaValue = Arrays.copyOf(etaValue, capacity);
+        }
+        int size = 0;
+        for (int i = 0; i < rows; i++)
+            if (i != pivot && alpha[i] != 0)
+                size++;
+        int[] index = new int[size];
+        double[] value = new double[size];
+        for (int i = 0, k = 0; i < rows; i++)
+            if (i != pivot && alpha[i] != 0) {
+                index[k] = i;
+                value[k++] = alpha[i];
+            }
+        etaPivot[etaCount] = pivot;
+        etaPivotValue[etaCount] = alpha[pivot];
+        etaIndex[etaCount] = index;
+        etaValue[etaCount++] = value;
+    }
+
+    private void factorize() {
+        int n = lu.length;
+        for (int r = 0; r < n; r++)
+            permutation[r] = r;
+        for (int k = 0; k < n; k++) {
+            int best = k;
+            for (int r = k + 1; r < n; r++)
+                if (abs(lu[r][k]) > abs(lu[best][k]))
+                    best = r;
+            if (abs(lu[best][k]) < SINGULARITY_TOLERANCE)
+                throw new IllegalStateException("Singular basis");
+            if (best != k) {
+                double[] row = lu[best];
+                lu[best] = lu[k];
+                lu[k] = row;
+                int idx = permutation[best];
+                permutation[best] = permutation[k];
+                permutation[k] = idx;
+            }
+            double[] pivotRow = lu[k];
+            for (int r = k + 1; r < n; r++) {
+                double[] row = lu[r];
+                if (row[k] == 0)
+                    continue;
+                double multiplier = row[k] / pivotRow[k];
+                row[k] = multiplier;
+                Kernels.axpy(-multiplier, pivotRow, k + 1, row, k + 1, n - k - 1);
+            }
+        }
+    }
+
+    /** Solves {@code L U z = z} in place, {@code z} already permuted. */
+    private void solveLu(double[] z) {
+        int n = lu.length;
+        for (int r = 1; r < n; r++) {
+            double sum = z[r];
+            for (int c = 0; c < r; c++)
+                sum -= lu[r][c] * z[c];
+            z[r] = sum;
+        }
+        for (int r = n - 1; r >= 0; r--) {
+            double sum = z[r];
+            for (int c = r + 1; c < n; c++)
+                sum -= lu[r][c] * z[c];
+            z[r] = sum / lu[r][r];
+        }
+    }
+
+    /** Solves {@code U^T L^T t = t} in place; the caller undoes the permutation. */
+    private void solveLuTransposed(double[] t) {
+        int n = lu.length;
+        for (int c = 0; c < n; c++) {
+            double sum = t[c];
+            for (int r = 0; r < c; r++)
+                sum -= lu[r][c] * t[r];
+            t[c] = sum / lu[c][c];
+        }
+        for (int c = n - 1; c >= 0; c--) {
+            double sum = t[c];
+            for (int r = c + 1; r < n; r++)
+                sum -= lu[r][c] * t[r];
+            t[c] = sum;
+        }
+    }
+
+    /** Sparse access to the structural columns of the basis. */
+    interface Columns {
+        int[] rows(int var);
+
+        double[] values(int var);
+    }
+}
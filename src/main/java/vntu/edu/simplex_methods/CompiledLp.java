@@ -0,0 +1,82 @@
+package vntu.edu.simplex_methods;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import vntu.edu.Solution;
+
+import static java.util.Arrays.copyOf;
+
+/**
+ * A solved LP kept for solving the same constraints again with other right-hand sides or another
+ * objective. The canonical form, its scaling and the last optimal basis stay in place, so
+ * {@link #resolve} repairs a right-hand side change with dual pivots and an objective change
+ * with primal pivots instead of starting over from the slack basis. Not thread-safe.
+ */
+@Getter
+public final class CompiledLp {
+    private final boolean max;
+    /** The LP of the last optimum; its bounds, reduced costs and rows can be read. */
+    private BaseSimplex lp;
+    private Solution solution;
+    /** Pivots of the last solve or resolve. */
+    private int pivots;
+    @Getter(AccessLevel.NONE)
+    private double[] pendingRhs;
+    @Getter(AccessLevel.NONE)
+    private double[] pendingObjective;
+
+    /**
+     * Solves {@code lp}, an engine that has not been solved yet, with its upper bounds, pricing and
+     * scaling already set; throws {@link IllegalArgumentException} like {@link BaseSimplex#solve}.
+     */
+    public CompiledLp(BaseSimplex lp, boolean max) {
+        this.max = max;
+        this.solution = lp instanceof DualSimplex dual ? dual.solveToOptimum(max) : lp.solve(max);
+        this.lp = lp;
+        this.pivots = lp.getPivots();
+    }
+
+    /** Replaces the right-hand sides of the rows, with the signs of the constructor, for the next {@link #resolve}. */
+    public void updateRhs(double[] freeVars) {
+        pendingRhs = copyOf(freeVars, freeVars.length);
+    }
+
+    /** Replaces the objective, minimized or maximized as the first solve, for the next {@link #resolve}. */
+    public void updateObjective(double[] objective) {
+        pendingObjective = copyOf(objective, objective.length);
+    }
+
+    /**
+     * Optimizes again after the updates since the last call: dual pivots for the right-hand sides,
+     * then primal pivots for the objective. When the updated LP has no optimum this throws
+     * {@link IllegalArgumentException}, drops the updates and keeps the last optimum.
+     */
+    public Solution resolve() {
+        try {
+            BaseSimplex next = lp;
+            Solution result = solution;
+            int count = 0;
+            if (pendingRhs != null) {
+                next = next.withRhs(pendingRhs);
+                result = next.reoptimize();
+                count += next.getPivots();
+            }
+            if (pendingObjective != null) {
+                double[] objective = pendingObjective;
+                if (!max)
+                    for (int j = 0; j < objective.length; j++)
+                        objective[j] = -objective[j];
+                next = next.withObjective(objective);
+                result = next.reoptimize();
+                count += next.getPivots();
+            }
+            lp = next;
+            solution = result;
+            pivots = count;
+            return solution;
+        } finally {
+            pendingRhs = null;
+            pendingObjective = null;
+        }
+    }
+}
@@ -1,26 +1,54 @@
 package vntu.edu.simplex_methods;
 
 import vntu.edu.Solution;
-import static java.lang.Math.abs;
 
 public class DualSimplex extends BaseSimplex {
     public DualSimplex(double[][] constraints, boolean[] signs, double[] freeVars, double[] objective) {
         super(constraints, signs, freeVars, objective);
     }
 
+    public DualSimplex(SparseMatrix constraints, boolean[] signs, double[] freeVars, double[] objective) {
+        super(constraints, signs, freeVars, objective);
+    }
+
     @Override
     public Solution solve(boolean max) {
-        int[] basicVars = getBasicVars();
+        return solve(max, false);
+    }
+
+    /**
+     * The slack basis is not always dual feasible, so the dual pass alone may stop at a feasible
+     * but non-optimal plan; this variant finishes it with primal pivots.
+     */
+    public Solution solveToOptimum(boolean max) {
+        return solve(max, true);
+    }
+
+    DualSimplex(Tableau tableau, BaseSimplex basis) {
+        super(tableau, basis);
+    }
+
+    private Solution solve(boolean max, boolean toOptimum) {
+        basicVars = getBasicVars();
         standardToCanonicalForm(max);
-        double[] basicVarCoEffs = new double[constraints.length];
+        basicVarCoEffs = new double[tableau.rows()];
+
+        if (toOptimum) {
+            dualIterations();
+            primalIterations(basicVars, basicVarCoEffs);
+        } else {
+            estimateIterations();
+        }
+        return getSolution();
+    }
 
+    private void estimateIterations() {
         while (true) {
             int rowIdx = findResolvingRow();
             if (rowIdx == -1) break;
 
             double[] indexRow = calculateIndexRow(basicVarCoEffs);
-            double[] estimates = calculateEstimates(indexRow, rowIdx);
-            int colIdx = findResolvingColumn(estimates, rowIdx);
+            int colIdx = findResolvingColumn(calculateEstimates(indexRow, rowIdx), rowIdx);
             if (colIdx == -1)
                 throw new IllegalArgumentException("There is no optimal plan (F → ∞)");
 
@@ -29,39 +57,13 @@ public class DualSimplex extends BaseSimplex {
             basicVars[rowIdx] = colIdx;
             addRows(rowIdx, colIdx);
         }
-        Solution solution = new Solution(calculateObjectiveValue(basicVarCoEffs), getOptimalPlan(basicVars));
-        System.out.println(solution);
-        return solution;
-    }
-
-    private int findResolvingRow() {
-        int idx = -1;
-        double saved = Double.MIN_VALUE;
-
-        for (int i = 0; i < freeVars.length; i++)
-            if (freeVars[i] < 0 && abs(freeVars[i]) > abs(saved)) {
-                saved = freeVars[i];
-                idx = i;
-            }
-        return idx;
-    }
-
-    private double[] calculateIndexRow(double[] basicVarCoEffs) {
-        double[] indexRow = new double[constraints[0].length];
-        for (int i = 0; i < constraints[0].length; i++) {
-            double sum = 0;
-            for (int j = 0; j < basicVarCoEffs.length; j++)
-                sum += constraints[j][i] * basicVarCoEffs[j];
-            indexRow[i] = sum - objective[i];
-        }
-        return indexRow;
     }
 
     private double[] calculateEstimates(double[] indexRow, int idx) {
         int length = objective.length;
         double[] estimates = new double[length];
         for (int i = 0; i < length; i++)
-            estimates[i] = -indexRow[i] / constraints[idx][i];
+            estimates[i] = -indexRow[i] / tableau.get(idx, i);
         return estimates;
     }
 
@@ -72,9 +74,9 @@ public class DualSimplex extends BaseSimplex {
             if (estimates[i] > 0 && estimates[i] < saved) {
                 saved = estimates[i];
                 idx = i;
-            } else if (estimates[i] == saved && rowIdx < constraints.length - 1) {
-                double lastDivision = constraints[rowIdx + 1][idx] / constraints[rowIdx][idx];
-                double newDivision = constraints[rowIdx + 1][i] / constraints[rowIdx][i];
+            } else if (estimates[i] == saved && rowIdx < tableau.rows() - 1) {
+                double lastDivision = tableau.get(rowIdx + 1, idx) / tableau.get(rowIdx, idx);
+                double newDivision = tableau.get(rowIdx + 1, i) / tableau.get(rowIdx, i);
                 idx =  (lastDivision > 0 && lastDivision < newDivision) ? idx : i;
             }
         }
@@ -0,0 +1,94 @@
+package vntu.edu.simplex_methods;
+
+/**
+ * Dense loops of the simplex engines: AXPY row updates and row scaling. They run on the Vector
+ * API ({@code jdk.incubator.vector}) when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}, and as plain loops otherwise or with
+ * {@code -Dvntu.edu.vector=false}. The vector code multiplies and adds lane by lane without
+ * fusing, so both give bit-identical results and the switch only changes the speed.
+ */
+public final class Kernels {
+    private static final String PROPERTY = "vntu.edu.vector";
+    private static final Implementation SCALAR = new Scalar();
+    private static final Implementation VECTOR = loadVector();
+
+    /** Read by every solver thread, so a switch made while others solve is seen by their next LP. */
+    private static volatile Implementation current =
+            VECTOR != null && Boolean.parseBoolean(System.getProperty(PROPERTY, "true")) ? VECTOR : SCALAR;
+
+    private Kernels() {
+    }
+
+    /** Whether the Vector API could be loaded. */
+    public static boolean isVectorAvailable() {
+        return VECTOR != null;
+    }
+
+    public static boolean isVectorized() {
+        return current == VECTOR;
+    }
+
+    /**
+     * Switches between the vector and the scalar loops for the LPs solved afterwards; returns
+     * whether the vector loops are used, which they cannot be without the module.
+     */
+    public static boolean setVectorized(boolean vectorized) {
+        Implementation chosen = vectorized && VECTOR != null ? VECTOR : SCALAR;
+        current = chosen;
+        return chosen == VECTOR;
+    }
+
+    /** {@code y[yOffset + j] += x[xOffset + j] * a} for {@code j < length}; {@code x} and {@code y} may be one array. */
+    static void axpy(double a, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        current.axpy(a, x, xOffset, y, yOffset, length);
+    }
+
+    /** {@code x[offset + j] *= factor} for {@code j < length}. */
+    static void scale(double[] x, int offset, int length, double factor) {
+        current.scale(x, offset, length, factor);
+    }
+
+    /** {@code x[offset + j] /= divider} for {@code j < length}. */
+    static void divide(double[] x, int offset, int length, double divider) {
+        current.divide(x, offset, length, divider);
+    }
+
+    private static Implementation loadVector() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+            return null;
+        try {
+            return (Implementation) Class.forName(Kernels.class.getPackageName() + ".VectorKernels")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    interface Implementation {
+        void axpy(double a, double[] x, int xOffset, double[] y, int yOffset, int length);
+
+        void scale(double[] x, int offset, int length, double factor);
+
+        void divide(double[] x, int offset, int length, double divider);
+    }
+
+    private static final class Scalar implements Implementation {
+        @Override
+        public void axpy(double a, double[] x, int xOffset, double[] y, int yOffset, int length) {
+            for (int j = 0; j < length; j++)
+                y[yOffset + j] += x[xOffset + j] * a;
+        }
+
+        @Override
+        public void scale(double[] x, int offset, int length, double factor) {
+            for (int j = offset; j < offset + length; j++)
+                x[j] *= factor;
+        }
+
+        @Override
+        public void divide(double[] x, int offset, int length, double divider) {
+            for (int j = offset; j < offset + length; j++)
+                x[j] /= divider;
+        }
+    }
+}
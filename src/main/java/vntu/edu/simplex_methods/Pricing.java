@@ -0,0 +1,23 @@
+package vntu.edu.simplex_methods;
+
+/** How the primal simplex picks the entering column among those with an improving reduced cost. */
+public enum Pricing {
+    /** The largest reduced cost. */
+    DANTZIG,
+    /**
+     * The largest reduced cost within the first block of columns that has a candidate, searching
+     * on from the block the last pick came from; {@link RevisedSimplex} prices only those blocks.
+     */
+    PARTIAL,
+    /**
+     * The largest {@code d_j² / w_j} with Devex reference weights, which approximate the edge
+     * norms and are reset to {@code 1} whenever primal pivots start.
+     */
+    DEVEX,
+    /**
+     * The largest {@code d_j² / γ_j} with the exact edge norms {@code γ_j = 1 + ‖B⁻¹a_j‖²}, computed
+     * when primal pivots start and updated at every pivot; the most expensive iteration, usually
+     * the fewest of them.
+     */
+    STEEPEST_EDGE
+}
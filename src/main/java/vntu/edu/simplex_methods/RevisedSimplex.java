@@ -0,0 +1,390 @@
+package vntu.edu.simplex_methods;
+
+import vntu.edu.Solution;
+
+import java.util.Arrays;
+
+import static java.util.Arrays.copyOf;
+
+/**
+ * Revised simplex method. No tableau is kept: the constraints stay in the sparse matrix and the
+ * basis is held as a {@link BasisFactorization}, refactorized every {@value #REFACTOR_INTERVAL}
+ * pivots. An iteration computes the pricing row with one BTRAN and only the entering column with
+ * one FTRAN, so its cost follows the non-zeros it touches instead of the m×(n+m) tableau.
+ * <p>
+ * Like {@link DualSimplex#solveToOptimum}, dual pivots first repair negative right-hand sides
+ * and primal pivots then reach the optimum.
+ */
+public class RevisedSimplex extends BaseSimplex {
+    private static final int REFACTOR_INTERVAL = 64;
+    private static final double OPTIMALITY_TOLERANCE = 1e-9;
+
+    private int[] position;
+    private BasisFactorization factor;
+    /** {@code c_B B⁻¹} of the current primal iteration, for {@link #priceColumns}. */
+    private double[] prices;
+
+    public RevisedSimplex(double[][] constraints, boolean[] signs, double[] freeVars, double[] objective) {
+        this(SparseMatrix.of(constraints), signs, freeVars, objective);
+    }
+
+    public RevisedSimplex(SparseMatrix constraints, boolean[] signs, double[] freeVars, double[] objective) {
+        super(null, constraints, signs, freeVars, objective);
+    }
+
+    private RevisedSimplex(RevisedSimplex parent) {
+        super(null, parent.matrix, parent.signs, parent.freeVars, parent.objective);
+        this.rowSigns = parent.rowSigns;
+        this.rhs = parent.rhs;
+        this.cutRows = parent.cutRows;
+        this.cutRhs = parent.cutRhs;
+        this.basicVars = copyOf(parent.basicVars, parent.basicVars.length);
+        this.basicVarCoEffs = copyOf(parent.basicVarCoEffs, parent.basicVarCoEffs.length);
+        this.position = copyOf(parent.position, parent.position.length);
+        this.lower = copyOf(parent.lower, parent.lower.length);
+        this.upper = copyOf(parent.upper, parent.upper.length);
+        this.atUpper = copyOf(parent.atUpper, parent.atUpper.length);
+        this.factor = parent.factor == null ? null : parent.factor.copy();
+        this.pricing = parent.pricing;
+        this.scaling = parent.scaling;
+        this.scale = parent.scale;
+        this.rowScale = parent.rowScale;
+    }
+
+    @Override
+    public Solution solve(boolean max) {
+        toCanonicalForm(max);
+        dualIterations();
+        primalIterations(basicVars, basicVarCoEffs);
+        return getSolution();
+    }
+
+    /**
+     * The child shares the matrix and the right-hand side, copies the basis together with its
+     * factorization and only tightens the bounds, so it continues with dual pivots right away.
+     */
+    @Override
+    protected BaseSimplex copyForBounds() {
+        return new RevisedSimplex(this);
+    }
+
+    @Override
+    protected void shiftBasicVars(int var, double shift) {
+        if (shift == 0 || factor == null)
+            return;
+        double[] alpha = factor.ftran(column(var));
+        for (int i = 0; i < alpha.length; i++)
+            freeVars[i] -= alpha[i] * shift;
+    }
+
+    /** The new rows only extend the basis by their slacks; the child refactorizes before its first pivot. */
+    @Override
+    public BaseSimplex withConstraints(double[][] rows, double[] rhs) {
+        RevisedSimplex child = new RevisedSimplex(this);
+        child.pivots = pivots;
+        double[] plan = getOptimalPlan(basicVars);
+        for (int k = 0; k < rows.length; k++) {
+            child.position = copyOf(child.position, child.objective.length + 1);
+            child.position[child.objective.length] = child.basicVars.length;
+            child.appendConstraint(scaleRow(rows[k]), rhs[k], plan);
+        }
+        child.factor = null;
+        return child;
+    }
+
+    @Override
+    public BaseSimplex withObjective(double[] objective) {
+        RevisedSimplex child = new RevisedSimplex(this);
+        child.replaceObjective(objective);
+        return child;
+    }
+
+    @Override
+    public BaseSimplex withRhs(double[] freeVars) {
+        RevisedSimplex child = new RevisedSimplex(this);
+        child.replaceRhs(freeVars);
+        return child;
+    }
+
+    /** One FTRAN of the new right-hand side, or none when the child refactorizes anyway. */
+    @Override
+    protected void replaceRhs(double[] freeVars) {
+        rhs = canonicalRhs(freeVars);
+        if (factor != null)
+            this.freeVars = factor.ftran(effectiveRhs());
+    }
+
+    @Override
+    protected double[] basisRow(int row) {
+        if (factor == null)
+            refactor();
+        double[] unit = new double[basicVars.length];
+        unit[row] = 1;
+        double[] y = factor.btran(unit);
+        double[] output = new double[objective.length];
+        for (int j = 0; j < output.length; j++)
+            output[j] = dotColumn(y, j);
+        return output;
+    }
+
+    @Override
+    public double[][] getConstraints() {
+        double[][] constraints = new double[matrix.rows()][];
+        for (int i = 0; i < matrix.rows(); i++) {
+            constraints[i] = matrix.row(i);
+            if (rowSigns != null && rowSigns[i] < 0)
+                for (int j = 0; j < structural; j++)
+                    constraints[i][j] = -constraints[i][j];
+        }
+        return constraints;
+    }
+
+    private int[] columnRows(int var) {
+        int from = matrix.colStart(var);
+        int length = matrix.colStart(var + 1) - from;
+        int[] output = new int[length + cutCount(var)];
+        for (int k = 0; k < length; k++)
+            output[k] = matrix.rowIndex(from + k);
+        for (int c = 0; c < cutRows.length; c++)
+            if (cutRows[c][var] != 0)
+                output[length++] = matrix.rows() + c;
+        return output;
+    }
+
+    private double[] columnValues(int var) {
+        int from = matrix.colStart(var);
+        int length = matrix.colStart(var + 1) - from;
+        double[] output = new double[length + cutCount(var)];
+        for (int k = 0; k < length; k++)
+            output[k] = entry(from + k, var);
+        for (double[] cut : cutRows)
+            if (cut[var] != 0)
+                output[length++] = cut[var];
+        return output;
+    }
+
+    private int cutCount(int var) {
+        int count = 0;
+        for (double[] cut : cutRows)
+            if (cut[var] != 0)
+                count++;
+        return count;
+    }
+
+    private void toCanonicalForm(boolean max) {
+        int rows = matrix.rows();
+        int cols = structural + rows;
+        rowSigns = new double[rows];
+        rhs = new double[rows];
+        initScaling();
+        for (int i = 0; i < rows; i++) {
+            rowSigns[i] = signs[i] ? -1 : 1;
+            rhs[i] = rowSigns[i] * freeVars[i] * rowScale[i];
+            signs[i] = false;
+        }
+        double[] extended = new double[cols];
+        for (int j = 0; j < objective.length; j++)
+            extended[j] = (max ? objective[j] : -objective[j]) * scale[j];
+        objective = extended;
+
+        basicVars = new int[rows];
+        basicVarCoEffs = new double[rows];
+        position = new int[cols];
+        Arrays.fill(position, -1);
+        for (int i = 0; i < rows; i++) {
+            basicVars[i] = structural + i;
+            position[structural + i] = i;
+        }
+        freeVars = copyOf(rhs, rows);
+        initBounds(cols);
+        factor = null;
+    }
+
+    private void refactor() {
+        factor = new BasisFactorization(basicVars, structural, new BasisFactorization.Columns() {
+            @Override
+            public int[] rows(int var) {
+                return columnRows(var);
+            }
+
+            @Override
+            public double[] values(int var) {
+                return columnValues(var);
+            }
+        });
+        freeVars = factor.ftran(effectiveRhs());
+    }
+
+    /** Right-hand side with the non-basic variables that sit on non-zero bounds moved over. */
+    private double[] effectiveRhs() {
+        double[] output = copyOf(rhs, rhs.length + cutRhs.length);
+        System.arraycopy(cutRhs, 0, output, rhs.length, cutRhs.length);
+        for (int j = 0; j < objective.length; j++) {
+            double value = position[j] == -1 ? nonbasicValue(j) : 0;
+            if (value == 0)
+                continue;
+            if (j >= structural) {
+                output[j - structural] -= value;
+                continue;
+            }
+            for (int k = matrix.colStart(j); k < matrix.colStart(j + 1); k++)
+                output[matrix.rowIndex(k)] -= entry(k, j) * value;
+            for (int c = 0; c < cutRows.length; c++)
+                output[rhs.length + c] -= cutRows[c][j] * value;
+        }
+        return output;
+    }
+
+    /** {@code y · a_j} for a column of the canonical form, slacks included. */
+    private double dotColumn(double[] y, int var) {
+        if (var >= structural)
+            return y[var - structural];
+        double sum = 0;
+        for (int k = matrix.colStart(var); k < matrix.colStart(var + 1); k++)
+            sum += y[matrix.rowIndex(k)] * entry(k, var);
+        for (int c = 0; c < cutRows.length; c++)
+            sum += y[matrix.rows() + c] * cutRows[c][var];
+        return sum;
+    }
+
+    private double[] column(int var) {
+        double[] output = new double[basicVars.length];
+        if (var >= structural) {
+            output[var - structural] = 1;
+            return output;
+        }
+        for (int k = matrix.colStart(var); k < matrix.colStart(var + 1); k++)
+            output[matrix.rowIndex(k)] = entry(k, var);
+        for (int c = 0; c < cutRows.length; c++)
+            output[matrix.rows() + c] = cutRows[c][var];
+        return output;
+    }
+
+    /** Entry {@code k} of the column-major matrix, in column {@code var}, as it stands in the canonical form. */
+    private double entry(int k, int var) {
+        int i = matrix.rowIndex(k);
+        return matrix.colValue(k) * rowSigns[i] * rowScale[i] * scale[var];
+    }
+
+    @Override
+    protected void dualIterations() {
+        if (factor == null)
+            refactor();
+        while (true) {
+            int rowIdx = findResolvingRow();
+            if (rowIdx == -1) break;
+
+            double[] unit = new double[basicVars.length];
+            unit[rowIdx] = 1;
+            double[] pivotRow = factor.btran(unit);
+            double[] prices = factor.btran(basicVarCoEffs);
+            double[] row = new double[objective.length];
+            double[] indexRow = new double[objective.length];
+            for (int j = 0; j < objective.length; j++)
+                if (position[j] == -1) {
+                    row[j] = dotColumn(pivotRow, j);
+                    indexRow[j] = dotColumn(prices, j) - objective[j];
+                }
+
+            boolean toUpper = freeVars[rowIdx] > upper[basicVars[rowIdx]];
+            int colIdx = findRatioColumn(row, indexRow, rowIdx, toUpper);
+            if (colIdx == -1)
+                throw new IllegalArgumentException("There is no optimal plan (F → ∞)");
+            pivot(rowIdx, colIdx, factor.ftran(column(colIdx)), toUpper);
+        }
+    }
+
+    @Override
+    protected void primalIterations(int[] basicVars, double[] basicVarCoEffs) {
+        if (factor == null)
+            refactor();
+        weights = initialWeights();
+        while (true) {
+            prices = factor.btran(basicVarCoEffs);
+            int colIdx = findEnteringColumn(new double[objective.length]);
+            if (colIdx == -1)
+                break;
+
+            double[] alpha = factor.ftran(column(colIdx));
+            int rowIdx = findKeyRow(colIdx, alpha);
+            if (rowIdx == -1) {
+                flipBound(colIdx, alpha);
+                continue;
+            }
+            if (weights != null)
+                updateWeights(basisRow(rowIdx), alpha[rowIdx],
+                        pricing == Pricing.STEEPEST_EDGE ? columnProducts(alpha) : null,
+                        colIdx, basicVars[rowIdx]);
+            pivot(rowIdx, colIdx, alpha, alpha[rowIdx] * direction(colIdx) < 0);
+        }
+        prices = null;
+        weights = null;
+    }
+
+    @Override
+    public double[] getReducedCosts() {
+        if (factor == null)
+            refactor();
+        prices = factor.btran(basicVarCoEffs);
+        double[] output = new double[objective.length];
+        priceColumns(output, 0, structural);
+        prices = null;
+        return unscaleCosts(copyOf(output, structural));
+    }
+
+    /** Reduced costs of the non-basic columns in the range, with one dot product each. */
+    @Override
+    protected void priceColumns(double[] indexRow, int from, int to) {
+        for (int j = from; j < to; j++)
+            if (position[j] == -1) {
+                double reducedCost = dotColumn(prices, j) - objective[j];
+                indexRow[j] = Math.abs(reducedCost) > OPTIMALITY_TOLERANCE ? reducedCost : 0;
+            }
+    }
+
+    /** The edge norms take one FTRAN per non-basic column, so steepest edge is dearest here. */
+    @Override
+    protected double[] initialWeights() {
+        if (pricing != Pricing.STEEPEST_EDGE)
+            return super.initialWeights();
+        double[] output = new double[objective.length];
+        Arrays.fill(output, 1);
+        for (int j = 0; j < output.length; j++)
+            if (position[j] == -1)
+                for (double element : factor.ftran(column(j)))
+                    output[j] += element * element;
+        return output;
+    }
+
+    /** {@code α_j · α_q = (B⁻ᵀα_q) · a_j} for every non-basic column, with one BTRAN. */
+    private double[] columnProducts(double[] alpha) {
+        double[] y = factor.btran(alpha);
+        double[] output = new double[objective.length];
+        for (int j = 0; j < output.length; j++)
+            if (position[j] == -1)
+                output[j] = dotColumn(y, j);
+        return output;
+    }
+
+    private void pivot(int rowIdx, int colIdx, double[] alpha, boolean leavesAtUpper) {
+        int leaving = basicVars[rowIdx];
+        double target = leavesAtUpper ? upper[leaving] : lower[leaving];
+        double theta = (freeVars[rowIdx] - target) / alpha[rowIdx];
+        for (int i = 0; i < freeVars.length; i++)
+            if (i != rowIdx)
+                freeVars[i] -= theta * alpha[i];
+        freeVars[rowIdx] = nonbasicValue(colIdx) + theta;
+        atUpper[leaving] = leavesAtUpper;
+        atUpper[colIdx] = false;
+
+        position[leaving] = -1;
+        basicVars[rowIdx] = colIdx;
+        position[colIdx] = rowIdx;
+        basicVarCoEffs[rowIdx] = objective[colIdx];
+
+        pivots++;
+        factor.update(rowIdx, alpha);
+        if (factor.etaCount() >= REFACTOR_INTERVAL)
+            refactor();
+    }
+}
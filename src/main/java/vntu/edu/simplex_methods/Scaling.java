@@ -0,0 +1,112 @@
+package vntu.edu.simplex_methods;
+
+import java.util.Arrays;
+
+import static java.lang.Math.*;
+
+/**
+ * How the simplex engines scale the rows and columns of the constraints before the first pivot,
+ * so that the entries of the canonical form lie close to {@code 1}. Every factor is a power of
+ * two, so scaling and unscaling are exact and the plans, bounds and rows an LP hands out are
+ * those of the LP as given.
+ */
+public enum Scaling {
+    /** The constraints as given. */
+    NONE,
+    /** Every row, then every column, divided by its largest absolute entry. */
+    EQUILIBRATION,
+    /**
+     * Passes that divide every row, then every column, by the geometric mean of its smallest and
+     * largest absolute entry while they still shrink the spread of the entries noticeably,
+     * followed by {@link #EQUILIBRATION}.
+     */
+    GEOMETRIC_MEAN;
+
+    private static final int MAX_PASSES = 8;
+    /** A pass that shrinks the ratio of the largest to the smallest entry by less than this share ends the passes. */
+    private static final double MIN_IMPROVEMENT = 0.1;
+
+    /** Factors of the rows and of the columns, {@code a'_ij = r_i·a_ij·c_j}, all {@code 1} for {@link #NONE}. */
+    double[][] factors(SparseMatrix matrix) {
+        double[] rows = new double[matrix.rows()];
+        double[] cols = new double[matrix.cols()];
+        Arrays.fill(rows, 1);
+        Arrays.fill(cols, 1);
+        if (this == NONE || matrix.nonZeros() == 0)
+            return new double[][]{rows, cols};
+        if (this == GEOMETRIC_MEAN) {
+            double spread = spread(matrix, rows, cols);
+            for (int pass = 0; pass < MAX_PASSES; pass++) {
+                double[] nextRows = rows.clone();
+                double[] nextCols = cols.clone();
+                scaleRows(matrix, nextRows, nextCols, true);
+                scaleCols(matrix, nextRows, nextCols, true);
+                double next = spread(matrix, nextRows, nextCols);
+                if (next > (1 - MIN_IMPROVEMENT) * spread)
+                    break;
+                rows = nextRows;
+                cols = nextCols;
+                spread = next;
+            }
+        }
+        scaleRows(matrix, rows, cols, false);
+        scaleCols(matrix, rows, cols, false);
+        for (int i = 0; i < rows.length; i++)
+            rows[i] = powerOfTwo(rows[i]);
+        for (int j = 0; j < cols.length; j++)
+            cols[j] = powerOfTwo(cols[j]);
+        return new double[][]{rows, cols};
+    }
+
+    /** Divides every row by the geometric mean of its extreme entries, or by the largest one. */
+    private static void scaleRows(SparseMatrix matrix, double[] rows, double[] cols, boolean geometric) {
+        for (int i = 0; i < rows.length; i++) {
+            double smallest = Double.POSITIVE_INFINITY;
+            double largest = 0;
+            for (int k = matrix.rowStart(i); k < matrix.rowStart(i + 1); k++) {
+                double entry = abs(matrix.value(k)) * rows[i] * cols[matrix.colIndex(k)];
+                if (entry == 0)
+                    continue;
+                smallest = min(smallest, entry);
+                largest = max(largest, entry);
+            }
+            if (largest > 0)
+                rows[i] /= geometric ? sqrt(smallest * largest) : largest;
+        }
+    }
+
+    private static void scaleCols(SparseMatrix matrix, double[] rows, double[] cols, boolean geometric) {
+        for (int j = 0; j < cols.length; j++) {
+            double smallest = Double.POSITIVE_INFINITY;
+            double largest = 0;
+            for (int k = matrix.colStart(j); k < matrix.colStart(j + 1); k++) {
+                double entry = abs(matrix.colValue(k)) * rows[matrix.rowIndex(k)] * cols[j];
+                if (entry == 0)
+                    continue;
+                smallest = min(smallest, entry);
+                largest = max(largest, entry);
+            }
+            if (largest > 0)
+                cols[j] /= geometric ? sqrt(smallest * largest) : largest;
+        }
+    }
+
+    /** Ratio of the largest to the smallest absolute entry of the scaled matrix. */
+    private static double spread(SparseMatrix matrix, double[] rows, double[] cols) {
+        double smallest = Double.POSITIVE_INFINITY;
+        double largest = 0;
+        for (int i = 0; i < rows.length; i++)
+            for (int k = matrix.rowStart(i); k < matrix.rowStart(i + 1); k++) {
+                double entry = abs(matrix.value(k)) * rows[i] * cols[matrix.colIndex(k)];
+                if (entry == 0)
+                    continue;
+                smallest = min(smallest, entry);
+                largest = max(largest, entry);
+            }
+        return largest / smallest;
+    }
+
+    private static double powerOfTwo(double factor) {
+        return scalb(1.0, (int) round(log(factor) / log(2)));
+    }
+}
@@ -0,0 +1,251 @@
+package vntu.edu.simplex_methods;
+
+import java.util.Arrays;
+
+/**
+ * Immutable constraint matrix in compressed sparse row form. The compressed column form is
+ * built on first use, for engines that price column by column.
+ */
+public final class SparseMatrix {
+    private final int rows;
+    private final int cols;
+    private final int[] rowStart;
+    private final int[] colIndex;
+    private final double[] values;
+    private volatile Columns columns;
+
+    private SparseMatrix(int rows, int cols, int[] rowStart, int[] colIndex, double[] values) {
+        this.rows = rows;
+        this.cols = cols;
+        this.rowStart = rowStart;
+        this.colIndex = colIndex;
+        this.values = values;
+    }
+
+    public static SparseMatrix of(double[][] matrix) {
+        Builder builder = builder(matrix.length, matrix[0].length);
+        for (int i = 0; i < matrix.length; i++)
+            for (int j = 0; j < matrix[i].length; j++)
+                builder.add(i, j, matrix[i][j]);
+        return builder.build();
+    }
+
+    public static Builder builder(int rows, int cols) {
+        return new Builder(rows, cols);
+    }
+
+    /** Builder for a matrix whose size is only known at {@link Builder#build(int, int)}, e.g. while a file is read. */
+    public static Builder builder() {
+        return new Builder(Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int nonZeros() {
+        return rowStart[rows];
+    }
+
+    public double density() {
+        return rows == 0 || cols == 0 ? 0 : (double) nonZeros() / ((long) rows * cols);
+    }
+
+    public double get(int row, int col) {
+        int idx = Arrays.binarySearch(colIndex, rowStart[row], rowStart[row + 1], col);
+        return idx < 0 ? 0 : values[idx];
+    }
+
+    /** First entry of the row; entries {@code rowStart(i) .. rowStart(i + 1) - 1} belong to it. */
+    public int rowStart(int row) {
+        return rowStart[row];
+    }
+
+    public int colIndex(int entry) {
+        return colIndex[entry];
+    }
+
+    public double value(int entry) {
+        return values[entry];
+    }
+
+    /** First entry of the column in the compressed column form, see {@link #rowIndex} and {@link #colValue}. */
+    public int colStart(int col) {
+        return columns().start[col];
+    }
+
+    public int rowIndex(int entry) {
+        return columns().index[entry];
+    }
+
+    public double colValue(int entry) {
+        return columns().values[entry];
+    }
+
+    public double[] row(int row) {
+        double[] output = new double[cols];
+        for (int k = rowStart[row]; k < rowStart[row + 1]; k++)
+            output[colIndex[k]] = values[k];
+        return output;
+    }
+
+    public double[][] toDense() {
+        double[][] matrix = new double[rows][];
+        for (int i = 0; i < rows; i++)
+            matrix[i] = row(i);
+        return matrix;
+    }
+
+    private Columns columns() {
+        Columns result = columns;
+        if (result == null) {
+            result = new Columns(this);
+            columns = result;
+        }
+        return result;
+    }
+
+    private static final class Columns {
+        private final int[] start;
+        private final int[] index;
+        private final double[] values;
+
+        private Columns(SparseMatrix matrix) {
+            int nonZeros = matrix.nonZeros();
+            start = new int[matrix.cols + 1];
+            index = new int[nonZeros];
+            values = new double[nonZeros];
+            for (int k = 0; k < nonZeros; k++)
+                start[matrix.colIndex[k] + 1]++;
+            for (int j = 0; j < matrix.cols; j++)
+                start[j + 1] += start[j];
+            int[] next = Arrays.copyOf(start, matrix.cols);
+            for (int i = 0; i < matrix.rows; i++)
+                for (int k = matrix.rowStart[i]; k < matrix.rowStart[i + 1]; k++) {
+                    int position = next[matrix.colIndex[k]]++;
+                    index[position] = i;
+                    values[position] = matrix.values[k];
+                }
+        }
+    }
+
+    /**
+     * Collects entries in any order into primitive arrays; zeros are skipped and repeated
+     * entries of the same cell are summed.
+     */
+    public static final class Builder {
+        private int rows;
+        private int cols;
+        private int[] entryRows = new int[16];
+        private int[] entryCols = new int[16];
+        private double[] entryValues = new double[16];
+        private int size;
+
+        private Builder(int rows, int cols) {
+            this.rows = rows;
+            this.cols = cols;
+        }
+
+        public Builder add(int row, int col, double value) {
+            if (row < 0 || row >= rows || col < 0 || col >= cols)
+                throw new IndexOutOfBoundsException("Entry (" + row + ", " + col + ") is out of the matrix");
+            if (value == 0)
+                return this;
+            if (size == entryValues.length) {
+                entryRows = Arrays.copyOf(entryRows, size * 2);
+                entryCols = Arrays.copyOf(entryCols, size * 2);
+                entryValues = Arrays.copyOf(entryValues, size * 2);
+            }
+            entryRows[size] = row;
+            entryCols[size] = col;
+            entryValues[size++] = value;
+            return this;
+        }
+
+        /**
+         * Adds a copy of the entries of every row {@code sources[k]} as row {@code firstTarget + k},
+         * in one pass over the entries.
+         */
+        public Builder duplicateRows(int[] sources, int firstTarget) {
+            int maxRow = -1;
+            for (int source : sources)
+                maxRow = Math.max(maxRow, source);
+            int[] target = new int[maxRow + 1];
+            Arrays.fill(target, -1);
+            for (int k = 0; k < sources.length; k++)
+                target[sources[k]] = firstTarget + k;
+            int entries = size;
+            for (int k = 0; k < entries; k++)
+                if (entryRows[k] <= maxRow && target[entryRows[k]] != -1)
+                    add(target[entryRows[k]], entryCols[k], entryValues[k]);
+            return this;
+        }
+
+        /** Builds a {@code rows}×{@code cols} matrix from a builder made by {@link SparseMatrix#builder()}. */
+        public SparseMatrix build(int rows, int cols) {
+            for (int k = 0; k < size; k++)
+                if (entryRows[k] >= rows || entryCols[k] >= cols)
+                    throw new IndexOutOfBoundsException(
+                            "Entry (" + entryRows[k] + ", " + entryCols[k] + ") is out of the matrix");
+            this.rows = rows;
+            this.cols = cols;
+            return build();
+        }
+
+        public SparseMatrix build() {
+            int[] rowStart = new int[rows + 1];
+            for (int k = 0; k < size; k++)
+                rowStart[entryRows[k] + 1]++;
+            for (int i = 0; i < rows; i++)
+                rowStart[i + 1] += rowStart[i];
+
+            int[] next = Arrays.copyOf(rowStart, rows);
+            int[] order = new int[size];
+            for (int k = 0; k < size; k++)
+                order[next[entryRows[k]]++] = k;
+
+            int[] colIndex = new int[size];
+            double[] values = new double[size];
+            int[] compactStart = new int[rows + 1];
+            int nonZeros = 0;
+            for (int i = 0; i < rows; i++) {
+                int from = rowStart[i];
+                int to = rowStart[i + 1];
+                sortByColumn(order, from, to);
+                for (int k = from; k < to; k++) {
+                    int entry = order[k];
+                    if (nonZeros > compactStart[i] && colIndex[nonZeros - 1] == entryCols[entry]) {
+                        values[nonZeros - 1] += entryValues[entry];
+                    } else {
+                        // duplicates that cancelled out leave no entry behind
+                        if (nonZeros > compactStart[i] && values[nonZeros - 1] == 0)
+                            nonZeros--;
+                        colIndex[nonZeros] = entryCols[entry];
+                        values[nonZeros++] = entryValues[entry];
+                    }
+                }
+                if (nonZeros > compactStart[i] && values[nonZeros - 1] == 0)
+                    nonZeros--;
+                compactStart[i + 1] = nonZeros;
+            }
+            return new SparseMatrix(rows, cols, compactStart,
+                    Arrays.copyOf(colIndex, nonZeros), Arrays.copyOf(values, nonZeros));
+        }
+
+        private void sortByColumn(int[] order, int from, int to) {
+            for (int k = from + 1; k < to; k++) {
+                int entry = order[k];
+                int m = k - 1;
+                while (m >= from && entryCols[order[m]] > entryCols[entry]) {
+                    order[m + 1] = order[m];
+                    m--;
+                }
+                order[m + 1] = entry;
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package vntu.edu.simplex_methods;
+
+import static java.lang.Math.max;
+
+/**
+ * Simplex tableau stored row-major in one contiguous array. The row stride is fixed when the
+ * tableau is allocated and leaves room for the slack columns and for a few appended rows and
+ * columns (cuts), so pivoting never reallocates and every row operation is
+ * a linear sweep over memory, done by {@link Kernels}.
+ */
+final class Tableau {
+    private static final int RESERVE = 8;
+    /** Pivot rows with fewer non-zeros than this share of the columns are eliminated sparsely. */
+    private static final double SPARSE_PIVOT_DENSITY = 0.3;
+
+    private final double[] data;
+    private final int stride;
+    private final int rowCapacity;
+    private int rows;
+    private int cols;
+    private int[] pattern;
+
+    private Tableau(int rows, int cols, int rowCapacity, int stride) {
+        this.data = new double[rowCapacity * stride];
+        this.stride = stride;
+        this.rowCapacity = rowCapacity;
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /** Copies the matrix, reserving {@code extraCols} more columns (the slack identity) plus spare room. */
+    static Tableau of(double[][] matrix, int extraCols) {
+        int rows = matrix.length;
+        int cols = matrix[0].length;
+        Tableau tableau = new Tableau(rows, cols, rows + RESERVE, cols + extraCols + RESERVE);
+        for (int i = 0; i < rows; i++)
+            System.arraycopy(matrix[i], 0, tableau.data, i * tableau.stride, cols);
+        return tableau;
+    }
+
+    /** Scatters the non-zeros of the matrix, reserving {@code extraCols} more columns plus spare room. */
+    static Tableau of(SparseMatrix matrix, int extraCols) {
+        int rows = matrix.rows();
+        int cols = matrix.cols();
+        Tableau tableau = new Tableau(rows, cols, rows + RESERVE, cols + extraCols + RESERVE);
+        for (int i = 0; i < rows; i++) {
+            int offset = i * tableau.stride;
+            for (int k = matrix.rowStart(i); k < matrix.rowStart(i + 1); k++)
+                tableau.data[offset + matrix.colIndex(k)] = matrix.value(k);
+        }
+        return tableau;
+    }
+
+    /** Copy of this tableau with at least {@code count} free rows and columns, growing the storage only when it is full. */
+    Tableau copyForAppend(int count) {
+        if (rows + count <= rowCapacity && cols + count <= stride) {
+            Tableau copy = new Tableau(rows, cols, rowCapacity, stride);
+            System.arraycopy(data, 0, copy.data, 0, rows * stride);
+            return copy;
+        }
+        int newStride = cols + count <= stride ? stride : max(cols + count, stride + max(RESERVE, stride / 2));
+        int newRowCapacity = rows + count <= rowCapacity
+                ? rowCapacity
+                : max(rows + count, rowCapacity + max(RESERVE, rowCapacity / 2));
+        Tableau copy = new Tableau(rows, cols, newRowCapacity, newStride);
+        for (int i = 0; i < rows; i++)
+            System.arraycopy(data, i * stride, copy.data, i * newStride, cols);
+        return copy;
+    }
+
+    Tableau copy() {
+        Tableau copy = new Tableau(rows, cols, rowCapacity, stride);
+        System.arraycopy(data, 0, copy.data, 0, rows * stride);
+        return copy;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    int cols() {
+        return cols;
+    }
+
+    double get(int row, int col) {
+        return data[row * stride + col];
+    }
+
+    void set(int row, int col, double value) {
+        data[row * stride + col] = value;
+    }
+
+    /** Appends a zero column and returns its index. */
+    int appendColumn() {
+        if (cols == stride)
+            throw new IllegalStateException("Tableau has no free column");
+        for (int i = 0; i < rows; i++)
+            data[i * stride + cols] = 0;
+        return cols++;
+    }
+
+    /** Appends a zero row and returns its index. */
+    int appendRow() {
+        if (rows == rowCapacity)
+            throw new IllegalStateException("Tableau has no free row");
+        int offset = rows * stride;
+        for (int j = 0; j < cols; j++)
+            data[offset + j] = 0;
+        return rows++;
+    }
+
+    /** Appends the identity block of the slack variables, one column per row. */
+    void appendIdentity() {
+        int first = cols;
+        for (int i = 0; i < rows; i++)
+            appendColumn();
+        for (int i = 0; i < rows; i++)
+            data[i * stride + first + i] = 1;
+    }
+
+    /** Multiplies every entry {@code (i, j)} by {@code rows[i]·cols[j]}. */
+    void scale(double[] rows, double[] cols) {
+        for (int i = 0; i < this.rows; i++) {
+            int offset = i * stride;
+            for (int j = 0; j < this.cols; j++)
+                data[offset + j] *= rows[i] * cols[j];
+        }
+    }
+
+    void multiplyRow(int row, double multiplier) {
+        Kernels.scale(data, row * stride, cols, multiplier);
+    }
+
+    void divideRow(int row, double divider) {
+        Kernels.divide(data, row * stride, cols, divider);
+    }
+
+    /** {@code row[target] += row[source] * multiplier} */
+    void addRow(int target, int source, double multiplier) {
+        Kernels.axpy(multiplier, data, source * stride, data, target * stride, cols);
+    }
+
+    /**
+     * Jordan-Gauss step: clears the pivot column in every other row, {@code rhs} included.
+     * Rows without an entry in the pivot column are skipped, and when the pivot row is sparse
+     * only its non-zero columns are touched.
+     */
+    void eliminate(int pivotRow, int pivotCol, double[] rhs) {
+        int size = collectPattern(pivotRow);
+        boolean sparse = size < cols * SPARSE_PIVOT_DENSITY;
+        int pivotOffset = pivotRow * stride;
+        for (int i = 0; i < rows; i++) {
+            if (i == pivotRow)
+                continue;
+            int offset = i * stride;
+            double multiplier = -data[offset + pivotCol];
+            if (multiplier == 0)
+                continue;
+            rhs[i] += rhs[pivotRow] * multiplier;
+            if (sparse) {
+                for (int k = 0; k < size; k++) {
+                    int j = pattern[k];
+                    data[offset + j] += data[pivotOffset + j] * multiplier;
+                }
+            } else {
+                Kernels.axpy(multiplier, data, pivotOffset, data, offset, cols);
+            }
+        }
+    }
+
+    private int collectPattern(int row) {
+        if (pattern == null || pattern.length < cols)
+            pattern = new int[stride];
+        int offset = row * stride;
+        int size = 0;
+        for (int j = 0; j < cols; j++)
+            if (data[offset + j] != 0)
+                pattern[size++] = j;
+        return size;
+    }
+
+    /** {@code output += row * multiplier} over the first {@link #cols()} entries. */
+    void addRowTo(double[] output, int row, double multiplier) {
+        Kernels.axpy(multiplier, data, row * stride, output, 0, cols);
+    }
+
+    double[] row(int row) {
+        double[] output = new double[cols];
+        System.arraycopy(data, row * stride, output, 0, cols);
+        return output;
+    }
+
+    double[] column(int col) {
+        double[] output = new double[rows];
+        for (int i = 0; i < rows; i++)
+            output[i] = data[i * stride + col];
+        return output;
+    }
+
+    double[][] toMatrix() {
+        double[][] matrix = new double[rows][cols];
+        for (int i = 0; i < rows; i++)
+            System.arraycopy(data, i * stride, matrix[i], 0, cols);
+        return matrix;
+    }
+}
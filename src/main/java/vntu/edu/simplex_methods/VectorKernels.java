@@ -0,0 +1,42 @@
+package vntu.edu.simplex_methods;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link Kernels} on the widest vectors of the CPU; the tail shorter than one vector runs in
+ * scalar code. Only loaded reflectively, when the incubator module is present.
+ */
+final class VectorKernels implements Kernels.Implementation {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void axpy(double a, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        int j = 0;
+        for (int bound = SPECIES.loopBound(length); j < bound; j += SPECIES.length())
+            DoubleVector.fromArray(SPECIES, x, xOffset + j)
+                    .mul(a)
+                    .add(DoubleVector.fromArray(SPECIES, y, yOffset + j))
+                    .intoArray(y, yOffset + j);
+        for (; j < length; j++)
+            y[yOffset + j] += x[xOffset + j] * a;
+    }
+
+    @Override
+    public void scale(double[] x, int offset, int length, double factor) {
+        int j = 0;
+        for (int bound = SPECIES.loopBound(length); j < bound; j += SPECIES.length())
+            DoubleVector.fromArray(SPECIES, x, offset + j).mul(factor).intoArray(x, offset + j);
+        for (; j < length; j++)
+            x[offset + j] *= factor;
+    }
+
+    @Override
+    public void divide(double[] x, int offset, int length, double divider) {
+        int j = 0;
+        for (int bound = SPECIES.loopBound(length); j < bound; j += SPECIES.length())
+            DoubleVector.fromArray(SPECIES, x, offset + j).div(divider).intoArray(x, offset + j);
+        for (; j < length; j++)
+            x[offset + j] /= divider;
+    }
+}
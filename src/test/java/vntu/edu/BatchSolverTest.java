@@ -0,0 +1,80 @@
+package vntu.edu;
+
+import org.junit.jupiter.api.Test;
+import vntu.edu.heuristics.SimpleRounding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchSolverTest {
+    private static final double DELTA = 1e-9;
+    private static final RandomModels.Ilp MODEL = ExampleModels.threeRows();
+    private static final double[][] CONSTRAINTS = MODEL.constraints();
+    private static final boolean[] SIGNS = MODEL.signs();
+    private static final double[] FREE_VARS = MODEL.freeVars();
+    private static final double[] OBJECTIVE = MODEL.objective();
+
+    @Test
+    public void testBatchMatchesSequentialSolves() {
+        List<Solver> solvers = new ArrayList<>();
+        List<Solution> expected = new ArrayList<>();
+        for (int k = 0; k < 20; k++) {
+            double[] freeVars = {FREE_VARS[0] + k, FREE_VARS[1] + 2 * k, FREE_VARS[2] + k % 5};
+            solvers.add(new Solver(CONSTRAINTS, SIGNS, freeVars, OBJECTIVE));
+            expected.add(new Solver(CONSTRAINTS, SIGNS, freeVars, OBJECTIVE).solve(true));
+        }
+
+        try (BatchSolver batch = new BatchSolver()) {
+            List<CompletableFuture<Solution>> futures = batch.submitAll(solvers, true);
+            int[] order = BatchSolver.completionOrder(futures).toArray();
+            assertEquals(solvers.size(), order.length);
+            for (int index : order) {
+                assertTrue(futures.get(index).isDone());
+                Solution actual = futures.get(index).join();
+                assertEquals(expected.get(index).objValue(), actual.objValue(), DELTA);
+                assertArrayEquals(expected.get(index).optimalPlan(), actual.optimalPlan(), DELTA);
+            }
+        }
+    }
+
+    @Test
+    public void testCancelledJobIsSkipped() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch busy = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                busy.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Solver solver = new Solver(CONSTRAINTS, SIGNS, FREE_VARS, OBJECTIVE);
+        try (BatchSolver batch = new BatchSolver(executor)) {
+            CompletableFuture<Solution> future = batch.submit(solver, true);
+            assertTrue(future.cancel(true));
+            busy.countDown();
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        assertNull(solver.getStatus());
+    }
+
+    @Test
+    public void testCancelStopsTheSearch() {
+        Solver solver = new Solver(CONSTRAINTS, SIGNS, FREE_VARS, OBJECTIVE, SolverSettings.builder()
+                .heuristics(List.of(new SimpleRounding()))
+                .build());
+        solver.cancel();
+        Solution actual = solver.solve(true);
+        assertEquals(SolverStatus.CANCELLED, solver.getStatus());
+        assertEquals(1, solver.getNodeCount());
+        assertTrue(actual.objValue() <= 44 + DELTA);
+    }
+}
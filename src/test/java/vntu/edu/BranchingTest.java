@@ -0,0 +1,58 @@
+package vntu.edu;
+
+import org.junit.jupiter.api.Test;
+import vntu.edu.branching.BranchingRule;
+import vntu.edu.branching.FirstFractional;
+import vntu.edu.branching.MostFractional;
+import vntu.edu.branching.PseudoCostBranching;
+import vntu.edu.branching.StrongBranching;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BranchingTest {
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testRulesReachTheSameOptimum() {
+        double[][] constraints = {
+                {6, 5, 4, 3},
+                {3, 7, 9, 2},
+                {8, 2, 5, 6}
+        };
+        boolean[] signs = {false, false, false};
+        double[] freeVars = {31, 40, 37};
+        double[] objective = {7, 6, 8, 5};
+
+        Solver reference = new Solver(constraints, signs, freeVars, objective);
+        Solution expected = reference.solve(true);
+        for (BranchingRule rule : List.of(new MostFractional(), new PseudoCostBranching(), new StrongBranching())) {
+            Solver solver = new Solver(constraints, signs, freeVars, objective,
+                    SolverSettings.builder().branchingRule(rule).build());
+            Solution actual = solver.solve(true);
+            assertEquals(expected.objValue(), actual.objValue(), DELTA, rule.getClass().getSimpleName());
+            assertEquals(expected.optimalPlan().length, actual.optimalPlan().length);
+        }
+    }
+
+    @Test
+    public void testMostFractional() {
+        Solution solution = new Solution(0, new double[]{1.1, 2.45, 3.9, 0.7});
+        assertEquals(0, new FirstFractional().select(null, solution, new int[]{0, 1, 2, 3}));
+        assertEquals(1, new MostFractional().select(null, solution, new int[]{0, 1, 2, 3}));
+    }
+
+    @Test
+    public void testPseudoCostsOfReliableVariables() {
+        PseudoCostBranching rule = new PseudoCostBranching(1, 0);
+        rule.init(3);
+        rule.childSolved(0, true, 0.5, 1);
+        rule.childSolved(0, false, 0.5, 1);
+        rule.childSolved(2, true, 0.5, 10);
+        rule.childSolved(2, false, 0.5, 10);
+
+        Solution solution = new Solution(0, new double[]{0.5, 0.5, 0.5});
+        assertEquals(2, rule.select(null, solution, new int[]{0, 2}));
+    }
+}
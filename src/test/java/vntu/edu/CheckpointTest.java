@@ -0,0 +1,129 @@
+package vntu.edu;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import vntu.edu.heuristics.SimpleRounding;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckpointTest {
+    private static final double DELTA = 1e-9;
+    private static final int ROWS = 6;
+    private static final int COLS = 10;
+
+    @TempDir
+    Path directory;
+
+    private final RandomModels.Ilp ilp = RandomModels.denseIlp(new Random(2), ROWS, COLS);
+    private final double[][] constraints = ilp.constraints();
+    private final boolean[] signs = ilp.signs();
+    private final double[] freeVars = ilp.freeVars();
+    private final double[] objective = ilp.objective();
+
+    @Test
+    public void testResumeAfterNodeLimitReachesTheOptimum() throws IOException {
+        Solver exact = new Solver(constraints, signs, freeVars, objective);
+        Solution expected = exact.solve(true);
+        assertTrue(exact.getNodeCount() > 20);
+
+        Path file = directory.resolve("search.bin");
+        AtomicInteger written = new AtomicInteger();
+        SolverListener listener = new SolverListener() {
+            @Override
+            public void checkpointWritten(Path path, int openNodes, long nanos) {
+                written.incrementAndGet();
+            }
+        };
+        SolverSettings settings = SolverSettings.builder()
+                .nodeSelection(NodeSelection.DEPTH_FIRST)
+                .nodeCuts(true)
+                .heuristics(List.of(new SimpleRounding()))
+                .checkpoint(file)
+                .checkpointInterval(Duration.ZERO)
+                .listener(listener)
+                .build();
+        Solver stopped = new Solver(constraints, signs, freeVars, objective, settings.toBuilder().nodeLimit(15).build());
+        stopped.solve(true);
+        assertEquals(SolverStatus.NODE_LIMIT, stopped.getStatus());
+        assertTrue(written.get() > 1);
+        assertTrue(Files.size(file) > 0);
+
+        Solver resumed = new Solver(constraints, signs, freeVars, objective, settings.toBuilder().checkpoint(null).build());
+        Solution actual = resumed.resume(file);
+        assertEquals(SolverStatus.OPTIMAL, resumed.getStatus());
+        assertEquals(expected.objValue(), actual.objValue(), DELTA);
+        assertTrue(resumed.getNodeCount() > stopped.getNodeCount());
+    }
+
+    @Test
+    public void testResumeOfFinishedSearchKeepsItsIncumbent() throws IOException {
+        Path file = directory.resolve("search.bin");
+        Solver first = new Solver(constraints, signs, freeVars, objective, SolverSettings.builder()
+                .checkpoint(file)
+                .timeLimit(Duration.ZERO)
+                .heuristics(List.of(new SimpleRounding()))
+                .build());
+        Solution incumbent = first.solve(true);
+        assertEquals(SolverStatus.TIME_LIMIT, first.getStatus());
+
+        Solver resumed = new Solver(constraints, signs, freeVars, objective);
+        Solution actual = resumed.resume(file);
+        assertTrue(actual.objValue() >= incumbent.objValue() - DELTA);
+        assertEquals(new Solver(constraints, signs, freeVars, objective).solve(true).objValue(), actual.objValue(), DELTA);
+    }
+
+    @Test
+    public void testOtherModelAndDamagedFileAreRejected() throws IOException {
+        Path file = directory.resolve("search.bin");
+        new Solver(constraints, signs, freeVars, objective, SolverSettings.builder()
+                .checkpoint(file)
+                .nodeLimit(5)
+                .heuristics(List.of(new SimpleRounding()))
+                .build()).solve(true);
+
+        double[] otherObjective = objective.clone();
+        otherObjective[0]++;
+        Solver other = new Solver(constraints, signs, freeVars, otherObjective);
+        assertThrows(IllegalArgumentException.class, () -> other.resume(file));
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+        Solver same = new Solver(constraints, signs, freeVars, objective);
+        assertThrows(IOException.class, () -> same.resume(file));
+    }
+
+    @Test
+    public void testFailedWriteWithoutListenerFailsTheSolve() {
+        SolverSettings settings = SolverSettings.builder()
+                .checkpoint(directory.resolve("missing").resolve("search.bin"))
+                .checkpointInterval(Duration.ZERO)
+                .nodeLimit(15)
+                .heuristics(List.of(new SimpleRounding()))
+                .build();
+        Solver solver = new Solver(constraints, signs, freeVars, objective, settings);
+        assertThrows(UncheckedIOException.class, () -> solver.solve(true));
+
+        AtomicInteger failed = new AtomicInteger();
+        Solver reported = new Solver(constraints, signs, freeVars, objective, settings.toBuilder()
+                .listener(new SolverListener() {
+                    @Override
+                    public void checkpointFailed(Path path, IOException exception) {
+                        failed.incrementAndGet();
+                    }
+                })
+                .build());
+        reported.solve(true);
+        assertEquals(SolverStatus.NODE_LIMIT, reported.getStatus());
+        assertTrue(failed.get() > 0);
+    }
+}
@@ -0,0 +1,118 @@
+package vntu.edu;
+
+import org.junit.jupiter.api.Test;
+import vntu.edu.simplex_methods.BaseSimplex;
+import vntu.edu.simplex_methods.CompiledLp;
+import vntu.edu.simplex_methods.DualSimplex;
+import vntu.edu.simplex_methods.RevisedSimplex;
+import vntu.edu.simplex_methods.Scaling;
+import vntu.edu.simplex_methods.Simplex;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledLpTest {
+    private static final double DELTA = 1e-6;
+    private static final int ROWS = 40;
+    private static final int COLS = 80;
+
+    private final double[][] constraints = new double[ROWS][COLS];
+    private final double[] freeVars = new double[ROWS];
+    private final double[] objective = new double[COLS];
+    private final double[] upper = new double[COLS];
+
+    CompiledLpTest() {
+        Random random = new Random(11);
+        for (int i = 0; i < ROWS; i++) {
+            for (int j = 0; j < COLS; j++)
+                if (random.nextDouble() < 0.2)
+                    constraints[i][j] = 1 + random.nextInt(9);
+            constraints[i][random.nextInt(COLS)] = 1 + random.nextInt(9);
+            freeVars[i] = 50 + random.nextInt(100);
+        }
+        for (int j = 0; j < COLS; j++) {
+            objective[j] = 1 + random.nextInt(20);
+            upper[j] = 1 + random.nextInt(5);
+        }
+    }
+
+    @Test
+    public void testResolveMatchesColdSolves() {
+        for (boolean max : new boolean[]{true, false}) {
+            for (boolean revised : new boolean[]{false, true}) {
+                for (Scaling scaling : new Scaling[]{Scaling.NONE, Scaling.GEOMETRIC_MEAN}) {
+                    String name = max + " " + revised + " " + scaling;
+                    boolean[] signs = new boolean[ROWS];
+                    Arrays.fill(signs, !max);
+                    Random random = new Random(3);
+                    double[] rhs = freeVars.clone();
+                    double[] costs = objective.clone();
+                    CompiledLp compiled = new CompiledLp(newLp(max, revised, scaling, signs, rhs, costs), max);
+                    int warmPivots = 0;
+                    int coldPivots = 0;
+                    for (int round = 0; round < 20; round++) {
+                        if (round % 2 == 0) {
+                            rhs[random.nextInt(ROWS)] += random.nextInt(21) - 10;
+                            compiled.updateRhs(rhs);
+                        }
+                        if (round % 3 == 0) {
+                            costs[random.nextInt(COLS)] = 1 + random.nextInt(20);
+                            compiled.updateObjective(costs);
+                        }
+                        Solution warm = compiled.resolve();
+                        warmPivots += compiled.getPivots();
+
+                        BaseSimplex cold = newLp(max, revised, scaling, signs, rhs, costs);
+                        Solution expected = cold instanceof DualSimplex dual ? dual.solveToOptimum(max) : cold.solve(max);
+                        coldPivots += cold.getPivots();
+                        assertEquals(expected.objValue(), warm.objValue(), DELTA, name + " round " + round);
+                        assertEquals(expected.objValue(), value(warm.optimalPlan(), costs, max), DELTA, name);
+                    }
+                    assertTrue(warmPivots < coldPivots, name + ": " + warmPivots + " >= " + coldPivots);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFailedResolveKeepsTheLastOptimum() {
+        boolean[] signs = new boolean[ROWS];
+        CompiledLp compiled = new CompiledLp(newLp(true, false, Scaling.GEOMETRIC_MEAN, signs, freeVars, objective), true);
+        Solution optimum = compiled.getSolution();
+
+        // x[j] >= 0 cannot meet a row with a negative right-hand side
+        double[] infeasible = freeVars.clone();
+        infeasible[0] = -1;
+        compiled.updateRhs(infeasible);
+        assertThrows(IllegalArgumentException.class, compiled::resolve);
+        assertSame(optimum, compiled.getSolution());
+
+        compiled.updateRhs(freeVars);
+        assertEquals(optimum.objValue(), compiled.resolve().objValue(), DELTA);
+        assertEquals(0, compiled.getPivots());
+    }
+
+    private BaseSimplex newLp(boolean max, boolean revised, Scaling scaling, boolean[] signs,
+                              double[] rhs, double[] costs) {
+        BaseSimplex lp;
+        if (revised)
+            lp = new RevisedSimplex(constraints, signs, rhs, costs);
+        else if (max)
+            lp = new Simplex(constraints, signs, rhs, costs);
+        else
+            lp = new DualSimplex(constraints, signs, rhs, costs);
+        lp.setUpperBounds(upper);
+        lp.setScaling(scaling);
+        return lp;
+    }
+
+    /** The objective value of {@code plan} in the max sense of {@link Solution#objValue()}. */
+    private static double value(double[] plan, double[] costs, boolean max) {
+        double sum = 0;
+        for (int j = 0; j < costs.length; j++)
+            sum += costs[j] * plan[j];
+        return max ? sum : -sum;
+    }
+}
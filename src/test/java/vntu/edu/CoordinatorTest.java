@@ -0,0 +1,179 @@
+package vntu.edu;
+
+import org.junit.jupiter.api.Test;
+import vntu.edu.branching.BranchingRule;
+import vntu.edu.branching.PseudoCostBranching;
+import vntu.edu.branching.StrongBranching;
+import vntu.edu.heuristics.FeasibilityPump;
+import vntu.edu.heuristics.RandomizedRounding;
+import vntu.edu.heuristics.SimpleRounding;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoordinatorTest {
+    private static final double DELTA = 1e-9;
+    private static final int ROWS = 6;
+    private static final int COLS = 12;
+
+    private final RandomModels.Ilp ilp = RandomModels.denseIlp(new Random(2), ROWS, COLS);
+    private final double[][] constraints = ilp.constraints();
+    private final boolean[] signs = ilp.signs();
+    private final double[] freeVars = ilp.freeVars();
+    private final double[] objective = ilp.objective();
+
+    @Test
+    public void testWorkerThreadsReachTheOptimum() throws Exception {
+        Solver local = new Solver(constraints, signs, freeVars, objective);
+        Solution expected = local.solve(true);
+
+        List<Thread> workers = new ArrayList<>();
+        try (Coordinator coordinator = new Coordinator(0, 3, 5, Duration.ofSeconds(30))) {
+            for (int k = 0; k < 3; k++) {
+                Thread worker = new Thread(new Worker("localhost", coordinator.getPort()));
+                worker.setDaemon(true);
+                worker.start();
+                workers.add(worker);
+            }
+            SolverSettings settings = SolverSettings.builder()
+                    .coordinator(coordinator)
+                    .branchingRule(new StrongBranching(2))
+                    .heuristics(List.of(new SimpleRounding(), new FeasibilityPump(7, 50)))
+                    .build();
+            for (boolean max : new boolean[]{true, false}) {
+                Solver distributed = new Solver(constraints, signs, freeVars, objective, settings);
+                Solution actual = distributed.solve(max);
+                assertEquals(SolverStatus.OPTIMAL, distributed.getStatus());
+                assertEquals(new Solver(constraints, signs, freeVars, objective).solve(max).objValue(),
+                        actual.objValue(), DELTA);
+            }
+            assertEquals(expected.objValue(), new Solver(constraints, signs, freeVars, objective, settings)
+                    .solve(true).objValue(), DELTA);
+        }
+        for (Thread worker : workers)
+            worker.join(10_000);
+        assertTrue(workers.stream().noneMatch(Thread::isAlive));
+    }
+
+    @Test
+    public void testNodeLimitStopsTheWorkers() throws Exception {
+        try (Coordinator coordinator = new Coordinator(0, 2, 3, Duration.ofSeconds(30))) {
+            for (int k = 0; k < 2; k++) {
+                Thread worker = new Thread(new Worker("localhost", coordinator.getPort()));
+                worker.setDaemon(true);
+                worker.start();
+            }
+            Solver solver = new Solver(constraints, signs, freeVars, objective, SolverSettings.builder()
+                    .coordinator(coordinator)
+                    .nodeLimit(20)
+                    .heuristics(List.of(new SimpleRounding()))
+                    .build());
+            Solution incumbent = solver.solve(true);
+            assertEquals(SolverStatus.NODE_LIMIT, solver.getStatus());
+            assertTrue(solver.getDualBound() >= incumbent.objValue() - DELTA);
+        }
+    }
+
+    @Test
+    public void testWorkerProcessesReachTheOptimum() throws Exception {
+        Solution expected = new Solver(constraints, signs, freeVars, objective).solve(true);
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> workers = new ArrayList<>();
+        try {
+            try (Coordinator coordinator = new Coordinator(0, 2, 10, Duration.ofSeconds(60))) {
+                for (int k = 0; k < 2; k++)
+                    workers.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                            Worker.class.getName(), "localhost", String.valueOf(coordinator.getPort()))
+                            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                            .redirectError(ProcessBuilder.Redirect.INHERIT)
+                            .start());
+                Solver distributed = new Solver(constraints, signs, freeVars, objective,
+                        SolverSettings.builder().coordinator(coordinator).build());
+                assertEquals(expected.objValue(), distributed.solve(true).objValue(), DELTA);
+                assertEquals(SolverStatus.OPTIMAL, distributed.getStatus());
+            }
+        } finally {
+            // closing the coordinator disconnects the workers, which then exit
+            for (Process worker : workers)
+                if (!worker.waitFor(10, TimeUnit.SECONDS))
+                    worker.destroyForcibly();
+        }
+    }
+
+    @Test
+    public void testMissingWorkersFailTheSolve() throws IOException {
+        try (Coordinator coordinator = new Coordinator(0, 1, 10, Duration.ofMillis(200))) {
+            Solver solver = new Solver(constraints, signs, freeVars, objective,
+                    SolverSettings.builder().coordinator(coordinator).build());
+            assertThrows(UncheckedIOException.class, () -> solver.solve(true));
+        }
+    }
+
+    @Test
+    public void testRulesThatCannotBeSentFailBeforeConnecting() throws IOException {
+        try (Coordinator coordinator = new Coordinator(0, 1, 10, Duration.ofMinutes(1))) {
+            BranchingRule lambda = (lp, solution, candidates) -> candidates[0];
+            Solver solver = new Solver(constraints, signs, freeVars, objective,
+                    SolverSettings.builder().coordinator(coordinator).branchingRule(lambda).build());
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> solver.solve(true));
+            assertTrue(error.getMessage().endsWith("is not Serializable, so it cannot be sent to the workers"));
+        }
+    }
+
+    @Test
+    public void testWorkerPlansAreCheckedAgainstTheModel() {
+        Solver solver = new Solver(constraints, signs, freeVars, objective);
+        solver.solve(true);
+        Solution optimum = solver.incumbent();
+        double[] infeasible = new double[COLS];
+        Arrays.fill(infeasible, 100);
+        double[] notANumber = new double[COLS];
+        Arrays.fill(notANumber, Double.NaN);
+        double[] fractional = new double[COLS];
+        fractional[0] = 0.5;
+        for (double[] plan : new double[][]{infeasible, notANumber, fractional, new double[1]})
+            solver.offerIncumbent(plan);
+        assertSame(optimum, solver.incumbent());
+    }
+
+    @Test
+    public void testStrategyStreamRejectsOtherClasses() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new PseudoCostBranching(2, 4));
+            out.writeObject(new RandomizedRounding(3, 5));
+            out.writeObject(new FeasibilityPump(7, 50));
+            out.writeObject(new HashMap<>());
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            in.setObjectInputFilter(new Worker.StrategyFilter());
+            assertInstanceOf(PseudoCostBranching.class, in.readObject());
+            assertInstanceOf(RandomizedRounding.class, in.readObject());
+            assertInstanceOf(FeasibilityPump.class, in.readObject());
+            assertThrows(InvalidClassException.class, in::readObject);
+        }
+    }
+
+    @Test
+    public void testListensOnLoopbackByDefault() throws IOException {
+        try (Coordinator coordinator = new Coordinator(0, 1)) {
+            assertEquals(InetAddress.getLoopbackAddress(), coordinator.getAddress());
+        }
+    }
+}
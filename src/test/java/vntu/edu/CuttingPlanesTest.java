@@ -0,0 +1,100 @@
+package vntu.edu;
+
+import org.junit.jupiter.api.Test;
+import vntu.edu.cutting_planes.Cut;
+import vntu.edu.cutting_planes.CutPool;
+import vntu.edu.cutting_planes.GomoryCuts;
+import vntu.edu.simplex_methods.BaseSimplex;
+import vntu.edu.simplex_methods.DualSimplex;
+import vntu.edu.simplex_methods.RevisedSimplex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CuttingPlanesTest {
+    private static final double DELTA = 1e-9;
+    private static final RandomModels.Ilp MODEL = ExampleModels.threeRows();
+    private static final double[][] CONSTRAINTS = MODEL.constraints();
+    private static final boolean[] SIGNS = MODEL.signs();
+    private static final double[] FREE_VARS = MODEL.freeVars();
+    private static final double[] OBJECTIVE = MODEL.objective();
+
+    @Test
+    public void testGomoryCutsAreValid() {
+        DualSimplex lp = new DualSimplex(CONSTRAINTS, SIGNS, FREE_VARS, OBJECTIVE);
+        Solution root = lp.solveToOptimum(true);
+        List<Cut> cuts = GomoryCuts.separate(lp, 8);
+        assertFalse(cuts.isEmpty());
+
+        for (Cut cut : cuts) {
+            assertTrue(cut.violation(root.optimalPlan()) > 0);
+            for (int x0 = 0; x0 <= 6; x0++)
+                for (int x1 = 0; x1 <= 6; x1++)
+                    for (int x2 = 0; x2 <= 6; x2++) {
+                        double[] plan = {x0, x1, x2};
+                        if (isFeasible(plan))
+                            assertTrue(cut.violation(plan) <= 1e-6);
+                    }
+        }
+    }
+
+    @Test
+    public void testCutsTightenTheBound() {
+        for (BaseSimplex lp : new BaseSimplex[]{
+                new DualSimplex(CONSTRAINTS, SIGNS, FREE_VARS, OBJECTIVE),
+                new RevisedSimplex(CONSTRAINTS, SIGNS, FREE_VARS, OBJECTIVE)}) {
+            Solution root = lp instanceof DualSimplex dual ? dual.solveToOptimum(true) : lp.solve(true);
+            List<Cut> cuts = GomoryCuts.separate(lp, 8);
+            double[][] rows = cuts.stream().map(Cut::coefficients).toArray(double[][]::new);
+            double[] rhs = cuts.stream().mapToDouble(Cut::rhs).toArray();
+
+            BaseSimplex child = lp.withConstraints(rows, rhs);
+            Solution cut = child.reoptimize();
+            assertTrue(cut.objValue() < root.objValue() - DELTA);
+            assertTrue(cut.objValue() >= 44 - DELTA);
+            assertEquals(root.optimalPlan().length + cuts.size(), cut.optimalPlan().length);
+        }
+    }
+
+    @Test
+    public void testBranchAndCut() {
+        for (boolean revised : new boolean[]{false, true}) {
+            Solver plain = new Solver(CONSTRAINTS, SIGNS, FREE_VARS, OBJECTIVE,
+                    SolverSettings.builder().revisedSimplex(revised).build());
+            Solver withCuts = new Solver(CONSTRAINTS, SIGNS, FREE_VARS, OBJECTIVE,
+                    SolverSettings.builder().revisedSimplex(revised).cutRounds(5).nodeCuts(true).build());
+            Solution expected = plain.solve(true);
+            Solution actual = withCuts.solve(true);
+            assertEquals(expected.objValue(), actual.objValue(), DELTA);
+            assertEquals(expected.optimalPlan().length, actual.optimalPlan().length);
+            assertTrue(withCuts.getNodeCount() <= plain.getNodeCount());
+        }
+    }
+
+    @Test
+    public void testPoolForgetsUnusedCuts() {
+        CutPool pool = new CutPool(2);
+        Cut used = new Cut(new double[]{1, 0}, 1);
+        Cut unused = new Cut(new double[]{0, 1}, 1);
+        pool.addAll(List.of(used, unused, new Cut(new double[]{1, 0}, 1)));
+        assertEquals(2, pool.size());
+
+        for (int round = 0; round < 3; round++) {
+            assertEquals(List.of(used), pool.violated(new double[]{2, 0}));
+            pool.age();
+        }
+        assertEquals(1, pool.size());
+    }
+
+    private static boolean isFeasible(double[] plan) {
+        for (int i = 0; i < CONSTRAINTS.length; i++) {
+            double activity = 0;
+            for (int j = 0; j < plan.length; j++)
+                activity += CONSTRAINTS[i][j] * plan[j];
+            if (activity > FREE_VARS[i])
+                return false;
+        }
+        return true;
+    }
+}
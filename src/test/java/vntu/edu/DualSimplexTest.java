@@ -3,8 +3,13 @@ package vntu.edu;
 import org.junit.jupiter.api.Test;
 import vntu.edu.simplex_methods.BaseSimplex;
 import vntu.edu.simplex_methods.DualSimplex;
+import vntu.edu.simplex_methods.RevisedSimplex;
+import vntu.edu.simplex_methods.Simplex;
+
+import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class DualSimplexTest {
     @Test
@@ -63,4 +68,80 @@ class DualSimplexTest {
         BaseSimplex simplex = new DualSimplex(constraints, signs, freeVars, objective);
         assertArrayEquals(new double[]{0.0, 5.0, 2.0, 0.0, 20.0}, simplex.solve(false).optimalPlan());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testWarmStartMatchesColdSolve() {
+        double[][] constraints = new double[][] {
+                {7, 3},
+                {4, 1}
+        };
+        double[] freeVars = {21, 8};
+        boolean[] signs = {false, false};
+        double[] objective = {8, 5};
+        BaseSimplex parent = new Simplex(constraints, signs, freeVars, objective);
+        parent.solve(true);
+
+        double[][] bounded = new double[][] {
+                {7, 3},
+                {4, 1},
+                {0, 1}
+        };
+        Solution upper = parent.withBound(1, 6, true).reoptimize();
+        Solution coldUpper = new DualSimplex(bounded, new boolean[]{false, false, false},
+                new double[]{21, 8, 6}, objective).solveToOptimum(true);
+        assertEquals(coldUpper.objValue(), upper.objValue(), 1e-9);
+        assertArrayEquals(Arrays.copyOf(coldUpper.optimalPlan(), 4), upper.optimalPlan(), 1e-9);
+
+        bounded[2] = new double[] {1, 0};
+        Solution lower = parent.withBound(0, 1, false).reoptimize();
+        Solution coldLower = new DualSimplex(bounded, new boolean[]{false, false, true},
+                new double[]{21, 8, 1}, objective).solveToOptimum(true);
+        assertEquals(coldLower.objValue(), lower.objValue(), 1e-9);
+        assertArrayEquals(Arrays.copyOf(coldLower.optimalPlan(), 4), lower.optimalPlan(), 1e-9);
+    }
+
+    @Test
+    public void testBoundsKeepLpSize() {
+        double[][] constraints = new double[][] {
+                {7, 3},
+                {4, 1}
+        };
+        double[] freeVars = {21, 8};
+        boolean[] signs = {false, false};
+        double[] objective = {8, 5};
+        BaseSimplex parent = new Simplex(constraints, signs, freeVars, objective);
+        parent.solve(true);
+
+        BaseSimplex child = parent.withBound(1, 5, false);
+        child.reoptimize();
+        BaseSimplex grandChild = child.withBound(1, 5, true);
+        Solution solution = grandChild.reoptimize();
+        assertEquals(parent.getConstraints().length, grandChild.getConstraints().length);
+        assertEquals(parent.getConstraints()[0].length, grandChild.getConstraints()[0].length);
+        assertEquals(5, solution.optimalPlan()[1], 1e-9);
+        assertEquals(0.75, solution.optimalPlan()[0], 1e-9);
+        assertEquals(31, solution.objValue(), 1e-9);
+    }
+
+    @Test
+    public void testBatchOfBoundsMatchesChainedBounds() {
+        RandomModels.Ilp model = ExampleModels.threeRows();
+        double[][] constraints = model.constraints();
+        double[] freeVars = model.freeVars();
+        boolean[] signs = model.signs();
+        double[] objective = model.objective();
+        for (BaseSimplex parent : new BaseSimplex[] {
+                new Simplex(constraints, signs, freeVars, objective),
+                new RevisedSimplex(constraints, signs, freeVars, objective)}) {
+            parent.solve(true);
+
+            BaseSimplex chained = parent.withBound(2, 3, true);
+            chained.reoptimize();
+            Solution expected = chained.withBound(0, 2, false).reoptimize();
+            Solution actual = parent.withBounds(new int[] {0, 2}, new double[] {2, 3}, new boolean[] {false, true})
+                    .reoptimize();
+            assertEquals(expected.objValue(), actual.objValue(), 1e-9);
+            assertArrayEquals(expected.optimalPlan(), actual.optimalPlan(), 1e-9);
+        }
+    }
+}
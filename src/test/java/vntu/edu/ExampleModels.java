@@ -0,0 +1,17 @@
+package vntu.edu;
+
+/** Small models written out by hand, shared by the tests; every call returns a fresh copy. */
+final class ExampleModels {
+    private ExampleModels() {
+    }
+
+    /** {@code max 7x + 6y + 8z} over three {@code <=} rows, the model of {@code testNodeSelections}. */
+    static RandomModels.Ilp threeRows() {
+        double[][] constraints = {
+                {6, 5, 4},
+                {3, 7, 9},
+                {8, 2, 5}
+        };
+        return new RandomModels.Ilp(constraints, new boolean[3], new double[] {31, 40, 37}, new double[] {7, 6, 8});
+    }
+}
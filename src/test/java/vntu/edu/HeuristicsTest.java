@@ -0,0 +1,91 @@
+package vntu.edu;
+
+import org.junit.jupiter.api.Test;
+import vntu.edu.heuristics.FeasibilityPump;
+import vntu.edu.heuristics.FractionalDiving;
+import vntu.edu.heuristics.PrimalHeuristic;
+import vntu.edu.heuristics.RandomizedRounding;
+import vntu.edu.heuristics.SimpleRounding;
+import vntu.edu.simplex_methods.DualSimplex;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeuristicsTest {
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testHeuristicsFindIntegerPlans() {
+        RandomModels.Ilp model = ExampleModels.threeRows();
+        double[][] constraints = model.constraints();
+        boolean[] signs = model.signs();
+        double[] freeVars = model.freeVars();
+        double[] objective = model.objective();
+
+        for (PrimalHeuristic heuristic : List.of(new SimpleRounding(), new RandomizedRounding(),
+                new FractionalDiving(), new FeasibilityPump())) {
+            DualSimplex lp = new DualSimplex(constraints, signs, freeVars, objective);
+            double[] plan = heuristic.find(lp, lp.solveToOptimum(true));
+            assertNotNull(plan, heuristic.getClass().getSimpleName());
+            assertFeasible(constraints, signs, freeVars, plan);
+        }
+    }
+
+    @Test
+    public void testFeasibilityPumpOnCovering() {
+        double[][] constraints = {
+                {3, 1, 2, 0},
+                {0, 2, 1, 3},
+                {2, 0, 3, 1}
+        };
+        boolean[] signs = {true, true, true};
+        double[] freeVars = {7.5, 6.5, 5.5};
+        double[] objective = {4, 3, 5, 2};
+
+        DualSimplex lp = new DualSimplex(constraints, signs, freeVars, objective);
+        double[] plan = new FeasibilityPump().find(lp, lp.solveToOptimum(false));
+        assertNotNull(plan);
+        assertFeasible(constraints, signs, freeVars, plan);
+    }
+
+    @Test
+    public void testRootIncumbentFromHeuristics() {
+        RandomModels.Ilp model = ExampleModels.threeRows();
+        double[][] constraints = model.constraints();
+        boolean[] signs = model.signs();
+        double[] freeVars = model.freeVars();
+        double[] objective = model.objective();
+
+        AtomicLong firstIncumbentNode = new AtomicLong(-2);
+        SolverListener listener = new SolverListener() {
+            @Override
+            public void incumbentImproved(Solution incumbent, long nodeId) {
+                firstIncumbentNode.compareAndSet(-2, nodeId);
+            }
+        };
+        Solution plain = new Solver(constraints, signs, freeVars, objective).solve(true);
+        Solution actual = new Solver(constraints, signs, freeVars, objective, SolverSettings.builder()
+                .heuristics(List.of(new SimpleRounding(), new FractionalDiving()))
+                .heuristicFrequency(1)
+                .listener(listener)
+                .build()).solve(true);
+        assertEquals(plain.objValue(), actual.objValue(), DELTA);
+        assertEquals(plain.optimalPlan().length, actual.optimalPlan().length);
+        assertEquals(0, firstIncumbentNode.get());
+    }
+
+    private static void assertFeasible(double[][] constraints, boolean[] signs, double[] freeVars, double[] plan) {
+        for (double value : plan) {
+            assertTrue(value >= 0);
+            assertEquals(Math.rint(value), value, DELTA);
+        }
+        for (int i = 0; i < constraints.length; i++) {
+            double activity = 0;
+            for (int j = 0; j < plan.length; j++)
+                activity += constraints[i][j] * plan[j];
+            assertTrue(signs[i] ? activity >= freeVars[i] - DELTA : activity <= freeVars[i] + DELTA);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package vntu.edu;
+
+import org.junit.jupiter.api.Test;
+import vntu.edu.simplex_methods.BaseSimplex;
+import vntu.edu.simplex_methods.Kernels;
+import vntu.edu.simplex_methods.RevisedSimplex;
+import vntu.edu.simplex_methods.Simplex;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KernelsTest {
+
+    @Test
+    public void testVectorAndScalarLoopsAgreeExactly() {
+        assertTrue(Kernels.isVectorAvailable(), "tests run with --add-modules jdk.incubator.vector");
+        Random random = new Random(7);
+        int size = 61;
+        double[][] constraints = new double[size][size];
+        double[] freeVars = new double[size];
+        double[] objective = new double[size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++)
+                constraints[i][j] = 1 + random.nextInt(20) / 3.0;
+            freeVars[i] = 50 + random.nextInt(100);
+            objective[i] = 1 + random.nextInt(10);
+        }
+        boolean[] signs = new boolean[size];
+
+        boolean before = Kernels.isVectorized();
+        try {
+            Solution[][] solutions = new Solution[2][];
+            for (int mode = 0; mode < 2; mode++) {
+                Kernels.setVectorized(mode == 0);
+                BaseSimplex tableau = new Simplex(constraints, signs, freeVars, objective);
+                BaseSimplex revised = new RevisedSimplex(constraints, signs, freeVars, objective);
+                solutions[mode] = new Solution[]{tableau.solve(true), revised.solve(true)};
+            }
+            for (int engine = 0; engine < 2; engine++) {
+                assertEquals(solutions[0][engine].objValue(), solutions[1][engine].objValue());
+                assertArrayEquals(solutions[0][engine].optimalPlan(), solutions[1][engine].optimalPlan());
+            }
+        } finally {
+            Kernels.setVectorized(before);
+        }
+    }
+}
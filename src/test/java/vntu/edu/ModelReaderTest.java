@@ -0,0 +1,196 @@
+package vntu.edu;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import vntu.edu.io.LpReader;
+import vntu.edu.io.MpsReader;
+import vntu.edu.io.Problem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ModelReaderTest {
+    private static final double DELTA = 1e-9;
+    private static final RandomModels.Ilp MODEL = ExampleModels.threeRows();
+    /** The rows of {@link ExampleModels#threeRows()} and five more, written out in the files below. */
+    private static final double[][] CONSTRAINTS = Stream.concat(Arrays.stream(MODEL.constraints()), Stream.of(
+            new double[] {1, 1, 1},
+            new double[] {1, -1, 0},
+            new double[] {1, -1, 0},
+            new double[] {0, 0, 1},
+            new double[] {0, 1, 0})).toArray(double[][]::new);
+    private static final boolean[] SIGNS = {false, false, false, true, false, true, false, true};
+    private static final double[] FREE_VARS =
+            DoubleStream.concat(Arrays.stream(MODEL.freeVars()), DoubleStream.of(2, 2, 0, 3, 1)).toArray();
+    private static final double[] OBJECTIVE = MODEL.objective();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testFreeMps() throws IOException {
+        Path file = write("model.mps", """
+                NAME          EXAMPLE
+                * the rows of CONSTRAINTS, with a range on the equality
+                OBJSENSE
+                    MAX
+                ROWS
+                 N  profit
+                 L  c1
+                 L  c2
+                 L  c3
+                 G  c4
+                 E  c5
+                COLUMNS
+                    MARKER  'MARKER'  'INTORG'
+                    x  profit  7  c1  6
+                    x  c2  3  c3  8
+                    x  c4  1  c5  1
+                    y  profit  6.0  c1  5
+                    y  c2  7  c3  2
+                    y  c4  1  c5  -1
+                    z  profit  8e0  c1  4
+                    z  c2  9  c3  5
+                    z  c4  1
+                    MARKER  'MARKER'  'INTEND'
+                RHS
+                    RHS  c1  31  c2  40
+                    RHS  c3  37  c4  2
+                RANGES
+                    RNG  c5  2
+                BOUNDS
+                 UP BND  z  3
+                 LO BND  y  1
+                ENDATA
+                """);
+        assertMatchesArrays(MpsReader.read(file));
+    }
+
+    @Test
+    public void testFixedMps() throws IOException {
+        Path file = write("model.mps", String.join("\n",
+                "NAME          EXAMPLE",
+                "OBJSENSE",
+                "    MAX",
+                "ROWS",
+                fixed("N", "profit", "", "", "", ""),
+                fixed("L", "limit 1", "", "", "", ""),
+                fixed("L", "limit 2", "", "", "", ""),
+                fixed("L", "limit 3", "", "", "", ""),
+                fixed("G", "cover", "", "", "", ""),
+                fixed("E", "balance", "", "", "", ""),
+                "COLUMNS",
+                fixed("", "x", "profit", "7", "limit 1", "6"),
+                fixed("", "x", "limit 2", "3", "limit 3", "8"),
+                fixed("", "x", "cover", "1", "balance", "1"),
+                fixed("", "y", "profit", "6", "limit 1", "5"),
+                fixed("", "y", "limit 2", "7", "limit 3", "2"),
+                fixed("", "y", "cover", "1", "balance", "-1"),
+                fixed("", "z", "profit", "8", "limit 1", "4"),
+                fixed("", "z", "limit 2", "9", "limit 3", "5"),
+                fixed("", "z", "cover", "1", "", ""),
+                "RHS",
+                fixed("", "", "limit 1", "31", "limit 2", "40"),
+                fixed("", "", "limit 3", "37", "cover", "2"),
+                "RANGES",
+                fixed("", "", "balance", "2", "", ""),
+                "BOUNDS",
+                fixed("UP", "BND", "z", "3", "", ""),
+                fixed("LO", "BND", "y", "1", "", ""),
+                "ENDATA"));
+        assertMatchesArrays(MpsReader.readFixed(file));
+    }
+
+    @Test
+    public void testLp() throws IOException {
+        Path file = write("model.lp", """
+                \\ the same model in the CPLEX LP format
+                Maximize
+                 profit: 7 x + 6 y
+                   + 8 z
+                Subject To
+                 c1: 6 x + 5 y + 4 z <= 31
+                 c2: 3 x + 7 y + 9 z <= 40
+                 c3: 8 x + 2 y + 5 z =< 37
+                 c4: x + y + z >= 2
+                 r1: x - y <= 2
+                 r2: x - y >= 0
+                Bounds
+                 z <= 3
+                 1 <= y
+                 0 <= x <= +inf
+                General
+                 x y z
+                End
+                """);
+        Problem problem = LpReader.read(file);
+        assertMatchesArrays(problem);
+        assertEquals("y", problem.variableName(1));
+    }
+
+    @Test
+    public void testCancelledCoefficients() throws IOException {
+        Path file = write("cancelled.lp", """
+                Maximize
+                 3 x + 2 y
+                Subject To
+                 c1: 2 x + y <= 20
+                 c2: x + y - y <= 3
+                Bounds
+                 y <= 4
+                General
+                 x y
+                End
+                """);
+        Problem problem = LpReader.read(file);
+        assertEquals(4, problem.constraints().nonZeros());
+
+        Solution solution = problem.solver(SolverSettings.defaults()).solve(problem.max());
+        assertEquals(17, solution.objValue(), DELTA);
+        assertEquals(3, solution.optimalPlan()[0], DELTA);
+        assertEquals(4, solution.optimalPlan()[1], DELTA);
+    }
+
+    @Test
+    public void testRejectsFreeVariables() throws IOException {
+        Path file = write("free.lp", """
+                Minimize
+                 x + y
+                Subject To
+                 x + y >= 1
+                Bounds
+                 x free
+                End
+                """);
+        IOException error = assertThrows(IOException.class, () -> LpReader.read(file));
+        assertTrue(error.getMessage().startsWith("Line 6"));
+    }
+
+    private void assertMatchesArrays(Problem problem) {
+        assertTrue(problem.max());
+        assertEquals(3, problem.constraints().cols());
+        assertEquals(CONSTRAINTS.length, problem.constraints().rows());
+        assertArrayEquals(OBJECTIVE, problem.objective(), DELTA);
+
+        Solution expected = new Solver(CONSTRAINTS, SIGNS, FREE_VARS, OBJECTIVE).solve(true);
+        Solution actual = problem.solver(SolverSettings.builder().build()).solve(problem.max());
+        assertEquals(expected.objValue(), actual.objValue(), DELTA);
+        for (int j = 0; j < 3; j++)
+            assertEquals(expected.optimalPlan()[j], actual.optimalPlan()[j], DELTA);
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(directory.resolve(name), content);
+    }
+
+    private static String fixed(String type, String name1, String name2, String value1, String name3,
+                                String value2) {
+        return String.format(" %-2s %-8s  %-8s  %12s   %-8s  %12s", type, name1, name2, value1, name3, value2);
+    }
+}
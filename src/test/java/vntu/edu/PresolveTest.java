@@ -0,0 +1,157 @@
+package vntu.edu;
+
+import org.junit.jupiter.api.Test;
+import vntu.edu.presolve.DomainPropagator;
+import vntu.edu.presolve.Presolve;
+import vntu.edu.simplex_methods.SparseMatrix;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PresolveTest {
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testRemovesEmptyDuplicateAndRedundantRows() {
+        // the first two rows of the example, an empty row, the first row doubled with a looser
+        // right-hand side and a row that cannot be violated
+        RandomModels.Ilp model = ExampleModels.threeRows();
+        double[] first = model.constraints()[0];
+        double[] second = model.constraints()[1];
+        SparseMatrix constraints = SparseMatrix.of(new double[][] {
+                first,
+                {0, 0, 0},
+                Arrays.stream(first).map(a -> 2 * a).toArray(),
+                second,
+                {-1, -1, 0}
+        });
+        boolean[] signs = {false, false, false, false, false};
+        double[] rhs = model.freeVars();
+        double[] freeVars = {rhs[0], 5, 2 * rhs[0] + 8, rhs[1], 3};
+
+        Presolve presolve = Presolve.run(constraints, signs, freeVars, model.objective(), true);
+        assertEquals(3, presolve.removedRows());
+        assertEquals(2, presolve.constraints().rows());
+        assertArrayEquals(new double[] {rhs[0], rhs[1]}, presolve.freeVars(), DELTA);
+    }
+
+    @Test
+    public void testSingletonRowsFixVariables() {
+        SparseMatrix constraints = SparseMatrix.of(new double[][] {
+                {1, 1, 1},
+                {2, 0, 0},
+                {0, 1, 0}
+        });
+        boolean[] signs = {false, false, true};
+        double[] freeVars = {10, 5, 3};
+        double[] objective = {1, 1, 2};
+
+        Presolve presolve = Presolve.run(constraints, signs, freeVars, objective, true);
+        assertEquals(2, presolve.removedRows());
+        assertEquals(3, presolve.constraints().cols());
+        assertArrayEquals(new double[] {2, 7, 7}, presolve.upperBounds(), DELTA);
+        assertArrayEquals(new double[] {7}, presolve.freeVars(), DELTA);
+    }
+
+    @Test
+    public void testPostsolveMapsPlanBack() {
+        double[][] constraints = {
+                {1, 1, 1},
+                {1, 0, 0},
+                {0, 0, 1},
+                {1, 3, 0}
+        };
+        boolean[] signs = {false, true, false, false};
+        double[] freeVars = {10, 4, 4, 12};
+        double[] objective = {1, 2, 3};
+
+        Solution presolved = new Solver(constraints, signs, freeVars, objective).solve(true);
+        Solution plain = new Solver(constraints, signs, freeVars, objective,
+                SolverSettings.builder().presolve(false).build()).solve(true);
+        assertEquals(plain.objValue(), presolved.objValue(), DELTA);
+        assertEquals(plain.optimalPlan().length, presolved.optimalPlan().length);
+        double value = 0;
+        for (int j = 0; j < objective.length; j++)
+            value += objective[j] * presolved.optimalPlan()[j];
+        assertEquals(presolved.objValue(), value, DELTA);
+        for (int i = 0; i < constraints.length; i++)
+            assertTrue(presolved.optimalPlan()[objective.length + i] >= -DELTA);
+    }
+
+    @Test
+    public void testDetectsInfeasibility() {
+        SparseMatrix constraints = SparseMatrix.of(new double[][] {
+                {2, 2},
+                {1, 0}
+        });
+        boolean[] signs = {false, true};
+        double[] freeVars = {3, 2};
+        double[] objective = {1, 1};
+
+        assertThrows(IllegalArgumentException.class,
+                () -> Presolve.run(constraints, signs, freeVars, objective, true));
+    }
+
+    @Test
+    public void testCancelledEntryIsNoCoefficient() {
+        SparseMatrix constraints = SparseMatrix.builder(2, 2)
+                .add(0, 0, 2).add(0, 1, 1)
+                .add(1, 0, 1).add(1, 1, 1).add(1, 1, -1)
+                .build();
+        boolean[] signs = {false, false};
+        double[] freeVars = {20, 3};
+        double[] objective = {3, 2};
+
+        Presolve presolve = Presolve.run(constraints, signs, freeVars, objective, true);
+        assertEquals(1, presolve.removedRows());
+        assertArrayEquals(new double[] {3, 20}, presolve.upperBounds(), DELTA);
+
+        Solution solution = new Solver(constraints, signs, freeVars, objective, SolverSettings.defaults())
+                .solve(true);
+        assertEquals(40, solution.objValue(), DELTA);
+    }
+
+    @Test
+    public void testPropagatorTightensBoundsAtNode() {
+        SparseMatrix constraints = SparseMatrix.of(new double[][] {
+                {1, 1, 1},
+                {2, -1, 0}
+        });
+        DomainPropagator propagator = new DomainPropagator(constraints, new boolean[] {false, false},
+                new double[] {10, 4});
+        double[] lower = {3, 0, 0};
+        double[] upper = new double[3];
+        Arrays.fill(upper, Double.POSITIVE_INFINITY);
+
+        assertTrue(propagator.propagate(lower, upper, new int[] {0}));
+        assertArrayEquals(new double[] {3, 2, 0}, lower, DELTA);
+        assertArrayEquals(new double[] {5, 7, 5}, upper, DELTA);
+
+        lower[0] = 6;
+        upper[0] = Double.POSITIVE_INFINITY;
+        assertFalse(propagator.propagate(lower, upper, new int[] {0}));
+    }
+
+    @Test
+    public void testPropagatorSkipsCancelledEntry() {
+        SparseMatrix constraints = SparseMatrix.builder(2, 2)
+                .add(0, 0, 2).add(0, 1, 1)
+                .add(1, 0, 1).add(1, 1, -1).add(1, 1, 1)
+                .build();
+        boolean[] signs = {false, false};
+        double[] freeVars = {20, 3};
+        double[] objective = {3, 2};
+        DomainPropagator propagator = new DomainPropagator(constraints, signs, freeVars);
+        double[] lower = {0, 0};
+        double[] upper = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+
+        assertTrue(propagator.propagate(lower, upper, new int[] {0, 1}));
+        assertArrayEquals(new double[] {0, 0}, lower, DELTA);
+        assertArrayEquals(new double[] {3, 20}, upper, DELTA);
+
+        SolverSettings settings = SolverSettings.builder().presolve(false).build();
+        assertEquals(40, new Solver(constraints, signs, freeVars, objective, settings).solve(true).objValue(),
+                DELTA);
+    }
+}
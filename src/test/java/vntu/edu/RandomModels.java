@@ -0,0 +1,65 @@
+package vntu.edu;
+
+import java.util.Random;
+
+/** Seeded random models shared by the tests; every row is {@code <=} and the coefficients are non-negative. */
+final class RandomModels {
+    private RandomModels() {
+    }
+
+    record Ilp(double[][] constraints, boolean[] signs, double[] freeVars, double[] objective) {
+    }
+
+    /** An LP with upper bounds on its variables; {@code signs} are all {@code <=}. */
+    record Lp(double[][] constraints, boolean[] signs, double[] freeVars, double[] objective, double[] upper) {
+    }
+
+    /** A dense ILP, small enough for a search of a few hundred nodes. */
+    static Ilp denseIlp(Random random, int rows, int cols) {
+        double[][] constraints = new double[rows][cols];
+        double[] freeVars = new double[rows];
+        double[] objective = new double[cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++)
+                constraints[i][j] = 2 + random.nextInt(15);
+            freeVars[i] = 40 + random.nextInt(40);
+        }
+        for (int j = 0; j < cols; j++)
+            objective[j] = 3 + random.nextInt(20);
+        return new Ilp(constraints, new boolean[rows], freeVars, objective);
+    }
+
+    /** An ILP with a quarter of its coefficients zero, which leaves propagation and branching more to do. */
+    static Ilp sparseIlp(Random random, int rows, int cols) {
+        double[][] constraints = new double[rows][cols];
+        double[] freeVars = new double[rows];
+        double[] objective = new double[cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++)
+                constraints[i][j] = random.nextInt(4) == 0 ? 0 : 2 + random.nextInt(20);
+            freeVars[i] = 60 + random.nextInt(60);
+        }
+        for (int j = 0; j < cols; j++)
+            objective[j] = 3 + random.nextInt(25);
+        return new Ilp(constraints, new boolean[rows], freeVars, objective);
+    }
+
+    /** An LP with about {@code density} of its coefficients non-zero and upper bounds from 1 to 5. */
+    static Lp boundedLp(Random random, int rows, int cols, double density) {
+        double[][] constraints = new double[rows][cols];
+        double[] freeVars = new double[rows];
+        double[] objective = new double[cols];
+        double[] upper = new double[cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++)
+                if (random.nextDouble() < density)
+                    constraints[i][j] = 1 + random.nextInt(9);
+            freeVars[i] = 50 + random.nextInt(100);
+        }
+        for (int j = 0; j < cols; j++) {
+            objective[j] = 1 + random.nextInt(20);
+            upper[j] = 1 + random.nextInt(5);
+        }
+        return new Lp(constraints, new boolean[rows], freeVars, objective, upper);
+    }
+}
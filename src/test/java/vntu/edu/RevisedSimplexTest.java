@@ -0,0 +1,91 @@
+package vntu.edu;
+
+import org.junit.jupiter.api.Test;
+import vntu.edu.simplex_methods.BaseSimplex;
+import vntu.edu.simplex_methods.DualSimplex;
+import vntu.edu.simplex_methods.RevisedSimplex;
+import vntu.edu.simplex_methods.Simplex;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RevisedSimplexTest {
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void testMatchesSimplex() {
+        double[][] constraints = new double[][] {
+                {-2, -3},
+                {1, 1},
+                {3, 1}
+        };
+        double[] freeVars = {15, 9, 24};
+        boolean[] signs = {false, false, false};
+        double[] objective = {2, 5};
+
+        Solution expected = new Simplex(constraints, signs, freeVars, objective).solve(true);
+        Solution actual = new RevisedSimplex(constraints, signs, freeVars, objective).solve(true);
+        assertEquals(expected.objValue(), actual.objValue(), DELTA);
+        assertArrayEquals(expected.optimalPlan(), actual.optimalPlan(), DELTA);
+    }
+
+    @Test
+    public void testMatchesDualSimplex() {
+        double[][] constraints = new double[][] {
+                {1.5, 3, -1, 1},
+                {3, 2, 0, -1}
+        };
+        double[] freeVars = {18, 24};
+        boolean[] signs = {true, true};
+        double[] objective = {5, 6, 1, 1};
+
+        Solution expected = new DualSimplex(constraints, signs, freeVars, objective).solveToOptimum(false);
+        Solution actual = new RevisedSimplex(constraints, signs, freeVars, objective).solve(false);
+        assertEquals(expected.objValue(), actual.objValue(), DELTA);
+        assertArrayEquals(expected.optimalPlan(), actual.optimalPlan(), DELTA);
+    }
+
+    @Test
+    public void testRefactorizationOnLongRuns() {
+        Random random = new Random(7);
+        int rows = 80, cols = 120;
+        double[][] constraints = new double[rows][cols];
+        double[] freeVars = new double[rows];
+        boolean[] signs = new boolean[rows];
+        double[] objective = new double[cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++)
+                if (random.nextDouble() < 0.3)
+                    constraints[i][j] = 1 + random.nextInt(9);
+            freeVars[i] = 50 + random.nextInt(100);
+        }
+        for (int j = 0; j < cols; j++)
+            objective[j] = 1 + random.nextInt(20);
+
+        Solution expected = new Simplex(constraints, signs, freeVars, objective).solve(true);
+        Solution actual = new RevisedSimplex(constraints, signs, freeVars, objective).solve(true);
+        assertEquals(expected.objValue(), actual.objValue(), 1e-6);
+    }
+
+    @Test
+    public void testWarmStartMatchesColdSolve() {
+        double[][] constraints = new double[][] {
+                {7, 3},
+                {4, 1}
+        };
+        double[] freeVars = {21, 8};
+        boolean[] signs = {false, false};
+        double[] objective = {8, 5};
+        BaseSimplex parent = new RevisedSimplex(constraints, signs, freeVars, objective);
+        parent.solve(true);
+
+        Solution upper = parent.withBound(1, 6, true).reoptimize();
+        Solution coldUpper = new DualSimplex(new double[][] {{7, 3}, {4, 1}, {0, 1}},
+                new boolean[]{false, false, false}, new double[]{21, 8, 6}, objective).solveToOptimum(true);
+        assertEquals(coldUpper.objValue(), upper.objValue(), DELTA);
+        assertArrayEquals(Arrays.copyOf(coldUpper.optimalPlan(), 4), upper.optimalPlan(), DELTA);
+    }
+}
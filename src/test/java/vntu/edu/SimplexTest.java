@@ -2,10 +2,15 @@ package vntu.edu;
 
 import org.junit.jupiter.api.Test;
 import vntu.edu.simplex_methods.BaseSimplex;
+import vntu.edu.simplex_methods.Pricing;
+import vntu.edu.simplex_methods.RevisedSimplex;
+import vntu.edu.simplex_methods.Scaling;
 import vntu.edu.simplex_methods.Simplex;
 
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class SimplexTest {
     @Test
@@ -91,4 +96,88 @@ public class SimplexTest {
         var solution = simplex.solve(true);
         assertEquals(9, solution.objValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testEveryPricingReachesTheSameOptimum() {
+        RandomModels.Lp lp = RandomModels.boundedLp(new Random(5), 100, 200, 0.1);
+        double[][] matrix = lp.constraints();
+        boolean[] signs = lp.signs();
+        double[] freeVars = lp.freeVars();
+        double[] objective = lp.objective();
+        double[] upper = lp.upper();
+
+        BaseSimplex reference = new Simplex(matrix, signs, freeVars, objective);
+        reference.setUpperBounds(upper);
+        double expected = reference.solve(true).objValue();
+        for (Pricing pricing : Pricing.values()) {
+            BaseSimplex[] engines = {
+                    new Simplex(matrix, signs, freeVars, objective),
+                    new RevisedSimplex(matrix, signs, freeVars, objective)
+            };
+            for (BaseSimplex engine : engines) {
+                engine.setUpperBounds(upper);
+                engine.setPricing(pricing);
+                assertEquals(expected, engine.solve(true).objValue(), 1e-6, pricing + " " + engine.getClass().getSimpleName());
+            }
+        }
+    }
+
+    @Test
+    public void testScalingSolvesBadlyScaledLp() {
+        Random random = new Random(7);
+        int rows = 60, cols = 120;
+        RandomModels.Lp lp = RandomModels.boundedLp(random, rows, cols, 0.15);
+        double[][] matrix = lp.constraints();
+        double[] freeVars = lp.freeVars();
+        double[] objective = lp.objective();
+        double[] upper = lp.upper();
+        // the same LP with rows and columns in units from 10⁻³ to 10³
+        double[] rowUnits = new double[rows];
+        double[] colUnits = new double[cols];
+        for (int i = 0; i < rows; i++)
+            rowUnits[i] = Math.pow(10, random.nextInt(7) - 3);
+        for (int j = 0; j < cols; j++)
+            colUnits[j] = Math.pow(10, random.nextInt(7) - 3);
+        double[][] badMatrix = new double[rows][cols];
+        double[] badFreeVars = new double[rows];
+        double[] badObjective = new double[cols];
+        double[] badUpper = new double[cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++)
+                badMatrix[i][j] = matrix[i][j] * rowUnits[i] * colUnits[j];
+            badFreeVars[i] = freeVars[i] * rowUnits[i];
+        }
+        for (int j = 0; j < cols; j++) {
+            badObjective[j] = objective[j] * colUnits[j];
+            badUpper[j] = upper[j] / colUnits[j];
+        }
+        boolean[] signs = lp.signs();
+
+        BaseSimplex reference = new Simplex(matrix, signs, freeVars, objective);
+        reference.setUpperBounds(upper);
+        double expected = reference.solve(true).objValue();
+        for (boolean revised : new boolean[]{false, true}) {
+            int unscaledPivots = 0;
+            for (Scaling scaling : Scaling.values()) {
+                BaseSimplex engine = revised
+                        ? new RevisedSimplex(badMatrix, signs, badFreeVars, badObjective)
+                        : new Simplex(badMatrix, signs, badFreeVars, badObjective);
+                engine.setUpperBounds(badUpper);
+                engine.setScaling(scaling);
+                Solution solution = engine.solve(true);
+                if (scaling == Scaling.NONE) {
+                    unscaledPivots = engine.getPivots();
+                    continue;
+                }
+                assertEquals(expected, solution.objValue(), 1e-6, scaling + " " + revised);
+                for (int i = 0; i < rows; i++) {
+                    double activity = 0;
+                    for (int j = 0; j < cols; j++)
+                        activity += badMatrix[i][j] * solution.optimalPlan()[j];
+                    assertTrue(activity <= badFreeVars[i] * (1 + 1e-9), scaling + " row " + i);
+                }
+                assertTrue(engine.getPivots() < unscaledPivots, scaling + " " + revised);
+            }
+        }
+    }
+}
@@ -1,11 +1,25 @@
 package vntu.edu;
 
 import org.junit.jupiter.api.Test;
+import vntu.edu.heuristics.SimpleRounding;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class SolverTest {
+    private static final double DELTA = 1e-9;
     private Solver solver;
+
+    private static void assertSolutionEquals(Solution expected, Solution actual) {
+        assertEquals(expected.objValue(), actual.objValue(), DELTA);
+        assertArrayEquals(expected.optimalPlan(), actual.optimalPlan(), DELTA);
+    }
+
     @Test
     public void testCase8() {//mine
         double[][] constraints = {
@@ -25,9 +39,9 @@ class SolverTest {
         );
         Solution actual = solver.solve(max);
         Solution expected = new Solution(
-                21, new double[]{3, 3, 1, 0, 0}
+                21, new double[]{3, 3, 1, 0}
         );
-        assertEquals(expected, actual);
+        assertSolutionEquals(expected, actual);
     }
 
     @Test
@@ -49,9 +63,9 @@ class SolverTest {
         );
         Solution actual = solver.solve(max);
         Solution expected = new Solution(
-                45, new double[]{4.0, 3.0000000000000004, 1.9999999999999982, 0.0, 0.0}
+                45, new double[]{4, 3, 2, 0}
         );
-        assertEquals(expected, actual);
+        assertSolutionEquals(expected, actual);
     }
 
     @Test
@@ -73,9 +87,9 @@ class SolverTest {
         );
         Solution actual = solver.solve(max);
         Solution expected = new Solution(
-                8, new double[]{2.0000000000000004, 1.0, 0.0, 5.000000000000002, 0.0}
+                8, new double[]{2, 1, 0, 5}
         );
-        assertEquals(expected, actual);
+        assertSolutionEquals(expected, actual);
     }
 
     @Test
@@ -98,9 +112,9 @@ class SolverTest {
         );
         Solution actual = solver.solve(max);
         Solution expected = new Solution(
-                20, new double[]{0, 5, 2, 2, 38, 0}
+                20, new double[]{0, 5, 2, 2, 38}
         );
-        assertEquals(expected, actual);
+        assertSolutionEquals(expected, actual);
     }
 
     @Test
@@ -122,8 +136,209 @@ class SolverTest {
         );
         Solution actual = solver.solve(max);
         Solution expected = new Solution(
-                6, new double[]{0, 3, 1, 24, 0, 0}
+                6, new double[]{0, 3, 1, 24}
+        );
+        assertSolutionEquals(expected, actual);
+    }
+
+    @Test
+    public void testNodeSelections() {
+        RandomModels.Ilp model = ExampleModels.threeRows();
+        double[][] constraints = model.constraints();
+        boolean[] signs = model.signs();
+        double[] freeVars = model.freeVars();
+        double[] objective = model.objective();
+        boolean max = true;
+
+        for (NodeSelection selection : NodeSelection.values()) {
+            solver = new Solver(
+                    constraints,
+                    signs,
+                    freeVars,
+                    objective,
+                    SolverSettings.builder().nodeSelection(selection).build()
+            );
+            Solution actual = solver.solve(max);
+            assertEquals(44, actual.objValue(), DELTA, selection.name());
+            assertArrayEquals(new double[]{2, 1, 3}, Arrays.copyOf(actual.optimalPlan(), 3), DELTA);
+        }
+    }
+
+    @Test
+    public void testRebuiltNodesKeepTheirCuts() {
+        RandomModels.Ilp model = ExampleModels.threeRows();
+        double[][] constraints = model.constraints();
+        boolean[] signs = model.signs();
+        double[] freeVars = model.freeVars();
+        double[] objective = model.objective();
+
+        for (NodeSelection selection : NodeSelection.values())
+            for (boolean revised : new boolean[]{false, true}) {
+                solver = new Solver(constraints, signs, freeVars, objective, SolverSettings.builder()
+                        .nodeSelection(selection)
+                        .revisedSimplex(revised)
+                        .nodeCuts(true)
+                        .build());
+                Solution actual = solver.solve(true);
+                assertEquals(44, actual.objValue(), DELTA, selection.name());
+                assertArrayEquals(new double[]{2, 1, 3}, Arrays.copyOf(actual.optimalPlan(), 3), DELTA);
+            }
+    }
+
+    @Test
+    public void testParallelSearch() {
+        RandomModels.Ilp model = ExampleModels.threeRows();
+        double[][] constraints = model.constraints();
+        boolean[] signs = model.signs();
+        double[] freeVars = model.freeVars();
+        double[] objective = model.objective();
+        boolean max = true;
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            solver = new Solver(
+                    constraints,
+                    signs,
+                    freeVars,
+                    objective,
+                    SolverSettings.builder().pool(pool).build()
+            );
+            Solution actual = solver.solve(max);
+            assertEquals(44, actual.objValue(), DELTA);
+            assertArrayEquals(new double[]{2, 1, 3}, Arrays.copyOf(actual.optimalPlan(), 3), DELTA);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testRevisedSimplex() {
+        RandomModels.Ilp model = ExampleModels.threeRows();
+        double[][] constraints = model.constraints();
+        boolean[] signs = model.signs();
+        double[] freeVars = model.freeVars();
+        double[] objective = model.objective();
+        boolean max = true;
+
+        solver = new Solver(
+                constraints,
+                signs,
+                freeVars,
+                objective,
+                SolverSettings.builder().revisedSimplex(true).build()
+        );
+        Solution actual = solver.solve(max);
+        assertEquals(44, actual.objValue(), DELTA);
+        assertArrayEquals(new double[]{2, 1, 3}, Arrays.copyOf(actual.optimalPlan(), 3), DELTA);
+    }
+
+    @Test
+    public void testStatistics() {
+        RandomModels.Ilp model = ExampleModels.threeRows();
+        double[][] constraints = model.constraints();
+        boolean[] signs = model.signs();
+        double[] freeVars = model.freeVars();
+        double[] objective = model.objective();
+        boolean max = true;
+
+        SolverStatistics statistics = new SolverStatistics();
+        solver = new Solver(
+                constraints,
+                signs,
+                freeVars,
+                objective,
+                SolverSettings.builder().listener(statistics).build()
         );
-        assertEquals(expected, actual);
+        Solution actual = solver.solve(max);
+        assertEquals(solver.getNodeCount(), statistics.getNodesCreated());
+        assertTrue(statistics.getNodesPruned() > 0);
+        assertTrue(statistics.getIncumbents() > 0);
+        assertTrue(statistics.getPivots() > 0);
+        assertEquals(actual.objValue(), statistics.getPrimalBound(), DELTA);
+        assertEquals(0, statistics.getGap(), DELTA);
+    }
+
+    @Test
+    public void testNodeLimit() {
+        RandomModels.Ilp model = ExampleModels.threeRows();
+        double[][] constraints = model.constraints();
+        boolean[] signs = model.signs();
+        double[] freeVars = model.freeVars();
+        double[] objective = model.objective();
+
+        solver = new Solver(constraints, signs, freeVars, objective, SolverSettings.builder()
+                .nodeSelection(NodeSelection.DEPTH_FIRST)
+                .nodeLimit(2)
+                .heuristics(List.of(new SimpleRounding()))
+                .build());
+        Solution actual = solver.solve(true);
+        assertEquals(SolverStatus.NODE_LIMIT, solver.getStatus());
+        assertEquals(3, solver.getNodeCount());
+        assertTrue(actual.objValue() <= 44 + DELTA);
+        assertTrue(solver.getDualBound() >= 44 - DELTA);
+
+        solver = new Solver(constraints, signs, freeVars, objective);
+        solver.solve(true);
+        assertEquals(SolverStatus.OPTIMAL, solver.getStatus());
+        assertEquals(44, solver.getDualBound(), DELTA);
+    }
+
+    @Test
+    public void testTimeLimitReturnsIncumbent() {
+        RandomModels.Ilp model = ExampleModels.threeRows();
+        double[][] constraints = model.constraints();
+        boolean[] signs = model.signs();
+        double[] freeVars = model.freeVars();
+        double[] objective = model.objective();
+
+        solver = new Solver(constraints, signs, freeVars, objective, SolverSettings.builder()
+                .timeLimit(Duration.ZERO)
+                .heuristics(List.of(new SimpleRounding()))
+                .build());
+        Solution actual = solver.solve(true);
+        assertEquals(SolverStatus.TIME_LIMIT, solver.getStatus());
+        assertEquals(1, solver.getNodeCount());
+        assertTrue(actual.objValue() <= 44 + DELTA);
+        assertTrue(solver.getDualBound() >= 44 - DELTA);
+
+        solver = new Solver(constraints, signs, freeVars, objective,
+                SolverSettings.builder().timeLimit(Duration.ZERO).build());
+        assertThrows(IllegalStateException.class, () -> solver.solve(true));
+    }
+
+    @Test
+    public void testGapLimit() {
+        double[][] constraints = {
+                {6, 5, 4, 3},
+                {3, 7, 9, 2},
+                {8, 2, 5, 6}
+        };
+        boolean[] signs = {false, false, false};
+        double[] freeVars = {31, 40, 37};
+        double[] objective = {7, 6, 8, 5};
+
+        Solver exact = new Solver(constraints, signs, freeVars, objective);
+        double optimum = exact.solve(true).objValue();
+        solver = new Solver(constraints, signs, freeVars, objective, SolverSettings.builder()
+                .relativeGap(0.1)
+                .heuristics(List.of(new SimpleRounding()))
+                .build());
+        Solution actual = solver.solve(true);
+        assertTrue(solver.getNodeCount() <= exact.getNodeCount());
+        assertTrue(actual.objValue() >= optimum * 0.9 - DELTA);
+        assertTrue(solver.getDualBound() >= optimum - DELTA);
+        assertTrue(solver.getDualBound() - actual.objValue() <= 0.1 * actual.objValue() + DELTA);
+    }
+
+    @Test
+    public void testPropagationKeepsOptimumWithFewerNodes() {
+        RandomModels.Ilp ilp = RandomModels.sparseIlp(new Random(29), 10, 25);
+
+        Solver plain = new Solver(ilp.constraints(), ilp.signs(), ilp.freeVars(), ilp.objective(),
+                SolverSettings.builder().propagation(false).build());
+        double optimum = plain.solve(true).objValue();
+        solver = new Solver(ilp.constraints(), ilp.signs(), ilp.freeVars(), ilp.objective());
+        assertEquals(optimum, solver.solve(true).objValue(), 1e-6);
+        assertTrue(solver.getNodeCount() < plain.getNodeCount());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,83 @@
+package vntu.edu;
+
+import org.junit.jupiter.api.Test;
+import vntu.edu.simplex_methods.BaseSimplex;
+import vntu.edu.simplex_methods.Simplex;
+import vntu.edu.simplex_methods.SparseMatrix;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SparseMatrixTest {
+    @Test
+    public void testBuilderCompressesRows() {
+        SparseMatrix matrix = SparseMatrix.builder(3, 4)
+                .add(2, 3, 5)
+                .add(0, 2, 1)
+                .add(0, 0, 4)
+                .add(2, 3, 1)
+                .add(1, 1, 0)
+                .build();
+
+        assertEquals(3, matrix.nonZeros());
+        assertEquals(6, matrix.get(2, 3));
+        assertEquals(0, matrix.get(1, 1));
+        assertArrayEquals(new double[][] {
+                {4, 0, 1, 0},
+                {0, 0, 0, 0},
+                {0, 0, 0, 6}
+        }, matrix.toDense());
+    }
+
+    @Test
+    public void testBuilderDropsCancelledEntries() {
+        SparseMatrix matrix = SparseMatrix.builder(2, 3)
+                .add(0, 1, 1)
+                .add(0, 0, 2)
+                .add(0, 1, -1)
+                .add(1, 2, 3)
+                .add(1, 2, -3)
+                .add(1, 0, 1)
+                .build();
+
+        assertEquals(2, matrix.nonZeros());
+        assertEquals(2, matrix.colStart(1) - matrix.colStart(0));
+        assertEquals(0, matrix.colStart(2) - matrix.colStart(1));
+        assertEquals(0, matrix.colStart(3) - matrix.colStart(2));
+        assertArrayEquals(new double[][] {
+                {2, 0, 0},
+                {1, 0, 0}
+        }, matrix.toDense());
+    }
+
+    @Test
+    public void testColumnAccess() {
+        SparseMatrix matrix = SparseMatrix.of(new double[][] {
+                {1, 0, 2},
+                {0, 3, 0},
+                {4, 0, 5}
+        });
+
+        assertEquals(2, matrix.colStart(1) - matrix.colStart(0));
+        assertEquals(0, matrix.rowIndex(matrix.colStart(0)));
+        assertEquals(2, matrix.rowIndex(matrix.colStart(0) + 1));
+        assertEquals(4, matrix.colValue(matrix.colStart(0) + 1));
+        assertEquals(3, matrix.colValue(matrix.colStart(1)));
+        assertEquals(5, matrix.nonZeros());
+    }
+
+    @Test
+    public void testSparseInputMatchesDense() {
+        double[][] matrix = new double[][] {
+                {-2, -3},
+                {1, 1},
+                {3, 1}
+        };
+        double[] freeVars = {15, 9, 24};
+        boolean[] signs = {false, false, false};
+        double[] objective = {2, 5};
+
+        BaseSimplex dense = new Simplex(matrix, signs, freeVars, objective);
+        BaseSimplex sparse = new Simplex(SparseMatrix.of(matrix), signs, freeVars, objective);
+        assertEquals(dense.solve(true), sparse.solve(true));
+    }
+}
@@ -0,0 +1,67 @@
+package vntu.edu;
+
+import org.junit.jupiter.api.Test;
+import vntu.edu.simplex_methods.BaseSimplex;
+import vntu.edu.simplex_methods.Simplex;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+    private static final double DELTA = 1e-9;
+
+    private final BaseSimplex lp = new Simplex(new double[][]{{1, 1, 1}}, new boolean[]{false}, new double[]{10}, new double[]{1, 2, 3});
+    private final Solution solution = lp.solve(true);
+    private final Node root = Node.root(lp, solution, 0);
+
+    @Test
+    public void testBoundSetIgnoresTheBranchOrder() {
+        TranspositionTable table = new TranspositionTable(8);
+        Node first = root.child(0, 2, true, lp, solution, 1).child(1, 3, false, lp, solution, 2);
+        table.put(first);
+
+        Node other = root.child(1, 3, false, null, solution, 3).child(0, 2, true, null, solution, 4);
+        other.release();
+        assertTrue(table.restore(other));
+        assertSame(lp, other.lp());
+        assertEquals(0, table.size());
+        assertFalse(table.restore(other));
+    }
+
+    @Test
+    public void testOnlyTheTightestBoundCounts() {
+        TranspositionTable table = new TranspositionTable(8);
+        table.put(root.child(0, 5, true, lp, solution, 1).child(0, 2, true, lp, solution, 2));
+
+        assertFalse(table.restore(root.child(0, 5, true, lp, solution, 3)));
+        assertFalse(table.restore(root.child(0, 2, false, lp, solution, 4)));
+        assertTrue(table.restore(root.child(0, 2, true, lp, solution, 5)));
+    }
+
+    @Test
+    public void testLeastRecentlyStoredIsEvicted() {
+        TranspositionTable table = new TranspositionTable(2);
+        for (int k = 0; k < 3; k++)
+            table.put(root.child(k, 1, true, lp, solution, k + 1));
+        assertEquals(2, table.size());
+        assertFalse(table.restore(root.child(0, 1, true, lp, solution, 4)));
+        assertTrue(table.restore(root.child(1, 1, true, lp, solution, 5)));
+        assertTrue(table.restore(root.child(2, 1, true, lp, solution, 6)));
+    }
+
+    @Test
+    public void testSearchWithTableReachesTheSameOptimum() {
+        Random random = new Random(9);
+        for (int instance = 0; instance < 10; instance++) {
+            RandomModels.Ilp ilp = RandomModels.sparseIlp(random, 8, 20);
+            double expected = new Solver(ilp.constraints(), ilp.signs(), ilp.freeVars(), ilp.objective(),
+                    SolverSettings.builder().transpositionTableSize(0).build()).solve(true).objValue();
+            for (NodeSelection selection : NodeSelection.values()) {
+                Solver solver = new Solver(ilp.constraints(), ilp.signs(), ilp.freeVars(), ilp.objective(),
+                        SolverSettings.builder().nodeSelection(selection).transpositionTableSize(4).build());
+                assertEquals(expected, solver.solve(true).objValue(), DELTA, instance + " " + selection);
+            }
+        }
+    }
+}